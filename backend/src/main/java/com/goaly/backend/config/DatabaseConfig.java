@@ -1,10 +1,12 @@
 package com.goaly.backend.config;
 
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @Configuration
+@EnableJpaAuditing
 @EnableJpaRepositories(basePackages = "com.goaly.backend.repository")
 @EnableTransactionManagement
 public class DatabaseConfig {
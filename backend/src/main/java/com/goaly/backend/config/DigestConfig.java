@@ -0,0 +1,26 @@
+package com.goaly.backend.config;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goaly.backend.service.digest.DigestSender;
+import com.goaly.backend.service.digest.LocalDigestSender;
+
+@Configuration
+public class DigestConfig {
+
+    /**
+     * Fallback digest sender; any other DigestSender bean replaces it
+     */
+    @Bean
+    @ConditionalOnMissingBean(DigestSender.class)
+    public DigestSender localDigestSender(ObjectMapper objectMapper,
+            @Value("${goaly.digest.file:}") String file) {
+        return new LocalDigestSender(objectMapper, file.isBlank() ? null : Path.of(file));
+    }
+}
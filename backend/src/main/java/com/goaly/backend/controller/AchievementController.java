@@ -1,8 +1,20 @@
 package com.goaly.backend.controller;
 
+import com.goaly.backend.dto.AchievementCheckDto;
 import com.goaly.backend.dto.AchievementDto;
+import com.goaly.backend.dto.BackfillJobDto;
+import com.goaly.backend.dto.LeaderboardDto;
+import com.goaly.backend.dto.LeaderboardEntryDto;
 import com.goaly.backend.dto.UserAchievementDto;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.AchievementSortMode;
+import com.goaly.backend.service.AchievementBackfillService;
+import com.goaly.backend.service.AchievementCatalog;
+import com.goaly.backend.service.AchievementCheckQueue;
 import com.goaly.backend.service.AchievementService;
+import com.goaly.backend.service.UserAchievementStatsService;
+import com.goaly.backend.service.UserDataVersions;
+import com.goaly.backend.service.UserStreakService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -13,9 +25,13 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
 
@@ -25,10 +41,25 @@ import java.util.Map;
 public class AchievementController {
 
     private final AchievementService achievementService;
+    private final AchievementBackfillService backfillService;
+    private final UserAchievementStatsService statsService;
+    private final UserStreakService streakService;
+    private final AchievementCheckQueue checkQueue;
+    private final UserDataVersions dataVersions;
 
     @Autowired
-    public AchievementController(AchievementService achievementService) {
+    public AchievementController(AchievementService achievementService,
+            AchievementBackfillService backfillService,
+            UserAchievementStatsService statsService,
+            UserStreakService streakService,
+            AchievementCheckQueue checkQueue,
+            UserDataVersions dataVersions) {
         this.achievementService = achievementService;
+        this.backfillService = backfillService;
+        this.statsService = statsService;
+        this.streakService = streakService;
+        this.checkQueue = checkQueue;
+        this.dataVersions = dataVersions;
     }
 
     // Get all achievements (for admin/system purposes)
@@ -40,9 +71,7 @@ public class AchievementController {
             @RequestParam(defaultValue = "asc") String sortDir,
             @RequestParam(required = false) String category) {
 
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+        Sort sort = AchievementSortMode.fromParam(sortBy).toSort(sortDir.equalsIgnoreCase("desc"));
 
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<AchievementDto> achievements = achievementService.getAllAchievements(pageable, category);
@@ -58,9 +87,17 @@ public class AchievementController {
 
     // Get user's achievement progress (unlocked, locked, hidden)
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<UserAchievementDto>> getUserAchievements(@PathVariable Long userId) {
+    public ResponseEntity<List<UserAchievementDto>> getUserAchievements(@PathVariable Long userId,
+            WebRequest webRequest) {
+        // Changes when the user's goals or unlocks change, or when the catalog or rarity does
+        String etag = "\"" + dataVersions.current(userId) + "-"
+                + Long.toHexString(achievementService.getCatalog().getVersion()) + "-"
+                + Long.toHexString(achievementService.getRarityVersion()) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<UserAchievementDto> achievements = achievementService.getUserAchievements(userId);
-        return ResponseEntity.ok(achievements);
+        return ResponseEntity.ok().eTag(etag).body(achievements);
     }
 
     // Get user's unlocked achievements only
@@ -86,11 +123,40 @@ public class AchievementController {
         return ResponseEntity.ok(stats);
     }
 
-    // Check and unlock achievements for a user (typically called after goal completion)
+    // Rebuild every user's stats from their unlocked achievements (admin function)
+    @PostMapping("/stats/reconcile")
+    public ResponseEntity<Void> reconcileStats() {
+        statsService.startReconcile();
+        return ResponseEntity.accepted().build();
+    }
+
+    // Rebuild every user's completion streak from their goals (admin function)
+    @PostMapping("/streaks/rebuild")
+    public ResponseEntity<Void> rebuildStreaks() {
+        streakService.startRebuild();
+        return ResponseEntity.accepted().build();
+    }
+
+    // Queue an achievement check for a user (typically called after goal completion)
     @PostMapping("/user/{userId}/check")
-    public ResponseEntity<List<UserAchievementDto>> checkAndUnlockAchievements(@PathVariable Long userId) {
-        List<UserAchievementDto> newlyUnlocked = achievementService.checkAndUnlockAchievements(userId);
-        return ResponseEntity.ok(newlyUnlocked);
+    public ResponseEntity<AchievementCheckDto> checkAndUnlockAchievements(@PathVariable Long userId) {
+        AchievementCheckDto ticket = checkQueue.enqueue(userId);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/achievements/checks/" + ticket.getTicket()))
+                .body(ticket);
+    }
+
+    // Get the status and result of a queued achievement check
+    @GetMapping("/checks/{ticket}")
+    public ResponseEntity<AchievementCheckDto> getAchievementCheck(@PathVariable String ticket) {
+        AchievementCheckDto check = checkQueue.getTicket(ticket);
+        return ResponseEntity.ok(check);
+    }
+
+    // Stream achievement check results for a user as server-sent events
+    @GetMapping(value = "/user/{userId}/checks/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamAchievementChecks(@PathVariable Long userId) {
+        return checkQueue.subscribe(userId);
     }
 
     // Manually unlock an achievement for a user (admin function)
@@ -125,6 +191,72 @@ public class AchievementController {
         return ResponseEntity.noContent().build();
     }
 
+    // Grant an achievement to every existing user who meets its criteria (admin function)
+    @PostMapping("/{id}/backfill")
+    public ResponseEntity<BackfillJobDto> startBackfill(@PathVariable Long id) {
+        BackfillJobDto job = backfillService.startBackfill(id);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    // List recent backfill jobs with progress and throughput (admin function)
+    @GetMapping("/backfill/jobs")
+    public ResponseEntity<List<BackfillJobDto>> getBackfillJobs() {
+        List<BackfillJobDto> jobs = backfillService.getRecentJobs();
+        return ResponseEntity.ok(jobs);
+    }
+
+    // Get progress of a backfill job (admin function)
+    @GetMapping("/backfill/jobs/{jobId}")
+    public ResponseEntity<BackfillJobDto> getBackfillJob(@PathVariable Long jobId) {
+        BackfillJobDto job = backfillService.getJob(jobId);
+        return ResponseEntity.ok(job);
+    }
+
+    // Get the whole achievement catalog; clients revalidate with If-None-Match
+    @GetMapping("/catalog")
+    public ResponseEntity<List<AchievementDto>> getCatalog(WebRequest webRequest) {
+        AchievementCatalog.Snapshot catalog = achievementService.getCatalog();
+        String etag = "\"" + Long.toHexString(catalog.getVersion()) + "-"
+                + Long.toHexString(achievementService.getRarityVersion()) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .body(achievementService.getCatalogAchievements(catalog));
+    }
+
+    // Get the current catalog version
+    @GetMapping("/catalog/version")
+    public ResponseEntity<Map<String, Object>> getCatalogVersion() {
+        AchievementCatalog.Snapshot catalog = achievementService.getCatalog();
+        return ResponseEntity.ok(Map.of(
+                "version", Long.toHexString(catalog.getVersion()),
+                "size", catalog.size()));
+    }
+
+    // Get the points leaderboard, globally or for one category
+    @GetMapping("/leaderboard")
+    public ResponseEntity<LeaderboardDto> getLeaderboard(
+            @RequestParam(required = false) String category,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "10") int limit) {
+        if (offset < 0 || limit < 1 || limit > 100) {
+            throw new ValidationException("offset must be >= 0 and limit between 1 and 100");
+        }
+        LeaderboardDto leaderboard = achievementService.getLeaderboard(category, offset, limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    // Get a user's rank on the points leaderboard
+    @GetMapping("/leaderboard/user/{userId}")
+    public ResponseEntity<LeaderboardEntryDto> getLeaderboardRank(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String category) {
+        LeaderboardEntryDto rank = achievementService.getLeaderboardRank(userId, category);
+        return ResponseEntity.ok(rank);
+    }
+
     // Get achievement categories
     @GetMapping("/categories")
     public ResponseEntity<List<String>> getAchievementCategories() {
@@ -1,32 +1,59 @@
 package com.goaly.backend.controller;
 
 import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalAnalyticsDto;
+import com.goaly.backend.dto.GoalBatchRequest;
+import com.goaly.backend.dto.GoalBatchResultDto;
+import com.goaly.backend.dto.GoalChangesDto;
 import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.GoalImportResultDto;
+import com.goaly.backend.dto.GoalSliceDto;
 import com.goaly.backend.dto.UpdateGoalRequest;
 import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.GoalSortMode;
+import com.goaly.backend.service.GoalRollupService;
 import com.goaly.backend.service.GoalService;
+import com.goaly.backend.service.UserDataVersions;
+import com.goaly.backend.service.importing.GoalImportService;
+import com.goaly.backend.service.importing.ImportFormat;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/goals")
 @CrossOrigin(origins = "*")
 public class GoalController {
 
+    private static final Pattern CURSOR_CHARACTERS = Pattern.compile("[A-Za-z0-9_-]*");
+
     private final GoalService goalService;
+    private final UserDataVersions dataVersions;
+    private final GoalRollupService rollupService;
+    private final GoalImportService importService;
 
     @Autowired
-    public GoalController(GoalService goalService) {
+    public GoalController(GoalService goalService, UserDataVersions dataVersions,
+            GoalRollupService rollupService, GoalImportService importService) {
         this.goalService = goalService;
+        this.dataVersions = dataVersions;
+        this.rollupService = rollupService;
+        this.importService = importService;
     }
 
     @PostMapping
@@ -35,6 +62,23 @@ public class GoalController {
         return new ResponseEntity<>(goal, HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<GoalBatchResultDto> applyBatch(@Valid @RequestBody GoalBatchRequest request) {
+        GoalBatchResultDto result = goalService.applyBatch(request);
+        return result.isCommitted()
+                ? ResponseEntity.ok(result)
+                : ResponseEntity.badRequest().body(result);
+    }
+
+    // Bulk import from a CSV or NDJSON upload; bad rows are reported and skipped
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<GoalImportResultDto> importGoals(@RequestParam(required = false) Long userId,
+            HttpServletRequest request) throws IOException {
+        ImportFormat format = ImportFormat.fromContentType(request.getContentType());
+        GoalImportResultDto result = importService.importGoals(request.getInputStream(), format, userId);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<GoalDto> getGoalById(@PathVariable Long id) {
         GoalDto goal = goalService.getGoalById(id);
@@ -47,15 +91,80 @@ public class GoalController {
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir) {
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest webRequest) {
 
-        Sort sort = sortDir.equalsIgnoreCase("desc")
-                ? Sort.by(sortBy).descending()
-                : Sort.by(sortBy).ascending();
+        GoalSortMode sortMode = GoalSortMode.fromParam(sortBy);
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        Sort sort = sortMode.toSort(descending);
 
+        // Revalidation is answered from the user's data version and the page asked for
+        String etag = "\"" + dataVersions.current(userId) + "-" + page + "-" + size + "-" + sortMode
+                + (descending ? "-desc" : "-asc") + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         Pageable pageable = PageRequest.of(page, size, sort);
         Page<GoalDto> goals = goalService.getGoalsByUserId(userId, pageable);
-        return ResponseEntity.ok(goals);
+        return ResponseEntity.ok().eTag(etag).body(goals);
+    }
+
+    /**
+     * Cursor-paged variant, selected by passing a cursor parameter (empty for
+     * the first slice). Skips the count query and seeks by index instead of
+     * skipping rows.
+     */
+    @GetMapping(value = "/user/{userId}", params = "cursor")
+    public ResponseEntity<GoalSliceDto> getGoalsByUserIdAfter(
+            @PathVariable Long userId,
+            @RequestParam String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDir,
+            WebRequest webRequest) {
+
+        if (size < 1 || size > 100) {
+            throw new ValidationException("size must be between 1 and 100");
+        }
+        GoalSortMode sort = GoalSortMode.fromParam(sortBy);
+        boolean descending = sortDir.equalsIgnoreCase("desc");
+        // Valid cursors are URL-safe base64, so they can go into the tag as they are
+        if (!CURSOR_CHARACTERS.matcher(cursor).matches()) {
+            throw new ValidationException("Invalid cursor");
+        }
+        String etag = "\"" + dataVersions.current(userId) + "-" + cursor + "-" + size + "-" + sort
+                + (descending ? "-desc" : "-asc") + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        GoalSliceDto goals = goalService.getGoalsByUserId(userId, cursor, sort, descending, size);
+        return ResponseEntity.ok().eTag(etag).body(goals);
+    }
+
+    /**
+     * Goals created, updated or deleted after a change sequence number, for
+     * clients keeping a local copy. Start with since=0 and pass the returned
+     * highWaterMark on the next call.
+     */
+    @GetMapping("/user/{userId}/changes")
+    public ResponseEntity<GoalChangesDto> getGoalChanges(
+            @PathVariable Long userId,
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "500") int limit,
+            WebRequest webRequest) {
+
+        if (since < 0) {
+            throw new ValidationException("since must not be negative");
+        }
+        if (limit < 1 || limit > 1000) {
+            throw new ValidationException("limit must be between 1 and 1000");
+        }
+        String etag = "\"" + dataVersions.current(userId) + "-" + since + "-" + limit + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        GoalChangesDto changes = goalService.getChangesSince(userId, since, limit);
+        return ResponseEntity.ok().eTag(etag).body(changes);
     }
 
     @GetMapping("/user/{userId}/status/{status}")
@@ -67,9 +176,42 @@ public class GoalController {
     }
 
     @GetMapping("/user/{userId}/upcoming")
-    public ResponseEntity<List<GoalDto>> getUpcomingGoals(@PathVariable Long userId) {
+    public ResponseEntity<List<GoalDto>> getUpcomingGoals(@PathVariable Long userId, WebRequest webRequest) {
+        // The window moves daily, so the date is part of the tag
+        String etag = "\"" + dataVersions.current(userId) + "-" + LocalDate.now() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
         List<GoalDto> goals = goalService.getUpcomingGoals(userId);
-        return ResponseEntity.ok(goals);
+        return ResponseEntity.ok().eTag(etag).body(goals);
+    }
+
+    /**
+     * Heatmap, completion rates and average time to complete between two
+     * dates, by default the year up to today
+     */
+    @GetMapping("/user/{userId}/analytics")
+    public ResponseEntity<GoalAnalyticsDto> getGoalAnalytics(
+            @PathVariable Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "30") int window,
+            WebRequest webRequest) {
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(364);
+        String etag = "\"" + dataVersions.current(userId) + "-" + start + "-" + end + "-" + window + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        GoalAnalyticsDto analytics = rollupService.getAnalytics(userId, start, end, window);
+        return ResponseEntity.ok().eTag(etag).body(analytics);
+    }
+
+    // Recompute every user's analytics rollups from their goals (admin function)
+    @PostMapping("/rollups/rebuild")
+    public ResponseEntity<Void> rebuildRollups() {
+        rollupService.startRebuild();
+        return ResponseEntity.accepted().build();
     }
 
     @PutMapping("/{id}")
@@ -2,13 +2,18 @@ package com.goaly.backend.controller;
 
 import com.goaly.backend.dto.UserDto;
 import com.goaly.backend.service.UserService;
+import com.goaly.backend.service.export.ExportFormat;
+import com.goaly.backend.service.export.UserExportService;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -18,10 +23,12 @@ import java.util.List;
 public class UserController {
 
     private final UserService userService;
+    private final UserExportService exportService;
 
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, UserExportService exportService) {
         this.userService = userService;
+        this.exportService = exportService;
     }
 
     @PostMapping
@@ -36,6 +43,27 @@ public class UserController {
         return ResponseEntity.ok(user);
     }
 
+    /**
+     * Download a user's goals and achievements as NDJSON or CSV, streamed as
+     * it is read. With gzip=true the body is sent gzip-encoded.
+     */
+    @GetMapping("/{id}/export")
+    public ResponseEntity<StreamingResponseBody> exportUser(@PathVariable Long id,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        // Resolved up front so a missing user is a 404 rather than a broken stream
+        UserDto user = userService.getUserById(id);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType() + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"goaly-user-" + id + "." + exportFormat.getExtension() + "\"");
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(out -> exportService.export(user, exportFormat, gzip, out));
+    }
+
     @GetMapping("/email/{email}")
     public ResponseEntity<UserDto> getUserByEmail(@PathVariable String email) {
         UserDto user = userService.getUserByEmail(email);
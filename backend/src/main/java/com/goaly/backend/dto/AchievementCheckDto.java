@@ -0,0 +1,83 @@
+package com.goaly.backend.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Ticket for a queued achievement check and, once it has run, its result
+ */
+public class AchievementCheckDto {
+
+    public enum CheckStatus {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private String ticket;
+    private Long userId;
+    private CheckStatus status;
+    private List<UserAchievementDto> unlocked;
+    private String error;
+    private LocalDateTime requestedAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public AchievementCheckDto() {
+    }
+
+    // Getters and setters
+    public String getTicket() {
+        return ticket;
+    }
+
+    public void setTicket(String ticket) {
+        this.ticket = ticket;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public CheckStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(CheckStatus status) {
+        this.status = status;
+    }
+
+    public List<UserAchievementDto> getUnlocked() {
+        return unlocked;
+    }
+
+    public void setUnlocked(List<UserAchievementDto> unlocked) {
+        this.unlocked = unlocked;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -17,6 +17,7 @@ public class AchievementDto {
     private Boolean isHidden;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Double rarity;
 
     // Constructors
     public AchievementDto() {
@@ -117,4 +118,12 @@ public class AchievementDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Double getRarity() {
+        return rarity;
+    }
+
+    public void setRarity(Double rarity) {
+        this.rarity = rarity;
+    }
 }
@@ -0,0 +1,107 @@
+package com.goaly.backend.dto;
+
+import java.time.LocalDateTime;
+
+import com.goaly.backend.entity.AchievementBackfillJob.JobStatus;
+
+/**
+ * Progress of an achievement backfill job
+ */
+public class BackfillJobDto {
+
+    private Long id;
+    private Long achievementId;
+    private JobStatus status;
+    private int totalRanges;
+    private int completedRanges;
+    private long processedUsers;
+    private long unlockedUsers;
+    private double usersPerSecond;
+    private LocalDateTime createdAt;
+    private LocalDateTime completedAt;
+
+    // Constructors
+    public BackfillJobDto() {
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getAchievementId() {
+        return achievementId;
+    }
+
+    public void setAchievementId(Long achievementId) {
+        this.achievementId = achievementId;
+    }
+
+    public JobStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(JobStatus status) {
+        this.status = status;
+    }
+
+    public int getTotalRanges() {
+        return totalRanges;
+    }
+
+    public void setTotalRanges(int totalRanges) {
+        this.totalRanges = totalRanges;
+    }
+
+    public int getCompletedRanges() {
+        return completedRanges;
+    }
+
+    public void setCompletedRanges(int completedRanges) {
+        this.completedRanges = completedRanges;
+    }
+
+    public long getProcessedUsers() {
+        return processedUsers;
+    }
+
+    public void setProcessedUsers(long processedUsers) {
+        this.processedUsers = processedUsers;
+    }
+
+    public long getUnlockedUsers() {
+        return unlockedUsers;
+    }
+
+    public void setUnlockedUsers(long unlockedUsers) {
+        this.unlockedUsers = unlockedUsers;
+    }
+
+    public double getUsersPerSecond() {
+        return usersPerSecond;
+    }
+
+    public void setUsersPerSecond(double usersPerSecond) {
+        this.usersPerSecond = usersPerSecond;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
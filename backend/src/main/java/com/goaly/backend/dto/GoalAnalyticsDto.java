@@ -0,0 +1,132 @@
+package com.goaly.backend.dto;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * A user's goal activity between two dates: a per-day heatmap, totals, and
+ * the completion rate over a trailing window ending on each day. Completion
+ * rate is completed / (completed + cancelled), null when no goal was closed.
+ */
+public class GoalAnalyticsDto {
+
+    /** Goal activity on one day; days without activity are omitted */
+    public record Day(LocalDate day, int created, int completed, int cancelled) {
+    }
+
+    /** Completion rate over the window ending on a day */
+    public record RatePoint(LocalDate day, int completed, int cancelled, Double completionRate) {
+    }
+
+    private Long userId;
+    private LocalDate from;
+    private LocalDate to;
+    private int windowDays;
+    private int created;
+    private int completed;
+    private int cancelled;
+    private Double completionRate;
+    private Double averageHoursToComplete;
+    private List<Day> heatmap;
+    private List<RatePoint> rollingCompletionRates;
+
+    // Constructors
+    public GoalAnalyticsDto() {
+    }
+
+    public GoalAnalyticsDto(Long userId, LocalDate from, LocalDate to, int windowDays) {
+        this.userId = userId;
+        this.from = from;
+        this.to = to;
+        this.windowDays = windowDays;
+    }
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public int getWindowDays() {
+        return windowDays;
+    }
+
+    public void setWindowDays(int windowDays) {
+        this.windowDays = windowDays;
+    }
+
+    public int getCreated() {
+        return created;
+    }
+
+    public void setCreated(int created) {
+        this.created = created;
+    }
+
+    public int getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(int completed) {
+        this.completed = completed;
+    }
+
+    public int getCancelled() {
+        return cancelled;
+    }
+
+    public void setCancelled(int cancelled) {
+        this.cancelled = cancelled;
+    }
+
+    public Double getCompletionRate() {
+        return completionRate;
+    }
+
+    public void setCompletionRate(Double completionRate) {
+        this.completionRate = completionRate;
+    }
+
+    public Double getAverageHoursToComplete() {
+        return averageHoursToComplete;
+    }
+
+    public void setAverageHoursToComplete(Double averageHoursToComplete) {
+        this.averageHoursToComplete = averageHoursToComplete;
+    }
+
+    public List<Day> getHeatmap() {
+        return heatmap;
+    }
+
+    public void setHeatmap(List<Day> heatmap) {
+        this.heatmap = heatmap;
+    }
+
+    public List<RatePoint> getRollingCompletionRates() {
+        return rollingCompletionRates;
+    }
+
+    public void setRollingCompletionRates(List<RatePoint> rollingCompletionRates) {
+        this.rollingCompletionRates = rollingCompletionRates;
+    }
+}
@@ -0,0 +1,63 @@
+package com.goaly.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * One operation in a goal batch. CREATE reads {@code goal}; UPDATE reads
+ * {@code id} and {@code changes}; COMPLETE and DELETE read only {@code id}.
+ */
+public class GoalBatchOperation {
+
+    public enum OperationType {
+        CREATE, UPDATE, COMPLETE, DELETE
+    }
+
+    @NotNull(message = "Operation type is required")
+    private OperationType type;
+
+    private Long id;
+
+    @Valid
+    private CreateGoalRequest goal;
+
+    @Valid
+    private UpdateGoalRequest changes;
+
+    // Constructors
+    public GoalBatchOperation() {
+    }
+
+    // Getters and Setters
+    public OperationType getType() {
+        return type;
+    }
+
+    public void setType(OperationType type) {
+        this.type = type;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public CreateGoalRequest getGoal() {
+        return goal;
+    }
+
+    public void setGoal(CreateGoalRequest goal) {
+        this.goal = goal;
+    }
+
+    public UpdateGoalRequest getChanges() {
+        return changes;
+    }
+
+    public void setChanges(UpdateGoalRequest changes) {
+        this.changes = changes;
+    }
+}
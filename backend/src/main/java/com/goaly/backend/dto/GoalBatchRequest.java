@@ -0,0 +1,51 @@
+package com.goaly.backend.dto;
+
+import java.util.List;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A list of goal operations applied in one transaction
+ */
+public class GoalBatchRequest {
+
+    /**
+     * What happens to the rest of the batch when an operation fails
+     */
+    public enum FailurePolicy {
+        /** Roll back every operation if any one fails */
+        ALL_OR_NOTHING,
+        /** Commit the operations that succeeded and report the rest */
+        CONTINUE
+    }
+
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 500, message = "A batch may not exceed 500 operations")
+    private List<@Valid @NotNull GoalBatchOperation> operations;
+
+    private FailurePolicy onFailure = FailurePolicy.ALL_OR_NOTHING;
+
+    // Constructors
+    public GoalBatchRequest() {
+    }
+
+    // Getters and Setters
+    public List<GoalBatchOperation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(List<GoalBatchOperation> operations) {
+        this.operations = operations;
+    }
+
+    public FailurePolicy getOnFailure() {
+        return onFailure;
+    }
+
+    public void setOnFailure(FailurePolicy onFailure) {
+        this.onFailure = onFailure;
+    }
+}
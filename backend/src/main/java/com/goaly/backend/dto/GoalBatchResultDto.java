@@ -0,0 +1,142 @@
+package com.goaly.backend.dto;
+
+import java.util.List;
+
+import com.goaly.backend.dto.GoalBatchOperation.OperationType;
+
+/**
+ * Outcome of a goal batch, with one result per operation in request order
+ */
+public class GoalBatchResultDto {
+
+    public enum ItemStatus {
+        /** Applied and committed */
+        OK,
+        /** Rejected; see the error */
+        FAILED,
+        /** Valid, but rolled back because another operation failed */
+        ROLLED_BACK
+    }
+
+    private boolean committed;
+    private int succeeded;
+    private int failed;
+    private List<ItemResult> results;
+
+    // Constructors
+    public GoalBatchResultDto() {
+    }
+
+    public GoalBatchResultDto(boolean committed, List<ItemResult> results) {
+        this.committed = committed;
+        this.results = results;
+        for (ItemResult result : results) {
+            if (result.getStatus() == ItemStatus.OK) {
+                succeeded++;
+            } else if (result.getStatus() == ItemStatus.FAILED) {
+                failed++;
+            }
+        }
+    }
+
+    // Getters and Setters
+    public boolean isCommitted() {
+        return committed;
+    }
+
+    public void setCommitted(boolean committed) {
+        this.committed = committed;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<ItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<ItemResult> results) {
+        this.results = results;
+    }
+
+    public static class ItemResult {
+
+        private int index;
+        private OperationType type;
+        private ItemStatus status;
+        private Long id;
+        private GoalDto goal;
+        private String error;
+
+        // Constructors
+        public ItemResult() {
+        }
+
+        public ItemResult(int index, OperationType type) {
+            this.index = index;
+            this.type = type;
+        }
+
+        // Getters and Setters
+        public int getIndex() {
+            return index;
+        }
+
+        public void setIndex(int index) {
+            this.index = index;
+        }
+
+        public OperationType getType() {
+            return type;
+        }
+
+        public void setType(OperationType type) {
+            this.type = type;
+        }
+
+        public ItemStatus getStatus() {
+            return status;
+        }
+
+        public void setStatus(ItemStatus status) {
+            this.status = status;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public GoalDto getGoal() {
+            return goal;
+        }
+
+        public void setGoal(GoalDto goal) {
+            this.goal = goal;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        public void setError(String error) {
+            this.error = error;
+        }
+    }
+}
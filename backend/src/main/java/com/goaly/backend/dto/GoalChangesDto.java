@@ -0,0 +1,83 @@
+package com.goaly.backend.dto;
+
+import java.util.List;
+
+/**
+ * Goals created, updated or deleted after a change sequence number. Apply
+ * the goals and tombstones to a local copy, then ask again with
+ * {@code since = highWaterMark}. When {@code full} is set the changes since
+ * the given number are no longer retained, so goals holds every current goal
+ * and the local copy should be replaced instead.
+ */
+public class GoalChangesDto {
+
+    private long since;
+    private long highWaterMark;
+    private boolean hasMore;
+    private boolean full;
+    private List<GoalDto> goals;
+    private List<Long> deletedIds;
+
+    // Constructors
+    public GoalChangesDto() {
+    }
+
+    public GoalChangesDto(long since, long highWaterMark, boolean hasMore, boolean full, List<GoalDto> goals,
+            List<Long> deletedIds) {
+        this.since = since;
+        this.highWaterMark = highWaterMark;
+        this.hasMore = hasMore;
+        this.full = full;
+        this.goals = goals;
+        this.deletedIds = deletedIds;
+    }
+
+    // Getters and setters
+    public long getSince() {
+        return since;
+    }
+
+    public void setSince(long since) {
+        this.since = since;
+    }
+
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public void setHighWaterMark(long highWaterMark) {
+        this.highWaterMark = highWaterMark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    public boolean isFull() {
+        return full;
+    }
+
+    public void setFull(boolean full) {
+        this.full = full;
+    }
+
+    public List<GoalDto> getGoals() {
+        return goals;
+    }
+
+    public void setGoals(List<GoalDto> goals) {
+        this.goals = goals;
+    }
+
+    public List<Long> getDeletedIds() {
+        return deletedIds;
+    }
+
+    public void setDeletedIds(List<Long> deletedIds) {
+        this.deletedIds = deletedIds;
+    }
+}
@@ -15,15 +15,35 @@ public class GoalDto {
     private GoalPriority priority;
     private LocalDate targetDate;
     private LocalDate completionDate;
+    private LocalDate cancellationDate;
     private Long userId;
     private String userName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long version;
 
     // Constructors
     public GoalDto() {
     }
 
+    public GoalDto(Long id, String title, String description, GoalStatus status, GoalPriority priority,
+            LocalDate targetDate, LocalDate completionDate, LocalDate cancellationDate, Long userId,
+            String userName, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.targetDate = targetDate;
+        this.completionDate = completionDate;
+        this.cancellationDate = cancellationDate;
+        this.userId = userId;
+        this.userName = userName;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+    }
+
     // Getters and Setters
     public Long getId() {
         return id;
@@ -57,6 +77,14 @@ public class GoalDto {
         this.status = status;
     }
 
+    public GoalPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(GoalPriority priority) {
+        this.priority = priority;
+    }
+
     public LocalDate getTargetDate() {
         return targetDate;
     }
@@ -73,6 +101,14 @@ public class GoalDto {
         this.completionDate = completionDate;
     }
 
+    public LocalDate getCancellationDate() {
+        return cancellationDate;
+    }
+
+    public void setCancellationDate(LocalDate cancellationDate) {
+        this.cancellationDate = cancellationDate;
+    }
+
     public Long getUserId() {
         return userId;
     }
@@ -104,4 +140,12 @@ public class GoalDto {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
@@ -0,0 +1,94 @@
+package com.goaly.backend.dto;
+
+import java.util.List;
+
+/**
+ * Outcome of a goal import. Rows that failed are listed by line and skipped;
+ * the rest are imported. Only the first errors are listed when there are many.
+ */
+public class GoalImportResultDto {
+
+    /** Why one line of the upload was not imported */
+    public record RowError(long line, String message) {
+    }
+
+    private long received;
+    private long imported;
+    private long rejected;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    private List<RowError> errors;
+    private boolean errorsTruncated;
+
+    // Constructors
+    public GoalImportResultDto() {
+    }
+
+    public GoalImportResultDto(long received, long imported, long elapsedMillis, List<RowError> errors,
+            boolean errorsTruncated) {
+        this.received = received;
+        this.imported = imported;
+        this.rejected = received - imported;
+        this.elapsedMillis = elapsedMillis;
+        this.rowsPerSecond = elapsedMillis > 0 ? received * 1000.0 / elapsedMillis : received;
+        this.errors = errors;
+        this.errorsTruncated = errorsTruncated;
+    }
+
+    // Getters and setters
+    public long getReceived() {
+        return received;
+    }
+
+    public void setReceived(long received) {
+        this.received = received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(long rejected) {
+        this.rejected = rejected;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+
+    public void setRowsPerSecond(double rowsPerSecond) {
+        this.rowsPerSecond = rowsPerSecond;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<RowError> errors) {
+        this.errors = errors;
+    }
+
+    public boolean isErrorsTruncated() {
+        return errorsTruncated;
+    }
+
+    public void setErrorsTruncated(boolean errorsTruncated) {
+        this.errorsTruncated = errorsTruncated;
+    }
+}
@@ -0,0 +1,49 @@
+package com.goaly.backend.dto;
+
+import java.util.List;
+
+/**
+ * A cursor-paged slice of goals. Pass nextCursor back to read the following
+ * slice; it is null once there are no more goals.
+ */
+public class GoalSliceDto {
+
+    private List<GoalDto> content;
+    private String nextCursor;
+    private boolean hasNext;
+
+    // Constructors
+    public GoalSliceDto() {
+    }
+
+    public GoalSliceDto(List<GoalDto> content, String nextCursor) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    // Getters and setters
+    public List<GoalDto> getContent() {
+        return content;
+    }
+
+    public void setContent(List<GoalDto> content) {
+        this.content = content;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
@@ -0,0 +1,58 @@
+package com.goaly.backend.dto;
+
+import java.util.List;
+
+/**
+ * A page of a points leaderboard; category is null for the global board
+ */
+public class LeaderboardDto {
+
+    private String category;
+    private int totalUsers;
+    private int offset;
+    private List<LeaderboardEntryDto> entries;
+
+    // Constructors
+    public LeaderboardDto() {
+    }
+
+    public LeaderboardDto(String category, int totalUsers, int offset, List<LeaderboardEntryDto> entries) {
+        this.category = category;
+        this.totalUsers = totalUsers;
+        this.offset = offset;
+        this.entries = entries;
+    }
+
+    // Getters and setters
+    public String getCategory() {
+        return category;
+    }
+
+    public void setCategory(String category) {
+        this.category = category;
+    }
+
+    public int getTotalUsers() {
+        return totalUsers;
+    }
+
+    public void setTotalUsers(int totalUsers) {
+        this.totalUsers = totalUsers;
+    }
+
+    public int getOffset() {
+        return offset;
+    }
+
+    public void setOffset(int offset) {
+        this.offset = offset;
+    }
+
+    public List<LeaderboardEntryDto> getEntries() {
+        return entries;
+    }
+
+    public void setEntries(List<LeaderboardEntryDto> entries) {
+        this.entries = entries;
+    }
+}
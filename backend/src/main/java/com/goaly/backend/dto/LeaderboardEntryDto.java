@@ -0,0 +1,56 @@
+package com.goaly.backend.dto;
+
+/**
+ * One user's position on a points leaderboard
+ */
+public class LeaderboardEntryDto {
+
+    private long rank;
+    private Long userId;
+    private String name;
+    private long points;
+
+    // Constructors
+    public LeaderboardEntryDto() {
+    }
+
+    public LeaderboardEntryDto(long rank, Long userId, String name, long points) {
+        this.rank = rank;
+        this.userId = userId;
+        this.name = name;
+        this.points = points;
+    }
+
+    // Getters and setters
+    public long getRank() {
+        return rank;
+    }
+
+    public void setRank(long rank) {
+        this.rank = rank;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getPoints() {
+        return points;
+    }
+
+    public void setPoints(long points) {
+        this.points = points;
+    }
+}
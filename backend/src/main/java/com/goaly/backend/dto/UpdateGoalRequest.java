@@ -18,6 +18,9 @@ public class UpdateGoalRequest {
     private GoalPriority priority;
     private LocalDate targetDate;
 
+    // When set, the update only applies if the goal is still at this version
+    private Long version;
+
     // Constructors
     public UpdateGoalRequest() {
     }
@@ -47,6 +50,14 @@ public class UpdateGoalRequest {
         this.status = status;
     }
 
+    public GoalPriority getPriority() {
+        return priority;
+    }
+
+    public void setPriority(GoalPriority priority) {
+        this.priority = priority;
+    }
+
     public LocalDate getTargetDate() {
         return targetDate;
     }
@@ -54,4 +65,12 @@ public class UpdateGoalRequest {
     public void setTargetDate(LocalDate targetDate) {
         this.targetDate = targetDate;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
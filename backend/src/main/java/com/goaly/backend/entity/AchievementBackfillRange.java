@@ -0,0 +1,131 @@
+package com.goaly.backend.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Slice of the users id space processed by a backfill job. Covers ids in
+ * (rangeStart, rangeEnd]; checkpoint is the last id already processed.
+ */
+@Entity
+@Table(name = "achievement_backfill_ranges")
+public class AchievementBackfillRange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    @Column(name = "range_start", nullable = false)
+    private Long rangeStart;
+
+    @Column(name = "range_end", nullable = false)
+    private Long rangeEnd;
+
+    @Column(name = "checkpoint", nullable = false)
+    private Long checkpoint;
+
+    @Column(name = "processed_users", nullable = false)
+    private Long processedUsers = 0L;
+
+    @Column(name = "unlocked_users", nullable = false)
+    private Long unlockedUsers = 0L;
+
+    @Column(name = "completed", nullable = false)
+    private Boolean completed = false;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public AchievementBackfillRange() {
+    }
+
+    public AchievementBackfillRange(Long jobId, Long rangeStart, Long rangeEnd) {
+        this.jobId = jobId;
+        this.rangeStart = rangeStart;
+        this.rangeEnd = rangeEnd;
+        this.checkpoint = rangeStart;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onWrite() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Getters and setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(Long jobId) {
+        this.jobId = jobId;
+    }
+
+    public Long getRangeStart() {
+        return rangeStart;
+    }
+
+    public void setRangeStart(Long rangeStart) {
+        this.rangeStart = rangeStart;
+    }
+
+    public Long getRangeEnd() {
+        return rangeEnd;
+    }
+
+    public void setRangeEnd(Long rangeEnd) {
+        this.rangeEnd = rangeEnd;
+    }
+
+    public Long getCheckpoint() {
+        return checkpoint;
+    }
+
+    public void setCheckpoint(Long checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
+    public Long getProcessedUsers() {
+        return processedUsers;
+    }
+
+    public void setProcessedUsers(Long processedUsers) {
+        this.processedUsers = processedUsers;
+    }
+
+    public Long getUnlockedUsers() {
+        return unlockedUsers;
+    }
+
+    public void setUnlockedUsers(Long unlockedUsers) {
+        this.unlockedUsers = unlockedUsers;
+    }
+
+    public Boolean getCompleted() {
+        return completed;
+    }
+
+    public void setCompleted(Boolean completed) {
+        this.completed = completed;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -14,7 +14,8 @@ import java.time.LocalDateTime;
 public class Goal {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "goals_id_seq")
+    @SequenceGenerator(name = "goals_id_seq", sequenceName = "goals_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -31,12 +32,19 @@ public class Goal {
     @Column(nullable = false)
     private GoalPriority priority = GoalPriority.MEDIUM;
 
+    // Generated from priority by the database; mapped only so it can be sorted on
+    @Column(name = "priority_rank", insertable = false, updatable = false)
+    private Short priorityRank;
+
     @Column(name = "target_date")
     private LocalDate targetDate;
 
     @Column(name = "completion_date")
     private LocalDate completionDate;
 
+    @Column(name = "cancellation_date")
+    private LocalDate cancellationDate;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
@@ -49,6 +57,10 @@ public class Goal {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     // Constructors
     public Goal() {
     }
@@ -116,6 +128,14 @@ public class Goal {
         this.completionDate = completionDate;
     }
 
+    public LocalDate getCancellationDate() {
+        return cancellationDate;
+    }
+
+    public void setCancellationDate(LocalDate cancellationDate) {
+        this.cancellationDate = cancellationDate;
+    }
+
     public User getUser() {
         return user;
     }
@@ -140,6 +160,10 @@ public class Goal {
         this.updatedAt = updatedAt;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     // Enums
     public enum GoalStatus {
         ACTIVE, COMPLETED, PAUSED, CANCELLED
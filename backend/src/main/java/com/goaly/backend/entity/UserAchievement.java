@@ -3,6 +3,7 @@ package com.goaly.backend.entity;
 import java.time.LocalDateTime;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -10,13 +11,17 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
+@Entity
 @Table(name = "user_achievements")
 public class UserAchievement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_achievements_id_seq")
+    @SequenceGenerator(name = "user_achievements_id_seq", sequenceName = "user_achievements_id_seq",
+            allocationSize = 50)
     private Long id;
 
     @Column(name = "user_id", nullable = false)
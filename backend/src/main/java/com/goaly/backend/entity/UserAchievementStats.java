@@ -0,0 +1,79 @@
+package com.goaly.backend.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Materialized achievement totals for one user, maintained on every unlock
+ */
+@Entity
+@Table(name = "user_achievement_stats")
+public class UserAchievementStats {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "unlocked_count", nullable = false)
+    private Integer unlockedCount = 0;
+
+    @Column(name = "total_points", nullable = false)
+    private Long totalPoints = 0L;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "category_counts", nullable = false, columnDefinition = "jsonb")
+    private Map<String, Integer> categoryCounts = new HashMap<>();
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserAchievementStats() {
+    }
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Integer getUnlockedCount() {
+        return unlockedCount;
+    }
+
+    public void setUnlockedCount(Integer unlockedCount) {
+        this.unlockedCount = unlockedCount;
+    }
+
+    public Long getTotalPoints() {
+        return totalPoints;
+    }
+
+    public void setTotalPoints(Long totalPoints) {
+        this.totalPoints = totalPoints;
+    }
+
+    public Map<String, Integer> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public void setCategoryCounts(Map<String, Integer> categoryCounts) {
+        this.categoryCounts = categoryCounts;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
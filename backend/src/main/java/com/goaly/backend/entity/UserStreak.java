@@ -0,0 +1,122 @@
+package com.goaly.backend.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.goaly.backend.service.criteria.StreakState;
+
+/**
+ * Persisted completion streak state for one user
+ */
+@Entity
+@Table(name = "user_streaks")
+public class UserStreak {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "last_completion_date", nullable = false)
+    private LocalDate lastCompletionDate;
+
+    @Column(name = "current_streak", nullable = false)
+    private Integer currentStreak;
+
+    @Column(name = "best_streak", nullable = false)
+    private Integer bestStreak;
+
+    @Column(name = "run_start_date", nullable = false)
+    private LocalDate runStartDate;
+
+    @Column(name = "recent_days", nullable = false)
+    private Long recentDays = 0L;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public UserStreak() {
+    }
+
+    public UserStreak(Long userId) {
+        this.userId = userId;
+    }
+
+    public StreakState toState() {
+        return new StreakState(lastCompletionDate.toEpochDay(), currentStreak, bestStreak,
+                runStartDate.toEpochDay(), recentDays);
+    }
+
+    public void apply(StreakState state) {
+        this.lastCompletionDate = LocalDate.ofEpochDay(state.getLastCompletionDay());
+        this.currentStreak = state.getCurrentStreak();
+        this.bestStreak = state.getBestStreak();
+        this.runStartDate = LocalDate.ofEpochDay(state.getRunStartDay());
+        this.recentDays = state.getRecentDays();
+    }
+
+    // Getters and setters
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public LocalDate getLastCompletionDate() {
+        return lastCompletionDate;
+    }
+
+    public void setLastCompletionDate(LocalDate lastCompletionDate) {
+        this.lastCompletionDate = lastCompletionDate;
+    }
+
+    public Integer getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public void setCurrentStreak(Integer currentStreak) {
+        this.currentStreak = currentStreak;
+    }
+
+    public Integer getBestStreak() {
+        return bestStreak;
+    }
+
+    public void setBestStreak(Integer bestStreak) {
+        this.bestStreak = bestStreak;
+    }
+
+    public LocalDate getRunStartDate() {
+        return runStartDate;
+    }
+
+    public void setRunStartDate(LocalDate runStartDate) {
+        this.runStartDate = runStartDate;
+    }
+
+    public Long getRecentDays() {
+        return recentDays;
+    }
+
+    public void setRecentDays(Long recentDays) {
+        this.recentDays = recentDays;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
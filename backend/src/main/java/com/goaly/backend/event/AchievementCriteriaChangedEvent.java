@@ -0,0 +1,18 @@
+package com.goaly.backend.event;
+
+/**
+ * Published when an achievement is created or its criteria may have changed,
+ * so existing users can be re-evaluated against it
+ */
+public class AchievementCriteriaChangedEvent {
+
+    private final Long achievementId;
+
+    public AchievementCriteriaChangedEvent(Long achievementId) {
+        this.achievementId = achievementId;
+    }
+
+    public Long getAchievementId() {
+        return achievementId;
+    }
+}
@@ -0,0 +1,25 @@
+package com.goaly.backend.event;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a goal moves into the COMPLETED status, either through the
+ * complete endpoint or a status update
+ */
+public class GoalCompletedEvent extends GoalEvent {
+
+    private final LocalDate completionDate;
+
+    public GoalCompletedEvent(Long userId, Long goalId, GoalPriority priority, LocalDate targetDate,
+            LocalDate completionDate) {
+        super(userId, goalId, GoalStatus.COMPLETED, priority, targetDate);
+        this.completionDate = completionDate;
+    }
+
+    public LocalDate getCompletionDate() {
+        return completionDate;
+    }
+}
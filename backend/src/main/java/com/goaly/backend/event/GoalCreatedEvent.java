@@ -0,0 +1,17 @@
+package com.goaly.backend.event;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a goal is created
+ */
+public class GoalCreatedEvent extends GoalEvent {
+
+    public GoalCreatedEvent(Long userId, Long goalId, GoalStatus status, GoalPriority priority,
+            LocalDate targetDate) {
+        super(userId, goalId, status, priority, targetDate);
+    }
+}
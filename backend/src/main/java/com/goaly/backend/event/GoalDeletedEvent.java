@@ -0,0 +1,17 @@
+package com.goaly.backend.event;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a goal is deleted, with the state it had when removed
+ */
+public class GoalDeletedEvent extends GoalEvent {
+
+    public GoalDeletedEvent(Long userId, Long goalId, GoalStatus status, GoalPriority priority,
+            LocalDate targetDate) {
+        super(userId, goalId, status, priority, targetDate);
+    }
+}
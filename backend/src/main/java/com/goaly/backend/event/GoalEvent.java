@@ -0,0 +1,47 @@
+package com.goaly.backend.event;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Base class for domain events published when a user's goals change
+ */
+public abstract class GoalEvent {
+
+    private final Long userId;
+    private final Long goalId;
+    private final GoalStatus status;
+    private final GoalPriority priority;
+    private final LocalDate targetDate;
+
+    protected GoalEvent(Long userId, Long goalId, GoalStatus status, GoalPriority priority,
+            LocalDate targetDate) {
+        this.userId = userId;
+        this.goalId = goalId;
+        this.status = status;
+        this.priority = priority;
+        this.targetDate = targetDate;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public Long getGoalId() {
+        return goalId;
+    }
+
+    public GoalStatus getStatus() {
+        return status;
+    }
+
+    public GoalPriority getPriority() {
+        return priority;
+    }
+
+    public LocalDate getTargetDate() {
+        return targetDate;
+    }
+}
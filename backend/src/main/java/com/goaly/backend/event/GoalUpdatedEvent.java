@@ -0,0 +1,39 @@
+package com.goaly.backend.event;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Published after a goal's fields are updated. Carries the previous status and
+ * target date so listeners can tell which derived values may have changed.
+ */
+public class GoalUpdatedEvent extends GoalEvent {
+
+    private final GoalStatus previousStatus;
+    private final LocalDate previousTargetDate;
+
+    public GoalUpdatedEvent(Long userId, Long goalId, GoalStatus status, GoalPriority priority,
+            LocalDate targetDate, GoalStatus previousStatus, LocalDate previousTargetDate) {
+        super(userId, goalId, status, priority, targetDate);
+        this.previousStatus = previousStatus;
+        this.previousTargetDate = previousTargetDate;
+    }
+
+    public GoalStatus getPreviousStatus() {
+        return previousStatus;
+    }
+
+    public LocalDate getPreviousTargetDate() {
+        return previousTargetDate;
+    }
+
+    public boolean isStatusChanged() {
+        return previousStatus != getStatus();
+    }
+
+    public boolean isTargetDateChanged() {
+        return previousTargetDate == null ? getTargetDate() != null : !previousTargetDate.equals(getTargetDate());
+    }
+}
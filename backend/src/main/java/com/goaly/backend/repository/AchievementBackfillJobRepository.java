@@ -0,0 +1,32 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.goaly.backend.entity.AchievementBackfillJob;
+import com.goaly.backend.entity.AchievementBackfillJob.JobStatus;
+
+@Repository
+public interface AchievementBackfillJobRepository extends JpaRepository<AchievementBackfillJob, Long> {
+
+    List<AchievementBackfillJob> findByStatus(JobStatus status);
+
+    List<AchievementBackfillJob> findByAchievementIdAndStatus(Long achievementId, JobStatus status);
+
+    List<AchievementBackfillJob> findTop20ByOrderByCreatedAtDesc();
+
+    /**
+     * Move a job out of RUNNING; returns 0 if it already finished or was cancelled
+     */
+    @Modifying
+    @Query("UPDATE AchievementBackfillJob j SET j.status = :status, j.completedAt = :completedAt "
+            + "WHERE j.id = :id AND j.status = 'RUNNING'")
+    int finish(@Param("id") Long id, @Param("status") JobStatus status,
+            @Param("completedAt") LocalDateTime completedAt);
+}
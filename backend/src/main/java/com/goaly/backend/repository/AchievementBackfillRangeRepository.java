@@ -0,0 +1,34 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.goaly.backend.entity.AchievementBackfillRange;
+
+@Repository
+public interface AchievementBackfillRangeRepository extends JpaRepository<AchievementBackfillRange, Long> {
+
+    List<AchievementBackfillRange> findByJobIdOrderByRangeStart(Long jobId);
+
+    List<AchievementBackfillRange> findByJobIdAndCompletedFalse(Long jobId);
+
+    long countByJobIdAndCompletedFalse(Long jobId);
+
+    /**
+     * Record a processed page and move the range checkpoint forward
+     */
+    @Modifying
+    @Query("UPDATE AchievementBackfillRange r SET r.checkpoint = :checkpoint, "
+            + "r.processedUsers = r.processedUsers + :processed, "
+            + "r.unlockedUsers = r.unlockedUsers + :unlocked, "
+            + "r.completed = :completed, r.updatedAt = :updatedAt WHERE r.id = :id")
+    int advance(@Param("id") Long id, @Param("checkpoint") Long checkpoint,
+            @Param("processed") long processed, @Param("unlocked") long unlocked,
+            @Param("completed") boolean completed, @Param("updatedAt") LocalDateTime updatedAt);
+}
@@ -10,7 +10,7 @@ import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface AchievementRepository extends JpaRepository<Achievement, Long> {
+public interface AchievementRepository extends JpaRepository<Achievement, Long>, AchievementRepositoryCustom {
 
     /**
      * Find achievements by category with pagination
@@ -0,0 +1,37 @@
+package com.goaly.backend.repository;
+
+import java.util.Map;
+
+/**
+ * Sharded unlock counters behind achievement rarity, and single-statement
+ * achievement deletes
+ */
+public interface AchievementRepositoryCustom {
+
+    /**
+     * Add to the unlock counters of the given achievements, all in one shard
+     */
+    void addUnlockCounts(Map<Long, Long> deltas, int shard);
+
+    /**
+     * Unlock count of every achievement, summed over shards
+     */
+    Map<Long, Long> loadUnlockCounts();
+
+    /**
+     * Lock an achievement's row until the transaction ends. Unlock inserts
+     * take a key share lock on it through the foreign key, so this waits for
+     * in-flight unlocks and holds off new ones.
+     *
+     * @return false if the achievement does not exist
+     */
+    boolean lockAchievement(Long id);
+
+    /**
+     * Delete an achievement in one statement, letting the database cascade
+     * to its unlocks and counters
+     *
+     * @return false if the achievement did not exist
+     */
+    boolean deleteAchievement(Long id);
+}
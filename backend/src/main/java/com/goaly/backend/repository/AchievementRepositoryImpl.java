@@ -0,0 +1,80 @@
+package com.goaly.backend.repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class AchievementRepositoryImpl implements AchievementRepositoryCustom {
+
+    private static final String ADD_UNLOCK_COUNTS_SQL = """
+            INSERT INTO achievement_unlock_counters AS c (achievement_id, shard, unlock_count)
+            SELECT achievement_id, ?, delta FROM unnest(?, ?) AS d (achievement_id, delta)
+            WHERE EXISTS (SELECT 1 FROM achievements a WHERE a.id = d.achievement_id)
+            ON CONFLICT (achievement_id, shard) DO UPDATE SET unlock_count = c.unlock_count + EXCLUDED.unlock_count
+            """;
+
+    private static final String LOAD_UNLOCK_COUNTS_SQL = """
+            SELECT achievement_id, SUM(unlock_count) AS unlock_count
+            FROM achievement_unlock_counters GROUP BY achievement_id
+            """;
+
+    private static final String LOCK_ACHIEVEMENT_SQL = """
+            SELECT id FROM achievements WHERE id = ? FOR UPDATE
+            """;
+
+    private static final String DELETE_ACHIEVEMENT_SQL = """
+            DELETE FROM achievements WHERE id = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    AchievementRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addUnlockCounts(Map<Long, Long> deltas, int shard) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Long[] achievementIds = deltas.keySet().toArray(new Long[0]);
+        Long[] counts = new Long[achievementIds.length];
+        for (int i = 0; i < achievementIds.length; i++) {
+            counts[i] = deltas.get(achievementIds[i]);
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADD_UNLOCK_COUNTS_SQL);
+            Array ids = connection.createArrayOf("bigint", achievementIds);
+            Array values = connection.createArrayOf("bigint", counts);
+            statement.setInt(1, shard);
+            statement.setArray(2, ids);
+            statement.setArray(3, values);
+            return statement;
+        });
+    }
+
+    @Override
+    public Map<Long, Long> loadUnlockCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(LOAD_UNLOCK_COUNTS_SQL,
+                rs -> {
+                    counts.put(rs.getLong("achievement_id"), rs.getLong("unlock_count"));
+                });
+        return counts;
+    }
+
+    @Override
+    public boolean lockAchievement(Long id) {
+        return !jdbcTemplate.queryForList(LOCK_ACHIEVEMENT_SQL, Long.class, id).isEmpty();
+    }
+
+    @Override
+    public boolean deleteAchievement(Long id) {
+        return jdbcTemplate.update(DELETE_ACHIEVEMENT_SQL, id) > 0;
+    }
+}
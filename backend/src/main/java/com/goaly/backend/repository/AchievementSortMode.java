@@ -0,0 +1,46 @@
+package com.goaly.backend.repository;
+
+import org.springframework.data.domain.Sort;
+
+import com.goaly.backend.exception.ValidationException;
+
+/**
+ * Orderings the achievement listing can be read in. Each one has a
+ * {@code (<key>, id)} index, plus a {@code (category, <key>, id)} index for
+ * the category-filtered listing; sorting by category orders by name within
+ * it.
+ */
+public enum AchievementSortMode {
+
+    NAME("name"),
+    POINTS("points"),
+    CATEGORY("category", "name"),
+    CREATED("createdAt");
+
+    private final String[] properties;
+
+    AchievementSortMode(String... properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * Entity sort with the same id tie-break as the index
+     */
+    public Sort toSort(boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, properties).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Resolve a request parameter, accepting either the mode name or the
+     * entity property it sorts on
+     */
+    public static AchievementSortMode fromParam(String value) {
+        for (AchievementSortMode mode : values()) {
+            if (mode.name().equalsIgnoreCase(value) || mode.properties[0].equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new ValidationException("Unsupported sort: " + value);
+    }
+}
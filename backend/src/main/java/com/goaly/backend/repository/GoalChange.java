@@ -0,0 +1,19 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+/**
+ * One goal_change_log record: what happened to a goal and the state it was
+ * left in, numbered in the owner's change sequence
+ */
+public record GoalChange(Long userId, long seq, Long goalId, Type type, GoalStatus status,
+        GoalPriority priority, LocalDate targetDate, LocalDate completionDate, LocalDateTime changedAt) {
+
+    public enum Type {
+        CREATED, UPDATED, COMPLETED, DELETED
+    }
+}
@@ -0,0 +1,13 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDate;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+
+/**
+ * An active goal due inside the digest window, with its owner's contact
+ * details, as streamed by the digest scan
+ */
+public record GoalDigestRow(Long userId, String email, String name, Long goalId, String title,
+        GoalPriority priority, LocalDate targetDate) {
+}
@@ -0,0 +1,18 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+/**
+ * A validated goal from an import upload, ready to be staged
+ *
+ * @param line line of the upload the goal was read from, for error reports
+ * @param completionDate completion date of a COMPLETED goal, or null for the import day
+ * @param createdAt original creation time, or null for the import time
+ */
+public record GoalImportRow(long line, Long userId, String title, String description, GoalStatus status,
+        GoalPriority priority, LocalDate targetDate, LocalDate completionDate, LocalDateTime createdAt) {
+}
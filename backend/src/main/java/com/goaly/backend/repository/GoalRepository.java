@@ -1,6 +1,7 @@
 package com.goaly.backend.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.domain.Page;
@@ -10,20 +11,39 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.goaly.backend.dto.GoalDto;
 import com.goaly.backend.entity.Goal;
 import com.goaly.backend.entity.Goal.GoalStatus;
 
 @Repository
-public interface GoalRepository extends JpaRepository<Goal, Long> {
+public interface GoalRepository extends JpaRepository<Goal, Long>, GoalRepositoryCustom {
+
+    /**
+     * Constructor projection for goal list reads: the goal columns plus the
+     * owner's name from one join, without loading managed entities
+     */
+    String GOAL_DTO = "new com.goaly.backend.dto.GoalDto(g.id, g.title, g.description, g.status, g.priority,"
+            + " g.targetDate, g.completionDate, g.cancellationDate, u.id, u.name, g.createdAt, g.updatedAt,"
+            + " g.version)";
 
     List<Goal> findByUserId(Long userId);
 
-    Page<Goal> findByUserId(Long userId, Pageable pageable);
+    @Query(value = "SELECT " + GOAL_DTO + " FROM Goal g JOIN g.user u WHERE g.user.id = :userId",
+            countQuery = "SELECT COUNT(g) FROM Goal g WHERE g.user.id = :userId")
+    Page<GoalDto> findDtosByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT " + GOAL_DTO + " FROM Goal g JOIN g.user u WHERE g.user.id = :userId AND g.status = :status")
+    List<GoalDto> findDtosByUserIdAndStatus(@Param("userId") Long userId, @Param("status") GoalStatus status);
+
+    @Query("SELECT " + GOAL_DTO + " FROM Goal g JOIN g.user u"
+            + " WHERE g.user.id = :userId AND g.targetDate <= :date AND g.status = 'ACTIVE'")
+    List<GoalDto> findUpcomingDtosByUserId(@Param("userId") Long userId, @Param("date") LocalDate date);
 
-    List<Goal> findByUserIdAndStatus(Long userId, GoalStatus status);
+    @Query("SELECT " + GOAL_DTO + " FROM Goal g JOIN g.user u WHERE g.user.id = :userId ORDER BY g.id")
+    List<GoalDto> findAllDtosByUserId(@Param("userId") Long userId);
 
-    @Query("SELECT g FROM Goal g WHERE g.user.id = :userId AND g.targetDate <= :date AND g.status = 'ACTIVE'")
-    List<Goal> findUpcomingGoalsByUserId(@Param("userId") Long userId, @Param("date") LocalDate date);
+    @Query("SELECT " + GOAL_DTO + " FROM Goal g JOIN g.user u WHERE g.user.id = :userId AND g.id IN :ids")
+    List<GoalDto> findDtosByUserIdAndIdIn(@Param("userId") Long userId, @Param("ids") Collection<Long> ids);
 
     long countByUserIdAndStatus(Long userId, GoalStatus status);
 }
@@ -0,0 +1,173 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.UpdateGoalRequest;
+import com.goaly.backend.service.criteria.CriteriaMetric;
+import com.goaly.backend.service.criteria.StreakState;
+import com.goaly.backend.service.criteria.UserGoalSnapshot;
+
+/**
+ * Read paths over goals that bypass the persistence context
+ */
+public interface GoalRepositoryCustom {
+
+    /**
+     * Build goal snapshots for a batch of users from one streamed query.
+     * Users without goals get an empty snapshot. Streak metrics come from the
+     * given tracker states where a user has one.
+     */
+    Map<Long, UserGoalSnapshot> loadSnapshots(Collection<Long> userIds, Map<Long, StreakState> streaks,
+            LocalDate today);
+
+    /**
+     * Evaluate SQL criteria conditions for one user in a single grouped
+     * aggregate over their goals
+     *
+     * @param conditions conditions from {@link com.goaly.backend.service.criteria.CriteriaSql}
+     * @return one result per condition, in order; all false if the user does not exist
+     */
+    boolean[] evaluateConditions(Long userId, List<String> conditions);
+
+    /**
+     * Values of the given SQL-aggregatable metrics for one user, read in a
+     * single grouped aggregate over their goals
+     *
+     * @return a value per metric; empty if the user does not exist
+     */
+    Map<CriteriaMetric, Long> aggregateMetrics(Long userId, Set<CriteriaMetric> metrics);
+
+    /**
+     * Read one page of a user's goals by seeking past the last row of the
+     * previous page rather than counting and skipping
+     *
+     * @param afterKey sort key of the last row already returned, or null for the first page
+     * @param afterId id of the last row already returned, or null for the first page
+     */
+    List<GoalDto> findUserGoalsAfter(Long userId, GoalSortMode sort, boolean descending, Object afterKey,
+            Long afterId, int limit);
+
+    /**
+     * Apply the non-null fields of an update in one statement. When the
+     * request carries a version and the goal has moved on, nothing is changed
+     * and the current goal comes back with {@code changed} false.
+     *
+     * @return empty if the goal does not exist
+     */
+    Optional<GoalTransition> updateGoal(Long id, UpdateGoalRequest changes, LocalDateTime now, LocalDate today);
+
+    /**
+     * Mark a goal completed in one statement; {@code changed} is false if it
+     * already was
+     *
+     * @return empty if the goal does not exist
+     */
+    Optional<GoalTransition> completeGoal(Long id, LocalDateTime now, LocalDate today);
+
+    /**
+     * Delete a goal and return the row as it was
+     *
+     * @return empty if the goal does not exist
+     */
+    Optional<GoalDto> deleteGoal(Long id);
+
+    /**
+     * Stream every active goal due between two dates in (user_id,
+     * target_date, id) order through a cursor. Must run inside a transaction.
+     */
+    void scanDigestRows(LocalDate from, LocalDate until, Consumer<GoalDigestRow> consumer);
+
+    /**
+     * Add per-day changes to the users' goal_daily_rollup rows, creating rows
+     * as needed. Each (user, day) may appear at most once.
+     */
+    void addRollups(Collection<GoalRollupDay> changes);
+
+    /**
+     * A user's rollup rows for days between two dates inclusive, oldest first
+     */
+    List<GoalRollupDay> findRollups(Long userId, LocalDate from, LocalDate to);
+
+    /**
+     * Recompute goal_daily_rollup for users with ids in (afterId, untilId]
+     * from their goals
+     *
+     * @return number of rollup rows written
+     */
+    int rebuildRollupRange(long afterId, long untilId);
+
+    /**
+     * Append change records to goal_change_log as one JDBC batch
+     */
+    void appendChanges(List<GoalChange> changes);
+
+    /**
+     * Months goal_change_log currently has a partition for
+     */
+    List<YearMonth> findChangeLogPartitions();
+
+    /**
+     * Create the goal_change_log partition for a month
+     */
+    void createChangeLogPartition(YearMonth month);
+
+    /**
+     * Drop a month's goal_change_log partition with everything in it
+     */
+    void dropChangeLogPartition(YearMonth month);
+
+    /**
+     * A user's change records after a sequence number, in sequence order
+     */
+    List<GoalChange> findChangesAfter(Long userId, long afterSeq, int limit);
+
+    /**
+     * The oldest change sequence number still retained for a user, or null
+     * if none is
+     */
+    Long findOldestChangeSeq(Long userId);
+
+    /**
+     * Stream one user's goals in id order through a cursor that reads
+     * {@code fetchSize} rows at a time. Must run inside a transaction.
+     */
+    void scanUserGoals(Long userId, int fetchSize, Consumer<GoalDto> consumer);
+
+    /**
+     * Create the transaction-scoped goal_import_staging table
+     */
+    void createImportStaging();
+
+    /**
+     * Stream rows into goal_import_staging with COPY ... FROM STDIN, pulling
+     * them from the iterator as the copy proceeds
+     *
+     * @return number of rows staged
+     */
+    long copyIntoImportStaging(Iterator<GoalImportRow> rows);
+
+    /**
+     * Staged rows whose user does not exist
+     *
+     * @return user ids by line, in line order
+     */
+    Map<Long, Long> findImportRowsWithoutUser();
+
+    /**
+     * Insert every staged row whose user exists into goals in one statement
+     *
+     * @param inserted receives each inserted goal's id, owner, status,
+     *                 priority and dates
+     */
+    void mergeImportStaging(long stagedRows, LocalDateTime now, LocalDate today, Consumer<GoalDto> inserted);
+}
@@ -0,0 +1,763 @@
+package com.goaly.backend.repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.UpdateGoalRequest;
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.service.criteria.CriteriaMetric;
+import com.goaly.backend.service.criteria.CriteriaSql;
+import com.goaly.backend.service.criteria.StreakState;
+import com.goaly.backend.service.criteria.UserGoalSnapshot;
+
+class GoalRepositoryImpl implements GoalRepositoryCustom {
+
+    private static final String SNAPSHOT_ROWS_SQL = """
+            SELECT user_id, status, priority, target_date, completion_date, created_at
+            FROM goals WHERE user_id = ANY (?)
+            """;
+
+    private static final String GOAL_COLUMNS_SQL = """
+            SELECT g.id, g.title, g.description, g.status, g.priority, g.target_date, g.completion_date,
+                   g.cancellation_date, g.user_id, u.name AS user_name, g.created_at, g.updated_at, g.version
+            FROM goals g
+            JOIN users u ON u.id = g.user_id
+            """;
+
+    // The locked row supplies the previous values; when nothing was updated it is also the current row
+    private static final String TRANSITION_RESULT_SQL = """
+            SELECT p.status AS previous_status, p.target_date AS previous_target_date,
+                   EXISTS (SELECT 1 FROM updated) AS changed, r.*, u.name AS user_name
+            FROM previous p
+            CROSS JOIN LATERAL (
+                SELECT * FROM updated
+                UNION ALL
+                SELECT p.* WHERE NOT EXISTS (SELECT 1 FROM updated)
+            ) r
+            JOIN users u ON u.id = r.user_id
+            """;
+
+    private static final String UPDATE_GOAL_SQL = """
+            WITH previous AS (
+                SELECT * FROM goals WHERE id = ? FOR UPDATE
+            ), updated AS (
+                UPDATE goals g SET
+                    title = COALESCE(CAST(? AS VARCHAR), g.title),
+                    description = COALESCE(CAST(? AS TEXT), g.description),
+                    status = COALESCE(CAST(? AS VARCHAR), g.status),
+                    priority = COALESCE(CAST(? AS VARCHAR), g.priority),
+                    target_date = COALESCE(CAST(? AS DATE), g.target_date),
+                    completion_date = CASE
+                        WHEN CAST(? AS VARCHAR) = 'COMPLETED' AND p.status <> 'COMPLETED' THEN CAST(? AS DATE)
+                        ELSE g.completion_date
+                    END,
+                    cancellation_date = CASE
+                        WHEN CAST(? AS VARCHAR) = 'CANCELLED' AND p.status <> 'CANCELLED' THEN CAST(? AS DATE)
+                        ELSE g.cancellation_date
+                    END,
+                    updated_at = ?,
+                    version = g.version + 1
+                FROM previous p
+                WHERE g.id = p.id AND (CAST(? AS BIGINT) IS NULL OR p.version = CAST(? AS BIGINT))
+                RETURNING g.*
+            )
+            """ + TRANSITION_RESULT_SQL;
+
+    private static final String COMPLETE_GOAL_SQL = """
+            WITH previous AS (
+                SELECT * FROM goals WHERE id = ? FOR UPDATE
+            ), updated AS (
+                UPDATE goals g SET
+                    status = 'COMPLETED',
+                    completion_date = ?,
+                    updated_at = ?,
+                    version = g.version + 1
+                FROM previous p
+                WHERE g.id = p.id AND p.status <> 'COMPLETED'
+                RETURNING g.*
+            )
+            """ + TRANSITION_RESULT_SQL;
+
+    private static final String DELETE_GOAL_SQL = """
+            WITH deleted AS (
+                DELETE FROM goals WHERE id = ? RETURNING *
+            )
+            SELECT d.*, u.name AS user_name
+            FROM deleted d
+            JOIN users u ON u.id = d.user_id
+            """;
+
+    private static final String DIGEST_ROWS_SQL = """
+            SELECT g.user_id, u.email, u.name, g.id, g.title, g.priority, g.target_date
+            FROM goals g
+            JOIN users u ON u.id = g.user_id
+            WHERE g.status = 'ACTIVE' AND g.target_date BETWEEN ? AND ?
+            ORDER BY g.user_id, g.target_date, g.id
+            """;
+
+    private static final String ADD_ROLLUPS_SQL = """
+            INSERT INTO goal_daily_rollup AS r (user_id, day, created, completed, cancelled, completion_hours)
+            SELECT * FROM unnest(?::bigint[], ?::date[], ?::integer[], ?::integer[], ?::integer[], ?::bigint[])
+            ON CONFLICT (user_id, day) DO UPDATE SET
+                created = r.created + EXCLUDED.created,
+                completed = r.completed + EXCLUDED.completed,
+                cancelled = r.cancelled + EXCLUDED.cancelled,
+                completion_hours = r.completion_hours + EXCLUDED.completion_hours
+            """;
+
+    private static final String FIND_ROLLUPS_SQL = """
+            SELECT user_id, day, created, completed, cancelled, completion_hours
+            FROM goal_daily_rollup
+            WHERE user_id = ? AND day BETWEEN ? AND ?
+            ORDER BY day
+            """;
+
+    private static final String DELETE_ROLLUP_RANGE_SQL = """
+            DELETE FROM goal_daily_rollup WHERE user_id > ? AND user_id <= ?
+            """;
+
+    // Same contributions as V15; a row a concurrent first change of the day inserted is replaced
+    private static final String REBUILD_ROLLUP_RANGE_SQL = """
+            INSERT INTO goal_daily_rollup (user_id, day, created, completed, cancelled, completion_hours)
+            SELECT user_id, day, SUM(created), SUM(completed), SUM(cancelled), SUM(completion_hours)
+            FROM (
+                SELECT user_id, created_at::date AS day, 1 AS created, 0 AS completed, 0 AS cancelled,
+                       0::bigint AS completion_hours
+                FROM goals WHERE user_id > ? AND user_id <= ?
+                UNION ALL
+                SELECT user_id, completion_date, 0, 1, 0,
+                       GREATEST(TRUNC(EXTRACT(EPOCH FROM
+                           (completion_date::timestamp - created_at::timestamp)) / 3600), 0)::bigint
+                FROM goals
+                WHERE user_id > ? AND user_id <= ? AND status = 'COMPLETED' AND completion_date IS NOT NULL
+                UNION ALL
+                SELECT user_id, cancellation_date, 0, 0, 1, 0
+                FROM goals
+                WHERE user_id > ? AND user_id <= ? AND status = 'CANCELLED' AND cancellation_date IS NOT NULL
+            ) contributions
+            GROUP BY user_id, day
+            ON CONFLICT (user_id, day) DO UPDATE SET
+                created = EXCLUDED.created,
+                completed = EXCLUDED.completed,
+                cancelled = EXCLUDED.cancelled,
+                completion_hours = EXCLUDED.completion_hours
+            """;
+
+    private static final String APPEND_CHANGE_SQL = """
+            INSERT INTO goal_change_log
+                (user_id, seq, goal_id, change_type, status, priority, target_date, completion_date, changed_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    // Both are answered from the (user_id, seq) primary key index of each partition
+    private static final String CHANGES_AFTER_SQL = """
+            SELECT user_id, seq, goal_id, change_type, status, priority, target_date, completion_date, changed_at
+            FROM goal_change_log
+            WHERE user_id = ? AND seq > ?
+            ORDER BY seq
+            LIMIT ?
+            """;
+
+    // Criteria aggregates are appended as the select list
+    private static final String USER_GOAL_AGGREGATE_SQL = """
+
+            FROM users u
+            LEFT JOIN goals g ON g.user_id = u.id
+            WHERE u.id = ?
+            GROUP BY u.id
+            """;
+
+    private static final String OLDEST_CHANGE_SEQ_SQL = """
+            SELECT MIN(seq) FROM goal_change_log WHERE user_id = ?
+            """;
+
+    private static final String CHANGE_LOG_PARTITIONS_SQL = """
+            SELECT c.relname FROM pg_inherits i
+            JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'goal_change_log'::regclass
+            """;
+
+    // Each nextval of the pooled goals_id_seq reserves this many ids ending at the returned value (V4)
+    private static final int GOAL_ID_BLOCK = 50;
+
+    private static final String CHANGE_LOG_PARTITION_PREFIX = "goal_change_log_";
+    private static final DateTimeFormatter PARTITION_MONTH = DateTimeFormatter.ofPattern("yyyy_MM");
+
+    private static final String CREATE_IMPORT_STAGING_SQL = """
+            CREATE TEMP TABLE goal_import_staging (
+                pos BIGINT NOT NULL,
+                line BIGINT NOT NULL,
+                user_id BIGINT NOT NULL,
+                title VARCHAR(200) NOT NULL,
+                description TEXT,
+                status VARCHAR(20) NOT NULL,
+                priority VARCHAR(20) NOT NULL,
+                target_date DATE,
+                completion_date DATE,
+                created_at TIMESTAMP WITH TIME ZONE
+            ) ON COMMIT DROP
+            """;
+
+    private static final String COPY_IMPORT_STAGING_SQL = """
+            COPY goal_import_staging
+                (pos, line, user_id, title, description, status, priority, target_date, completion_date, created_at)
+            FROM STDIN (FORMAT csv)
+            """;
+
+    private static final String IMPORT_ROWS_WITHOUT_USER_SQL = """
+            SELECT s.line, s.user_id FROM goal_import_staging s
+            WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.user_id)
+            ORDER BY s.line
+            """;
+
+    private static final String RESERVE_GOAL_ID_BLOCKS_SQL = """
+            SELECT nextval('goals_id_seq') FROM generate_series(1, ?)
+            """;
+
+    // Staged row pos takes the (pos % 50)-th id of the (pos / 50)-th reserved block
+    private static final String MERGE_IMPORT_STAGING_SQL = """
+            INSERT INTO goals (id, title, description, status, priority, target_date, completion_date,
+                               cancellation_date, user_id, created_at, updated_at)
+            SELECT (?::bigint[])[(s.pos / %1$d + 1)::int] - %2$d + s.pos %% %1$d,
+                   s.title, s.description, s.status, s.priority, s.target_date,
+                   CASE WHEN s.status = 'COMPLETED' THEN COALESCE(s.completion_date, ?) END,
+                   CASE WHEN s.status = 'CANCELLED' THEN CAST(? AS DATE) END,
+                   s.user_id, COALESCE(s.created_at, ?), ?
+            FROM goal_import_staging s
+            JOIN users u ON u.id = s.user_id
+            ORDER BY s.pos
+            RETURNING id, user_id, status, priority, target_date, completion_date, cancellation_date, created_at
+            """.formatted(GOAL_ID_BLOCK, GOAL_ID_BLOCK - 1);
+
+    private static final int SCAN_FETCH_SIZE = 10000;
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    GoalRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, UserGoalSnapshot> loadSnapshots(Collection<Long> userIds, Map<Long, StreakState> streaks,
+            LocalDate today) {
+        Map<Long, UserGoalSnapshot.Builder> builders = new HashMap<>();
+        for (Long userId : userIds) {
+            builders.put(userId, UserGoalSnapshot.builder().streak(streaks.get(userId)));
+        }
+        if (!userIds.isEmpty()) {
+            jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(SNAPSHOT_ROWS_SQL);
+                Array ids = connection.createArrayOf("bigint", userIds.toArray());
+                statement.setArray(1, ids);
+                return statement;
+            }, rs -> {
+                Date targetDate = rs.getDate("target_date");
+                Date completionDate = rs.getDate("completion_date");
+                Timestamp createdAt = rs.getTimestamp("created_at");
+                builders.get(rs.getLong("user_id")).add(
+                        GoalStatus.valueOf(rs.getString("status")),
+                        GoalPriority.valueOf(rs.getString("priority")),
+                        targetDate != null ? targetDate.toLocalDate() : null,
+                        completionDate != null ? completionDate.toLocalDate() : null,
+                        createdAt != null ? createdAt.toLocalDateTime() : null);
+            });
+        }
+
+        Map<Long, UserGoalSnapshot> snapshots = new HashMap<>();
+        builders.forEach((userId, builder) -> snapshots.put(userId, builder.build(today)));
+        return snapshots;
+    }
+
+    @Override
+    public boolean[] evaluateConditions(Long userId, List<String> conditions) {
+        boolean[] results = new boolean[conditions.size()];
+        if (conditions.isEmpty()) {
+            return results;
+        }
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < conditions.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(conditions.get(i)).append(" AS c").append(i);
+        }
+        sql.append(USER_GOAL_AGGREGATE_SQL);
+        jdbcTemplate.query(sql.toString(), rs -> {
+            for (int i = 0; i < results.length; i++) {
+                results[i] = rs.getBoolean(i + 1);
+            }
+        }, userId);
+        return results;
+    }
+
+    @Override
+    public Map<CriteriaMetric, Long> aggregateMetrics(Long userId, Set<CriteriaMetric> metrics) {
+        Map<CriteriaMetric, Long> values = new EnumMap<>(CriteriaMetric.class);
+        if (metrics.isEmpty()) {
+            return values;
+        }
+        List<CriteriaMetric> columns = new ArrayList<>(metrics);
+        StringBuilder sql = new StringBuilder("SELECT ");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            String aggregate = CriteriaSql.aggregate(columns.get(i));
+            if (aggregate == null) {
+                throw new IllegalArgumentException(columns.get(i) + " has no SQL aggregate");
+            }
+            sql.append(aggregate).append(" AS m").append(i);
+        }
+        sql.append(USER_GOAL_AGGREGATE_SQL);
+        jdbcTemplate.query(sql.toString(), rs -> {
+            for (int i = 0; i < columns.size(); i++) {
+                values.put(columns.get(i), rs.getLong(i + 1));
+            }
+        }, userId);
+        return values;
+    }
+
+    @Override
+    public List<GoalDto> findUserGoalsAfter(Long userId, GoalSortMode sort, boolean descending, Object afterKey,
+            Long afterId, int limit) {
+        if (afterId == null) {
+            return findUserGoals(userId, sort, descending, Seek.FIRST, limit);
+        }
+        if (afterKey != null) {
+            List<GoalDto> goals = findUserGoals(userId, sort, descending, Seek.AFTER_KEY, limit,
+                    toSqlValue(afterKey), afterId);
+            // Nulls sort last ascending: once the non-null keys run out, continue from the first null
+            if (sort.isNullable() && !descending && goals.size() < limit) {
+                goals.addAll(findUserGoals(userId, sort, false, Seek.NULLS, limit - goals.size()));
+            }
+            return goals;
+        }
+        List<GoalDto> goals = findUserGoals(userId, sort, descending, Seek.NULLS_AFTER_ID, limit, afterId);
+        // Nulls sort first descending: once they run out, continue from the highest non-null key
+        if (descending && goals.size() < limit) {
+            goals.addAll(findUserGoals(userId, sort, true, Seek.NON_NULLS, limit - goals.size()));
+        }
+        return goals;
+    }
+
+    private List<GoalDto> findUserGoals(Long userId, GoalSortMode sort, boolean descending, Seek seek, int limit,
+            Object... seekArgs) {
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        args.addAll(List.of(seekArgs));
+        args.add(limit);
+        return new ArrayList<>(jdbcTemplate.query(userGoalsSql(sort, descending, seek),
+                (rs, rowNum) -> mapGoal(rs), args.toArray()));
+    }
+
+    /**
+     * One ordered range of a user's goals. Every seek is a single range of
+     * the (user_id, key, id) index, so a page is read without filtering
+     * rows; parameters are the user id, the seek's own, then the limit.
+     */
+    static String userGoalsSql(GoalSortMode sort, boolean descending, Seek seek) {
+        String column = "g." + sort.getColumn();
+        String direction = descending ? "DESC" : "ASC";
+        StringBuilder sql = new StringBuilder(GOAL_COLUMNS_SQL).append("WHERE g.user_id = ?\n");
+        if (seek.predicate != null) {
+            sql.append("AND ").append(seek.predicate.formatted(column, descending ? "<" : ">")).append('\n');
+        }
+        return sql.append("ORDER BY ").append(column).append(' ').append(direction)
+                .append(", g.id ").append(direction).append("\nLIMIT ?").toString();
+    }
+
+    /**
+     * Where a keyset read starts, as a predicate on the sort column and id
+     */
+    enum Seek {
+        /** From the first row */
+        FIRST(null),
+        /** Past a row with a non-null key; a row comparison seeks straight to it */
+        AFTER_KEY("(%1$s, g.id) %2$s (?, ?)"),
+        /** Past a row with a null key, among the other nulls */
+        NULLS_AFTER_ID("%1$s IS NULL AND g.id %2$s ?"),
+        /** Every null key */
+        NULLS("%1$s IS NULL"),
+        /** Every non-null key */
+        NON_NULLS("%1$s IS NOT NULL");
+
+        private final String predicate;
+
+        Seek(String predicate) {
+            this.predicate = predicate;
+        }
+    }
+
+    @Override
+    public Optional<GoalTransition> updateGoal(Long id, UpdateGoalRequest changes, LocalDateTime now,
+            LocalDate today) {
+        String status = changes.getStatus() != null ? changes.getStatus().name() : null;
+        return transition(connection -> {
+            PreparedStatement statement = connection.prepareStatement(UPDATE_GOAL_SQL);
+            statement.setLong(1, id);
+            statement.setObject(2, changes.getTitle(), Types.VARCHAR);
+            statement.setObject(3, changes.getDescription(), Types.VARCHAR);
+            statement.setObject(4, status, Types.VARCHAR);
+            statement.setObject(5, changes.getPriority() != null ? changes.getPriority().name() : null,
+                    Types.VARCHAR);
+            statement.setObject(6, changes.getTargetDate() != null ? Date.valueOf(changes.getTargetDate()) : null,
+                    Types.DATE);
+            statement.setObject(7, status, Types.VARCHAR);
+            statement.setDate(8, Date.valueOf(today));
+            statement.setObject(9, status, Types.VARCHAR);
+            statement.setDate(10, Date.valueOf(today));
+            statement.setTimestamp(11, Timestamp.valueOf(now));
+            statement.setObject(12, changes.getVersion(), Types.BIGINT);
+            statement.setObject(13, changes.getVersion(), Types.BIGINT);
+            return statement;
+        });
+    }
+
+    @Override
+    public Optional<GoalTransition> completeGoal(Long id, LocalDateTime now, LocalDate today) {
+        return transition(connection -> {
+            PreparedStatement statement = connection.prepareStatement(COMPLETE_GOAL_SQL);
+            statement.setLong(1, id);
+            statement.setDate(2, Date.valueOf(today));
+            statement.setTimestamp(3, Timestamp.valueOf(now));
+            return statement;
+        });
+    }
+
+    @Override
+    public Optional<GoalDto> deleteGoal(Long id) {
+        return jdbcTemplate.query(DELETE_GOAL_SQL, (rs, rowNum) -> mapGoal(rs), id).stream().findFirst();
+    }
+
+    @Override
+    public void scanDigestRows(LocalDate from, LocalDate until, Consumer<GoalDigestRow> consumer) {
+        // The driver only streams with a fetch size inside a transaction
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(DIGEST_ROWS_SQL);
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            statement.setDate(1, Date.valueOf(from));
+            statement.setDate(2, Date.valueOf(until));
+            return statement;
+        }, rs -> {
+            consumer.accept(new GoalDigestRow(rs.getLong("user_id"), rs.getString("email"), rs.getString("name"),
+                    rs.getLong("id"), rs.getString("title"), GoalPriority.valueOf(rs.getString("priority")),
+                    rs.getDate("target_date").toLocalDate()));
+        });
+    }
+
+    @Override
+    public void addRollups(Collection<GoalRollupDay> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        int size = changes.size();
+        Long[] userIds = new Long[size];
+        Date[] days = new Date[size];
+        Integer[] created = new Integer[size];
+        Integer[] completed = new Integer[size];
+        Integer[] cancelled = new Integer[size];
+        Long[] hours = new Long[size];
+        int i = 0;
+        for (GoalRollupDay change : changes) {
+            userIds[i] = change.userId();
+            days[i] = Date.valueOf(change.day());
+            created[i] = change.created();
+            completed[i] = change.completed();
+            cancelled[i] = change.cancelled();
+            hours[i] = change.completionHours();
+            i++;
+        }
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADD_ROLLUPS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", userIds));
+            statement.setArray(2, connection.createArrayOf("date", days));
+            statement.setArray(3, connection.createArrayOf("integer", created));
+            statement.setArray(4, connection.createArrayOf("integer", completed));
+            statement.setArray(5, connection.createArrayOf("integer", cancelled));
+            statement.setArray(6, connection.createArrayOf("bigint", hours));
+            return statement;
+        });
+    }
+
+    @Override
+    public List<GoalRollupDay> findRollups(Long userId, LocalDate from, LocalDate to) {
+        return jdbcTemplate.query(FIND_ROLLUPS_SQL, (rs, rowNum) -> new GoalRollupDay(rs.getLong("user_id"),
+                rs.getDate("day").toLocalDate(), rs.getInt("created"), rs.getInt("completed"),
+                rs.getInt("cancelled"), rs.getLong("completion_hours")),
+                userId, Date.valueOf(from), Date.valueOf(to));
+    }
+
+    @Override
+    public int rebuildRollupRange(long afterId, long untilId) {
+        jdbcTemplate.update(DELETE_ROLLUP_RANGE_SQL, afterId, untilId);
+        return jdbcTemplate.update(REBUILD_ROLLUP_RANGE_SQL, afterId, untilId, afterId, untilId, afterId, untilId);
+    }
+
+    @Override
+    public void appendChanges(List<GoalChange> changes) {
+        List<Object[]> rows = new ArrayList<>(changes.size());
+        for (GoalChange change : changes) {
+            rows.add(new Object[] {
+                    change.userId(),
+                    change.seq(),
+                    change.goalId(),
+                    change.type().name(),
+                    change.status().name(),
+                    change.priority().name(),
+                    change.targetDate() != null ? Date.valueOf(change.targetDate()) : null,
+                    change.completionDate() != null ? Date.valueOf(change.completionDate()) : null,
+                    Timestamp.valueOf(change.changedAt()) });
+        }
+        jdbcTemplate.batchUpdate(APPEND_CHANGE_SQL, rows,
+                new int[] { Types.BIGINT, Types.BIGINT, Types.BIGINT, Types.VARCHAR, Types.VARCHAR, Types.VARCHAR,
+                        Types.DATE, Types.DATE, Types.TIMESTAMP });
+    }
+
+    @Override
+    public List<GoalChange> findChangesAfter(Long userId, long afterSeq, int limit) {
+        return jdbcTemplate.query(CHANGES_AFTER_SQL, (rs, rowNum) -> {
+            Date targetDate = rs.getDate("target_date");
+            Date completionDate = rs.getDate("completion_date");
+            return new GoalChange(rs.getLong("user_id"), rs.getLong("seq"), rs.getLong("goal_id"),
+                    GoalChange.Type.valueOf(rs.getString("change_type")),
+                    GoalStatus.valueOf(rs.getString("status")),
+                    GoalPriority.valueOf(rs.getString("priority")),
+                    targetDate != null ? targetDate.toLocalDate() : null,
+                    completionDate != null ? completionDate.toLocalDate() : null,
+                    rs.getTimestamp("changed_at").toLocalDateTime());
+        }, userId, afterSeq, limit);
+    }
+
+    @Override
+    public Long findOldestChangeSeq(Long userId) {
+        return jdbcTemplate.queryForObject(OLDEST_CHANGE_SEQ_SQL, Long.class, userId);
+    }
+
+    @Override
+    public List<YearMonth> findChangeLogPartitions() {
+        List<YearMonth> months = new ArrayList<>();
+        jdbcTemplate.query(CHANGE_LOG_PARTITIONS_SQL, rs -> {
+            String name = rs.getString("relname");
+            if (name.startsWith(CHANGE_LOG_PARTITION_PREFIX)) {
+                months.add(YearMonth.parse(name.substring(CHANGE_LOG_PARTITION_PREFIX.length()), PARTITION_MONTH));
+            }
+        });
+        return months;
+    }
+
+    @Override
+    public void createChangeLogPartition(YearMonth month) {
+        // Identifiers and bounds come from the YearMonth alone, so formatting them in is safe
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + changeLogPartition(month)
+                + " PARTITION OF goal_change_log FOR VALUES FROM ('" + month.atDay(1)
+                + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    @Override
+    public void dropChangeLogPartition(YearMonth month) {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + changeLogPartition(month));
+    }
+
+    private static String changeLogPartition(YearMonth month) {
+        return CHANGE_LOG_PARTITION_PREFIX + month.format(PARTITION_MONTH);
+    }
+
+    @Override
+    public void scanUserGoals(Long userId, int fetchSize, Consumer<GoalDto> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(GOAL_COLUMNS_SQL
+                    + "WHERE g.user_id = ?\nORDER BY g.id");
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, userId);
+            return statement;
+        }, rs -> {
+            consumer.accept(mapGoal(rs));
+        });
+    }
+
+    @Override
+    public void createImportStaging() {
+        jdbcTemplate.execute(CREATE_IMPORT_STAGING_SQL);
+    }
+
+    @Override
+    public long copyIntoImportStaging(Iterator<GoalImportRow> rows) {
+        Long copied = jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copy = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IMPORT_STAGING_SQL);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_BYTES);
+                long pos = 0;
+                while (rows.hasNext()) {
+                    appendCopyRow(buffer, pos++, rows.next());
+                    if (buffer.length() >= COPY_BUFFER_BYTES) {
+                        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                        copy.writeToCopy(bytes, 0, bytes.length);
+                        buffer.setLength(0);
+                    }
+                }
+                byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+                copy.writeToCopy(bytes, 0, bytes.length);
+                copy.endCopy();
+                return pos;
+            } finally {
+                if (copy.isActive()) {
+                    copy.cancelCopy();
+                }
+            }
+        });
+        return copied != null ? copied : 0;
+    }
+
+    @Override
+    public Map<Long, Long> findImportRowsWithoutUser() {
+        Map<Long, Long> rows = new LinkedHashMap<>();
+        jdbcTemplate.query(IMPORT_ROWS_WITHOUT_USER_SQL, rs -> {
+            rows.put(rs.getLong("line"), rs.getLong("user_id"));
+        });
+        return rows;
+    }
+
+    @Override
+    public void mergeImportStaging(long stagedRows, LocalDateTime now, LocalDate today,
+            Consumer<GoalDto> inserted) {
+        if (stagedRows == 0) {
+            return;
+        }
+        // One nextval per block of ids instead of one per row
+        long blockCount = (stagedRows + GOAL_ID_BLOCK - 1) / GOAL_ID_BLOCK;
+        List<Long> blocks = new ArrayList<>((int) blockCount);
+        while (blocks.size() < blockCount) {
+            // A fresh sequence first returns its start value, which ends a block reaching below 1
+            jdbcTemplate.queryForList(RESERVE_GOAL_ID_BLOCKS_SQL, Long.class, blockCount - blocks.size()).stream()
+                    .filter(block -> block >= GOAL_ID_BLOCK)
+                    .forEach(blocks::add);
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(MERGE_IMPORT_STAGING_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", blocks.toArray()));
+            statement.setDate(2, Date.valueOf(today));
+            statement.setDate(3, Date.valueOf(today));
+            statement.setTimestamp(4, Timestamp.valueOf(now));
+            statement.setTimestamp(5, Timestamp.valueOf(now));
+            return statement;
+        }, rs -> {
+            Date targetDate = rs.getDate("target_date");
+            Date completionDate = rs.getDate("completion_date");
+            Date cancellationDate = rs.getDate("cancellation_date");
+            GoalDto goal = new GoalDto();
+            goal.setId(rs.getLong("id"));
+            goal.setUserId(rs.getLong("user_id"));
+            goal.setStatus(GoalStatus.valueOf(rs.getString("status")));
+            goal.setPriority(GoalPriority.valueOf(rs.getString("priority")));
+            goal.setTargetDate(targetDate != null ? targetDate.toLocalDate() : null);
+            goal.setCompletionDate(completionDate != null ? completionDate.toLocalDate() : null);
+            goal.setCancellationDate(cancellationDate != null ? cancellationDate.toLocalDate() : null);
+            goal.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+            inserted.accept(goal);
+        });
+    }
+
+    /**
+     * Append one row in COPY's CSV format: unquoted empty is NULL, text is
+     * always quoted so an empty string stays an empty string
+     */
+    private static void appendCopyRow(StringBuilder buffer, long pos, GoalImportRow row) {
+        buffer.append(pos).append(',').append(row.line()).append(',').append(row.userId()).append(',');
+        appendCopyText(buffer, row.title());
+        buffer.append(',');
+        appendCopyText(buffer, row.description());
+        buffer.append(',').append(row.status().name()).append(',').append(row.priority().name()).append(',');
+        if (row.targetDate() != null) {
+            buffer.append(row.targetDate());
+        }
+        buffer.append(',');
+        if (row.completionDate() != null) {
+            buffer.append(row.completionDate());
+        }
+        buffer.append(',');
+        if (row.createdAt() != null) {
+            buffer.append(row.createdAt());
+        }
+        buffer.append('\n');
+    }
+
+    private static void appendCopyText(StringBuilder buffer, String value) {
+        if (value != null) {
+            buffer.append('"').append(value.replace("\"", "\"\"")).append('"');
+        }
+    }
+
+    private Optional<GoalTransition> transition(PreparedStatementCreator statement) {
+        return jdbcTemplate.query(statement, (rs, rowNum) -> {
+            Date previousTargetDate = rs.getDate("previous_target_date");
+            return new GoalTransition(mapGoal(rs), rs.getBoolean("changed"),
+                    GoalStatus.valueOf(rs.getString("previous_status")),
+                    previousTargetDate != null ? previousTargetDate.toLocalDate() : null);
+        }).stream().findFirst();
+    }
+
+    private static Object toSqlValue(Object key) {
+        if (key instanceof LocalDateTime time) {
+            return Timestamp.valueOf(time);
+        }
+        if (key instanceof LocalDate date) {
+            return Date.valueOf(date);
+        }
+        return key;
+    }
+
+    private static GoalDto mapGoal(ResultSet rs) throws SQLException {
+        Date targetDate = rs.getDate("target_date");
+        Date completionDate = rs.getDate("completion_date");
+        Date cancellationDate = rs.getDate("cancellation_date");
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        GoalDto dto = new GoalDto();
+        dto.setId(rs.getLong("id"));
+        dto.setTitle(rs.getString("title"));
+        dto.setDescription(rs.getString("description"));
+        dto.setStatus(GoalStatus.valueOf(rs.getString("status")));
+        dto.setPriority(GoalPriority.valueOf(rs.getString("priority")));
+        dto.setTargetDate(targetDate != null ? targetDate.toLocalDate() : null);
+        dto.setCompletionDate(completionDate != null ? completionDate.toLocalDate() : null);
+        dto.setCancellationDate(cancellationDate != null ? cancellationDate.toLocalDate() : null);
+        dto.setUserId(rs.getLong("user_id"));
+        dto.setUserName(rs.getString("user_name"));
+        dto.setCreatedAt(createdAt != null ? createdAt.toLocalDateTime() : null);
+        dto.setUpdatedAt(updatedAt != null ? updatedAt.toLocalDateTime() : null);
+        dto.setVersion(rs.getLong("version"));
+        return dto;
+    }
+}
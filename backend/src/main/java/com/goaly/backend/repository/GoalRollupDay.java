@@ -0,0 +1,13 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * One user's goal activity on one day: a goal_daily_rollup row, or a change
+ * to be added to one
+ *
+ * @param completionHours summed hours from creation to completion of the goals completed that day
+ */
+public record GoalRollupDay(Long userId, LocalDate day, int created, int completed, int cancelled,
+        long completionHours) {
+}
@@ -0,0 +1,69 @@
+package com.goaly.backend.repository;
+
+import org.springframework.data.domain.Sort;
+
+import com.goaly.backend.exception.ValidationException;
+
+/**
+ * Orderings a user's goal list can be read in. Each one is backed by a
+ * {@code (user_id, <column>, id)} index so pages are served by an ordered
+ * index scan, with {@code id} breaking ties. Priority sorts on a generated
+ * rank column so LOW &lt; MEDIUM &lt; HIGH rather than alphabetically.
+ */
+public enum GoalSortMode {
+
+    CREATED("createdAt", "created_at", false),
+    UPDATED("updatedAt", "updated_at", false),
+    TARGET_DATE("targetDate", "target_date", true),
+    PRIORITY("priorityRank", "priority_rank", false),
+    STATUS("status", "status", false),
+    TITLE("title", "title", false);
+
+    private final String property;
+    private final String column;
+    private final boolean nullable;
+
+    GoalSortMode(String property, String column, boolean nullable) {
+        this.property = property;
+        this.column = column;
+        this.nullable = nullable;
+    }
+
+    public String getProperty() {
+        return property;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * Whether the key can be null. Postgres puts nulls last ascending and
+     * first descending, which is also the order the index returns them in.
+     */
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    /**
+     * Entity sort for offset paging, with the same id tie-break as the index
+     */
+    public Sort toSort(boolean descending) {
+        Sort.Direction direction = descending ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return Sort.by(direction, property).and(Sort.by(direction, "id"));
+    }
+
+    /**
+     * Resolve a request parameter, accepting either the mode name or the
+     * entity property it sorts on
+     */
+    public static GoalSortMode fromParam(String value) {
+        for (GoalSortMode mode : values()) {
+            if (mode.name().replace("_", "").equalsIgnoreCase(value.replace("_", ""))
+                    || mode.property.equalsIgnoreCase(value)) {
+                return mode;
+            }
+        }
+        throw new ValidationException("Unsupported sort: " + value);
+    }
+}
@@ -0,0 +1,14 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDate;
+
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+/**
+ * Result of a single-statement goal update: the goal as it now stands,
+ * whether the statement changed it, and the values it replaced
+ */
+public record GoalTransition(GoalDto goal, boolean changed, GoalStatus previousStatus,
+        LocalDate previousTargetDate) {
+}
@@ -0,0 +1,7 @@
+package com.goaly.backend.repository;
+
+/**
+ * A (user, achievement) unlock pair
+ */
+public record UnlockKey(long userId, long achievementId) {
+}
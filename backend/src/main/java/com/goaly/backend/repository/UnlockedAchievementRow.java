@@ -0,0 +1,10 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * A user_achievements row as returned by a batch unlock insert
+ */
+public record UnlockedAchievementRow(Long id, Long userId, Long achievementId,
+        LocalDateTime unlockedAt, LocalDateTime createdAt) {
+}
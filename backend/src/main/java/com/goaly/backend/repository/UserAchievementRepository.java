@@ -1,5 +1,6 @@
 package com.goaly.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,7 +12,8 @@ import org.springframework.stereotype.Repository;
 import com.goaly.backend.entity.UserAchievement;
 
 @Repository
-public interface UserAchievementRepository extends JpaRepository<UserAchievement, Long> {
+public interface UserAchievementRepository
+        extends JpaRepository<UserAchievement, Long>, UserAchievementRepositoryCustom {
 
     /**
      * Find all user achievements by user ID
@@ -51,6 +53,13 @@ public interface UserAchievementRepository extends JpaRepository<UserAchievement
     @Query("SELECT ua.achievement.id FROM UserAchievement ua WHERE ua.userId = :userId")
     List<Long> findAchievementIdsByUserId(@Param("userId") Long userId);
 
+    /**
+     * Of the given users, those who have already unlocked an achievement
+     */
+    @Query("SELECT ua.userId FROM UserAchievement ua WHERE ua.achievement.id = :achievementId AND ua.userId IN :userIds")
+    List<Long> findUserIdsWithAchievement(@Param("achievementId") Long achievementId,
+            @Param("userIds") Collection<Long> userIds);
+
     /**
      * Get achievements unlocked by user, ordered by unlock date
      */
@@ -0,0 +1,54 @@
+package com.goaly.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Bulk write operations on user_achievements that bypass the persistence
+ * context
+ */
+public interface UserAchievementRepositoryCustom {
+
+    /**
+     * Insert unlock rows for the given achievements in a single statement,
+     * skipping any the user already has, and return only the rows inserted
+     */
+    List<UnlockedAchievementRow> insertUnlocks(Long userId, Collection<Long> achievementIds);
+
+    /**
+     * Insert unlock rows for one achievement across many users in a single
+     * statement, skipping users who already have it
+     */
+    List<UnlockedAchievementRow> insertUnlocksForUsers(Long achievementId, Collection<Long> userIds);
+
+    /**
+     * Unlock an achievement, in one statement, for every user with id in
+     * (afterUserId, untilUserId] whose goals satisfy a SQL criteria condition
+     *
+     * @param condition condition from {@link com.goaly.backend.service.criteria.CriteriaSql}
+     * @return the rows actually inserted
+     */
+    List<UnlockedAchievementRow> insertUnlocksWhere(Long achievementId, String condition, long afterUserId,
+            long untilUserId);
+
+    /**
+     * Stream every (user_id, achievement_id) unlock pair through a cursor
+     * without materializing the table. Must run inside a transaction.
+     */
+    void scanUnlocks(BiConsumer<Long, Long> consumer);
+
+    /**
+     * Which of the given pairs are unlocked, as seen by the current
+     * transaction's snapshot
+     */
+    Set<UnlockKey> findUnlocked(Collection<UnlockKey> keys);
+
+    /**
+     * Stream one user's unlocks in unlock order through a cursor that reads
+     * {@code fetchSize} rows at a time. Must run inside a transaction.
+     */
+    void scanUserUnlocks(Long userId, int fetchSize, Consumer<UserUnlockRow> consumer);
+}
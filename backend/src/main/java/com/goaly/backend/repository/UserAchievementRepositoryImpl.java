@@ -0,0 +1,163 @@
+package com.goaly.backend.repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class UserAchievementRepositoryImpl implements UserAchievementRepositoryCustom {
+
+    private static final String INSERT_UNLOCKS_SQL = """
+            INSERT INTO user_achievements (user_id, achievement_id, unlocked_at, created_at)
+            SELECT ?, achievement_id, ?, ? FROM unnest(?) AS achievement_id
+            ON CONFLICT (user_id, achievement_id) DO NOTHING
+            RETURNING id, user_id, achievement_id, unlocked_at, created_at
+            """;
+
+    private static final String INSERT_UNLOCKS_FOR_USERS_SQL = """
+            INSERT INTO user_achievements (user_id, achievement_id, unlocked_at, created_at)
+            SELECT user_id, ?, ?, ? FROM unnest(?) AS user_id
+            ON CONFLICT (user_id, achievement_id) DO NOTHING
+            RETURNING id, user_id, achievement_id, unlocked_at, created_at
+            """;
+
+    private static final String INSERT_UNLOCKS_WHERE_SQL = """
+            INSERT INTO user_achievements (user_id, achievement_id, unlocked_at, created_at)
+            SELECT u.id, ?, ?, ?
+            FROM users u
+            LEFT JOIN goals g ON g.user_id = u.id
+            WHERE u.id > ? AND u.id <= ?
+                AND NOT EXISTS (SELECT 1 FROM user_achievements ua
+                    WHERE ua.user_id = u.id AND ua.achievement_id = ?)
+            GROUP BY u.id
+            HAVING %s
+            ON CONFLICT (user_id, achievement_id) DO NOTHING
+            RETURNING id, user_id, achievement_id, unlocked_at, created_at
+            """;
+
+    private static final String SCAN_UNLOCKS_SQL = """
+            SELECT user_id, achievement_id FROM user_achievements
+            """;
+
+    private static final String FIND_UNLOCKED_SQL = """
+            SELECT ua.user_id, ua.achievement_id
+            FROM unnest(?, ?) AS p(user_id, achievement_id)
+            JOIN user_achievements ua ON ua.user_id = p.user_id AND ua.achievement_id = p.achievement_id
+            """;
+
+    private static final String SCAN_USER_UNLOCKS_SQL = """
+            SELECT ua.achievement_id, a.name, a.category, a.points, ua.unlocked_at
+            FROM user_achievements ua
+            JOIN achievements a ON a.id = ua.achievement_id
+            WHERE ua.user_id = ?
+            ORDER BY ua.unlocked_at, ua.achievement_id
+            """;
+
+    private static final int SCAN_FETCH_SIZE = 10000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserAchievementRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UnlockedAchievementRow> insertUnlocks(Long userId, Collection<Long> achievementIds) {
+        return insert(INSERT_UNLOCKS_SQL, userId, achievementIds);
+    }
+
+    @Override
+    public List<UnlockedAchievementRow> insertUnlocksForUsers(Long achievementId, Collection<Long> userIds) {
+        return insert(INSERT_UNLOCKS_FOR_USERS_SQL, achievementId, userIds);
+    }
+
+    @Override
+    public List<UnlockedAchievementRow> insertUnlocksWhere(Long achievementId, String condition, long afterUserId,
+            long untilUserId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.query(INSERT_UNLOCKS_WHERE_SQL.formatted(condition),
+                (rs, rowNum) -> mapUnlockedRow(rs),
+                achievementId, now, now, afterUserId, untilUserId, achievementId);
+    }
+
+    @Override
+    public void scanUnlocks(BiConsumer<Long, Long> consumer) {
+        // The driver only streams with a fetch size inside a transaction
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCAN_UNLOCKS_SQL);
+            statement.setFetchSize(SCAN_FETCH_SIZE);
+            return statement;
+        }, rs -> {
+            consumer.accept(rs.getLong("user_id"), rs.getLong("achievement_id"));
+        });
+    }
+
+    @Override
+    public Set<UnlockKey> findUnlocked(Collection<UnlockKey> keys) {
+        Set<UnlockKey> unlocked = new HashSet<>();
+        if (keys.isEmpty()) {
+            return unlocked;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(FIND_UNLOCKED_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint",
+                    keys.stream().map(UnlockKey::userId).toArray()));
+            statement.setArray(2, connection.createArrayOf("bigint",
+                    keys.stream().map(UnlockKey::achievementId).toArray()));
+            return statement;
+        }, rs -> {
+            unlocked.add(new UnlockKey(rs.getLong("user_id"), rs.getLong("achievement_id")));
+        });
+        return unlocked;
+    }
+
+    @Override
+    public void scanUserUnlocks(Long userId, int fetchSize, Consumer<UserUnlockRow> consumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SCAN_USER_UNLOCKS_SQL);
+            statement.setFetchSize(fetchSize);
+            statement.setLong(1, userId);
+            return statement;
+        }, rs -> {
+            consumer.accept(new UserUnlockRow(rs.getLong("achievement_id"), rs.getString("name"),
+                    rs.getString("category"), rs.getInt("points"), rs.getTimestamp("unlocked_at").toLocalDateTime()));
+        });
+    }
+
+    private List<UnlockedAchievementRow> insert(String sql, Long fixedId, Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        return jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            Array idArray = connection.createArrayOf("bigint", ids.toArray());
+            statement.setLong(1, fixedId);
+            statement.setTimestamp(2, now);
+            statement.setTimestamp(3, now);
+            statement.setArray(4, idArray);
+            return statement;
+        }, (rs, rowNum) -> mapUnlockedRow(rs));
+    }
+
+    static UnlockedAchievementRow mapUnlockedRow(ResultSet rs) throws SQLException {
+        return new UnlockedAchievementRow(
+                rs.getLong("id"),
+                rs.getLong("user_id"),
+                rs.getLong("achievement_id"),
+                rs.getTimestamp("unlocked_at").toLocalDateTime(),
+                rs.getTimestamp("created_at").toLocalDateTime());
+    }
+}
@@ -0,0 +1,11 @@
+package com.goaly.backend.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.goaly.backend.entity.UserAchievementStats;
+
+@Repository
+public interface UserAchievementStatsRepository
+        extends JpaRepository<UserAchievementStats, Long>, UserAchievementStatsRepositoryCustom {
+}
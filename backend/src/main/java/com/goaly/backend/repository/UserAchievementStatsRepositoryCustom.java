@@ -0,0 +1,43 @@
+package com.goaly.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Incremental upserts and chunked rebuilds of user_achievement_stats
+ */
+public interface UserAchievementStatsRepositoryCustom {
+
+    /**
+     * Add newly unlocked achievements to one user's totals
+     */
+    void addUnlocks(Long userId, int unlockedCount, long points, Map<String, Integer> categoryCounts);
+
+    /**
+     * Add one newly unlocked achievement to the totals of many users
+     */
+    void addUnlockForUsers(Collection<Long> userIds, long points, String category);
+
+    /**
+     * Recompute the totals of users with ids in (afterId, untilId] from
+     * user_achievements
+     *
+     * @return number of users rewritten
+     */
+    int rebuildRange(long afterId, long untilId);
+
+    /**
+     * Recompute the totals of every user who unlocked an achievement
+     *
+     * @return ids of the users rewritten
+     */
+    List<Long> rebuildUnlockers(Long achievementId);
+
+    /**
+     * Take one achievement off the totals of every user who unlocked it
+     *
+     * @return ids of the users rewritten
+     */
+    List<Long> subtractAchievement(Long achievementId);
+}
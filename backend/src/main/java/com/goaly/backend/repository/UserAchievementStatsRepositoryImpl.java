@@ -0,0 +1,184 @@
+package com.goaly.backend.repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class UserAchievementStatsRepositoryImpl implements UserAchievementStatsRepositoryCustom {
+
+    /** Adds the incoming row to the existing one, summing category counts key by key */
+    private static final String MERGE_ON_CONFLICT = """
+            ON CONFLICT (user_id) DO UPDATE SET
+                unlocked_count = s.unlocked_count + EXCLUDED.unlocked_count,
+                total_points = s.total_points + EXCLUDED.total_points,
+                category_counts = (
+                    SELECT COALESCE(jsonb_object_agg(merged.key, merged.total), '{}'::jsonb)
+                    FROM (
+                        SELECT entries.key, SUM(entries.value::int) AS total
+                        FROM (
+                            SELECT key, value FROM jsonb_each_text(s.category_counts)
+                            UNION ALL
+                            SELECT key, value FROM jsonb_each_text(EXCLUDED.category_counts)
+                        ) entries
+                        GROUP BY entries.key
+                    ) merged
+                ),
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    /** Replaces the existing row with the recomputed one */
+    private static final String REPLACE_ON_CONFLICT = """
+            ON CONFLICT (user_id) DO UPDATE SET
+                unlocked_count = EXCLUDED.unlocked_count,
+                total_points = EXCLUDED.total_points,
+                category_counts = EXCLUDED.category_counts,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String ADD_UNLOCKS_SQL = """
+            INSERT INTO user_achievement_stats AS s
+                (user_id, unlocked_count, total_points, category_counts, updated_at)
+            VALUES (?, ?, ?, ?::jsonb, ?)
+            """ + MERGE_ON_CONFLICT;
+
+    private static final String ADD_UNLOCK_FOR_USERS_SQL = """
+            INSERT INTO user_achievement_stats AS s
+                (user_id, unlocked_count, total_points, category_counts, updated_at)
+            SELECT user_id, 1, ?, ?::jsonb, ? FROM unnest(?) AS user_id
+            """ + MERGE_ON_CONFLICT;
+
+    private static final String REBUILD_RANGE_SQL = """
+            WITH per_category AS (
+                SELECT ua.user_id, a.category, COUNT(*) AS unlocked, SUM(a.points) AS points
+                FROM user_achievements ua
+                JOIN achievements a ON a.id = ua.achievement_id
+                WHERE ua.user_id > ? AND ua.user_id <= ?
+                GROUP BY ua.user_id, a.category
+            )
+            INSERT INTO user_achievement_stats
+                (user_id, unlocked_count, total_points, category_counts, updated_at)
+            SELECT u.id,
+                COALESCE(SUM(pc.unlocked), 0),
+                COALESCE(SUM(pc.points), 0),
+                COALESCE(jsonb_object_agg(pc.category, pc.unlocked)
+                    FILTER (WHERE pc.category IS NOT NULL), '{}'::jsonb),
+                ?
+            FROM users u
+            LEFT JOIN per_category pc ON pc.user_id = u.id
+            WHERE u.id > ? AND u.id <= ?
+            GROUP BY u.id
+            """ + REPLACE_ON_CONFLICT;
+
+    private static final String REBUILD_UNLOCKERS_SQL = """
+            WITH unlockers AS (
+                SELECT user_id FROM user_achievements WHERE achievement_id = ?
+            ),
+            per_category AS (
+                SELECT ua.user_id, a.category, COUNT(*) AS unlocked, SUM(a.points) AS points
+                FROM user_achievements ua
+                JOIN achievements a ON a.id = ua.achievement_id
+                WHERE ua.user_id IN (SELECT user_id FROM unlockers)
+                GROUP BY ua.user_id, a.category
+            )
+            INSERT INTO user_achievement_stats
+                (user_id, unlocked_count, total_points, category_counts, updated_at)
+            SELECT u.user_id,
+                COALESCE(SUM(pc.unlocked), 0),
+                COALESCE(SUM(pc.points), 0),
+                COALESCE(jsonb_object_agg(pc.category, pc.unlocked)
+                    FILTER (WHERE pc.category IS NOT NULL), '{}'::jsonb),
+                ?
+            FROM unlockers u
+            LEFT JOIN per_category pc ON pc.user_id = u.user_id
+            GROUP BY u.user_id
+            """ + REPLACE_ON_CONFLICT + """
+            RETURNING user_id
+            """;
+
+    private static final String SUBTRACT_ACHIEVEMENT_SQL = """
+            UPDATE user_achievement_stats s SET
+                unlocked_count = s.unlocked_count - 1,
+                total_points = s.total_points - a.points,
+                category_counts = CASE
+                    WHEN a.category IS NULL THEN s.category_counts
+                    WHEN COALESCE((s.category_counts ->> a.category)::int, 0) <= 1
+                        THEN s.category_counts - a.category
+                    ELSE jsonb_set(s.category_counts, ARRAY[a.category],
+                        to_jsonb((s.category_counts ->> a.category)::int - 1))
+                END,
+                updated_at = ?
+            FROM user_achievements ua
+            JOIN achievements a ON a.id = ua.achievement_id
+            WHERE ua.achievement_id = ? AND s.user_id = ua.user_id
+            RETURNING s.user_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    UserAchievementStatsRepositoryImpl(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void addUnlocks(Long userId, int unlockedCount, long points, Map<String, Integer> categoryCounts) {
+        jdbcTemplate.update(ADD_UNLOCKS_SQL, userId, unlockedCount, points, toJson(categoryCounts),
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public void addUnlockForUsers(Collection<Long> userIds, long points, String category) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        String categoryCounts = toJson(category != null ? Map.of(category, 1) : Map.of());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ADD_UNLOCK_FOR_USERS_SQL);
+            Array ids = connection.createArrayOf("bigint", userIds.toArray());
+            statement.setLong(1, points);
+            statement.setString(2, categoryCounts);
+            statement.setTimestamp(3, now);
+            statement.setArray(4, ids);
+            return statement;
+        });
+    }
+
+    @Override
+    public int rebuildRange(long afterId, long untilId) {
+        return jdbcTemplate.update(REBUILD_RANGE_SQL, afterId, untilId,
+                Timestamp.valueOf(LocalDateTime.now()), afterId, untilId);
+    }
+
+    @Override
+    public List<Long> rebuildUnlockers(Long achievementId) {
+        return jdbcTemplate.queryForList(REBUILD_UNLOCKERS_SQL, Long.class, achievementId,
+                Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    @Override
+    public List<Long> subtractAchievement(Long achievementId) {
+        return jdbcTemplate.queryForList(SUBTRACT_ACHIEVEMENT_SQL, Long.class,
+                Timestamp.valueOf(LocalDateTime.now()), achievementId);
+    }
+
+    private String toJson(Map<String, Integer> categoryCounts) {
+        try {
+            return objectMapper.writeValueAsString(categoryCounts);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Could not serialize category counts", e);
+        }
+    }
+}
@@ -1,13 +1,26 @@
 package com.goaly.backend.repository;
 
 import com.goaly.backend.entity.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+
+    @Query("SELECT MAX(u.id) FROM User u")
+    Long findMaxId();
+
+    /**
+     * Keyset page of user ids in (afterId, untilId], in id order
+     */
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND u.id <= :untilId ORDER BY u.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, @Param("untilId") Long untilId, Limit limit);
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.goaly.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Sharded total-users counter, per-user data versions and change sequences,
+ * and single-statement user deletes
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Add to the user count in one shard
+     */
+    void addUserCount(long delta, int shard);
+
+    /**
+     * Total users, summed over shards
+     */
+    long loadUserCount();
+
+    /**
+     * Delete a user in one statement, letting the database cascade to their
+     * goals and unlocks
+     *
+     * @return ids of the achievements the user had unlocked, or empty if the
+     *         user did not exist
+     */
+    Optional<List<Long>> deleteUser(Long id);
+
+    /**
+     * Increment the data version of each user in one statement
+     *
+     * @return the new version of every user that still exists
+     */
+    Map<Long, Long> bumpDataVersions(Collection<Long> userIds);
+
+    /**
+     * A user's data version; 0 if their data has never changed
+     */
+    long loadDataVersion(Long userId);
+
+    /**
+     * Reserve a run of change sequence numbers for each user in one statement
+     *
+     * @param counts how many numbers each user needs
+     * @return the last number reserved for every user that still exists; the
+     *         run ends there
+     */
+    Map<Long, Long> allocateChangeSeqs(Map<Long, Integer> counts);
+
+    /**
+     * The last change sequence number handed out to a user; 0 if none has
+     * been
+     */
+    long loadLastChangeSeq(Long userId);
+}
@@ -0,0 +1,148 @@
+package com.goaly.backend.repository;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String ADD_USER_COUNT_SQL = """
+            INSERT INTO user_count_shards AS c (shard, user_count) VALUES (?, ?)
+            ON CONFLICT (shard) DO UPDATE SET user_count = c.user_count + EXCLUDED.user_count
+            """;
+
+    private static final String LOAD_USER_COUNT_SQL = """
+            SELECT COALESCE(SUM(user_count), 0) FROM user_count_shards
+            """;
+
+    // Ordered so concurrent bumps lock version rows in the same order
+    private static final String BUMP_DATA_VERSIONS_SQL = """
+            INSERT INTO user_data_versions AS v (user_id, version)
+            SELECT u.id, 1 FROM users u WHERE u.id = ANY (?) ORDER BY u.id
+            ON CONFLICT (user_id) DO UPDATE SET version = v.version + 1
+            RETURNING user_id, version
+            """;
+
+    private static final String ALLOCATE_CHANGE_SEQS_SQL = """
+            INSERT INTO user_change_seqs AS s (user_id, last_seq)
+            SELECT u.id, c.count
+            FROM unnest(?::bigint[], ?::bigint[]) AS c (user_id, count)
+            JOIN users u ON u.id = c.user_id
+            ORDER BY u.id
+            ON CONFLICT (user_id) DO UPDATE SET last_seq = s.last_seq + EXCLUDED.last_seq
+            RETURNING user_id, last_seq
+            """;
+
+    private static final String LOAD_LAST_CHANGE_SEQ_SQL = """
+            SELECT last_seq FROM user_change_seqs WHERE user_id = ?
+            """;
+
+    private static final String LOAD_DATA_VERSION_SQL = """
+            SELECT version FROM user_data_versions WHERE user_id = ?
+            """;
+
+    // The outer select still sees the unlocks the delete is about to cascade away
+    private static final String DELETE_USER_SQL = """
+            WITH deleted AS (
+                DELETE FROM users WHERE id = ? RETURNING id
+            )
+            SELECT d.id, ua.achievement_id
+            FROM deleted d
+            LEFT JOIN user_achievements ua ON ua.user_id = d.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void addUserCount(long delta, int shard) {
+        jdbcTemplate.update(ADD_USER_COUNT_SQL, shard, delta);
+    }
+
+    @Override
+    public long loadUserCount() {
+        Long count = jdbcTemplate.queryForObject(LOAD_USER_COUNT_SQL, Long.class);
+        return count != null ? count : 0;
+    }
+
+    @Override
+    public Optional<List<Long>> deleteUser(Long id) {
+        List<Long> achievementIds = new ArrayList<>();
+        boolean[] deleted = new boolean[1];
+        jdbcTemplate.query(DELETE_USER_SQL, rs -> {
+            deleted[0] = true;
+            long achievementId = rs.getLong("achievement_id");
+            if (!rs.wasNull()) {
+                achievementIds.add(achievementId);
+            }
+        }, id);
+        return deleted[0] ? Optional.of(achievementIds) : Optional.empty();
+    }
+
+    @Override
+    public Map<Long, Long> bumpDataVersions(Collection<Long> userIds) {
+        Map<Long, Long> versions = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return versions;
+        }
+        Long[] ids = userIds.toArray(new Long[0]);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(BUMP_DATA_VERSIONS_SQL);
+            Array array = connection.createArrayOf("bigint", ids);
+            statement.setArray(1, array);
+            return statement;
+        }, rs -> {
+            versions.put(rs.getLong("user_id"), rs.getLong("version"));
+        });
+        return versions;
+    }
+
+    @Override
+    public long loadDataVersion(Long userId) {
+        List<Long> versions = jdbcTemplate.queryForList(LOAD_DATA_VERSION_SQL, Long.class, userId);
+        return versions.isEmpty() ? 0 : versions.get(0);
+    }
+
+    @Override
+    public Map<Long, Long> allocateChangeSeqs(Map<Long, Integer> counts) {
+        Map<Long, Long> lastSeqs = new HashMap<>();
+        if (counts.isEmpty()) {
+            return lastSeqs;
+        }
+        Long[] ids = new Long[counts.size()];
+        Long[] sizes = new Long[counts.size()];
+        int i = 0;
+        for (Map.Entry<Long, Integer> entry : counts.entrySet()) {
+            ids[i] = entry.getKey();
+            sizes[i] = entry.getValue().longValue();
+            i++;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(ALLOCATE_CHANGE_SEQS_SQL);
+            statement.setArray(1, connection.createArrayOf("bigint", ids));
+            statement.setArray(2, connection.createArrayOf("bigint", sizes));
+            return statement;
+        }, rs -> {
+            lastSeqs.put(rs.getLong("user_id"), rs.getLong("last_seq"));
+        });
+        return lastSeqs;
+    }
+
+    @Override
+    public long loadLastChangeSeq(Long userId) {
+        List<Long> seqs = jdbcTemplate.queryForList(LOAD_LAST_CHANGE_SEQ_SQL, Long.class, userId);
+        return seqs.isEmpty() ? 0 : seqs.get(0);
+    }
+}
@@ -0,0 +1,24 @@
+package com.goaly.backend.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.goaly.backend.entity.UserStreak;
+
+import jakarta.persistence.LockModeType;
+
+@Repository
+public interface UserStreakRepository extends JpaRepository<UserStreak, Long>, UserStreakRepositoryCustom {
+
+    /**
+     * Load a user's streak row and hold its lock until the transaction ends
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM UserStreak s WHERE s.userId = :userId")
+    Optional<UserStreak> findForUpdate(@Param("userId") Long userId);
+}
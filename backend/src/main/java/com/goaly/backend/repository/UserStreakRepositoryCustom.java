@@ -0,0 +1,25 @@
+package com.goaly.backend.repository;
+
+import java.util.Collection;
+import java.util.Map;
+
+import com.goaly.backend.service.criteria.StreakState;
+
+/**
+ * Bulk reads and chunked rebuilds of user_streaks
+ */
+public interface UserStreakRepositoryCustom {
+
+    /**
+     * Streak state of the given users that have a row
+     */
+    Map<Long, StreakState> loadStates(Collection<Long> userIds);
+
+    /**
+     * Recompute the streaks of users with ids in (afterId, untilId] from their
+     * completed goals
+     *
+     * @return number of users with a streak row afterwards
+     */
+    int rebuildRange(long afterId, long untilId);
+}
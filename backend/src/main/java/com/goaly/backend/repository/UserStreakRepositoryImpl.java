@@ -0,0 +1,111 @@
+package com.goaly.backend.repository;
+
+import java.sql.Array;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.goaly.backend.service.criteria.StreakState;
+
+class UserStreakRepositoryImpl implements UserStreakRepositoryCustom {
+
+    private static final String LOAD_STATES_SQL = """
+            SELECT user_id, last_completion_date, current_streak, best_streak, run_start_date, recent_days
+            FROM user_streaks WHERE user_id = ANY (?)
+            """;
+
+    private static final String LOCK_RANGE_SQL = """
+            SELECT user_id FROM user_streaks WHERE user_id > ? AND user_id <= ? FOR UPDATE
+            """;
+
+    private static final String COMPLETION_DAYS_SQL = """
+            SELECT user_id, completion_date FROM goals
+            WHERE user_id > ? AND user_id <= ? AND status = 'COMPLETED' AND completion_date IS NOT NULL
+            ORDER BY user_id, completion_date
+            """;
+
+    private static final String DELETE_RANGE_SQL = """
+            DELETE FROM user_streaks WHERE user_id > ? AND user_id <= ?
+            """;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO user_streaks
+                (user_id, last_completion_date, current_streak, best_streak, run_start_date, recent_days, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (user_id) DO UPDATE SET
+                last_completion_date = EXCLUDED.last_completion_date,
+                current_streak = EXCLUDED.current_streak,
+                best_streak = EXCLUDED.best_streak,
+                run_start_date = EXCLUDED.run_start_date,
+                recent_days = EXCLUDED.recent_days,
+                updated_at = EXCLUDED.updated_at
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    UserStreakRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public Map<Long, StreakState> loadStates(Collection<Long> userIds) {
+        Map<Long, StreakState> states = new HashMap<>();
+        if (userIds.isEmpty()) {
+            return states;
+        }
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(LOAD_STATES_SQL);
+            Array ids = connection.createArrayOf("bigint", userIds.toArray());
+            statement.setArray(1, ids);
+            return statement;
+        }, rs -> {
+            states.put(rs.getLong("user_id"), new StreakState(
+                    rs.getDate("last_completion_date").toLocalDate().toEpochDay(),
+                    rs.getInt("current_streak"),
+                    rs.getInt("best_streak"),
+                    rs.getDate("run_start_date").toLocalDate().toEpochDay(),
+                    rs.getLong("recent_days")));
+        });
+        return states;
+    }
+
+    @Override
+    public int rebuildRange(long afterId, long untilId) {
+        jdbcTemplate.query(LOCK_RANGE_SQL, rs -> {
+        }, afterId, untilId);
+
+        // Rows arrive grouped by user in date order, so each user is one fold
+        Map<Long, StreakState> states = new LinkedHashMap<>();
+        jdbcTemplate.query(COMPLETION_DAYS_SQL, rs -> {
+            long userId = rs.getLong("user_id");
+            long day = rs.getDate("completion_date").toLocalDate().toEpochDay();
+            states.merge(userId, StreakState.EMPTY.append(day), (state, ignored) -> state.append(day));
+        }, afterId, untilId);
+
+        jdbcTemplate.update(DELETE_RANGE_SQL, afterId, untilId);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(states.size());
+        states.forEach((userId, state) -> rows.add(new Object[] {
+                userId,
+                Date.valueOf(LocalDate.ofEpochDay(state.getLastCompletionDay())),
+                state.getCurrentStreak(),
+                state.getBestStreak(),
+                Date.valueOf(LocalDate.ofEpochDay(state.getRunStartDay())),
+                state.getRecentDays(),
+                now }));
+        jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+        return rows.size();
+    }
+}
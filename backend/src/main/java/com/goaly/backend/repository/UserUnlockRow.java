@@ -0,0 +1,11 @@
+package com.goaly.backend.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * One of a user's unlocked achievements with the catalog fields needed to
+ * describe it, as streamed by the export scan
+ */
+public record UserUnlockRow(Long achievementId, String name, String category, int points,
+        LocalDateTime unlockedAt) {
+}
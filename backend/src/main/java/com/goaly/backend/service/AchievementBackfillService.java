@@ -0,0 +1,281 @@
+package com.goaly.backend.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.dto.BackfillJobDto;
+import com.goaly.backend.entity.Achievement;
+import com.goaly.backend.entity.AchievementBackfillJob;
+import com.goaly.backend.entity.AchievementBackfillJob.JobStatus;
+import com.goaly.backend.entity.AchievementBackfillRange;
+import com.goaly.backend.event.AchievementCriteriaChangedEvent;
+import com.goaly.backend.exception.ResourceNotFoundException;
+import com.goaly.backend.repository.AchievementBackfillJobRepository;
+import com.goaly.backend.repository.AchievementBackfillRangeRepository;
+import com.goaly.backend.repository.AchievementRepository;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.repository.UnlockedAchievementRow;
+import com.goaly.backend.repository.UserAchievementRepository;
+import com.goaly.backend.repository.UserRepository;
+import com.goaly.backend.repository.UserStreakRepository;
+import com.goaly.backend.service.criteria.CompiledCriteria;
+import com.goaly.backend.service.criteria.CriteriaCache;
+import com.goaly.backend.service.criteria.UserGoalSnapshot;
+
+/**
+ * Grants a new or changed achievement to existing users. The users id space is
+ * split into ranges that run in parallel on a bounded pool; each range walks
+ * its users in keyset pages, one short transaction per page, and saves a
+ * checkpoint with every page so a restarted job resumes where it stopped.
+ */
+@Service
+public class AchievementBackfillService {
+
+    private static final Logger log = LoggerFactory.getLogger(AchievementBackfillService.class);
+
+    private final AchievementBackfillJobRepository jobRepository;
+    private final AchievementBackfillRangeRepository rangeRepository;
+    private final AchievementRepository achievementRepository;
+    private final UserRepository userRepository;
+    private final GoalRepository goalRepository;
+    private final UserAchievementRepository userAchievementRepository;
+    private final UserStreakRepository streakRepository;
+    private final CriteriaCache criteriaCache;
+    private final UserAchievementStatsService statsService;
+    private final UnlockedAchievementCache unlockedCache;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor backfillExecutor;
+    private final long rangeSize;
+    private final int pageSize;
+
+    private final Set<Long> cancelledJobIds = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public AchievementBackfillService(AchievementBackfillJobRepository jobRepository,
+            AchievementBackfillRangeRepository rangeRepository,
+            AchievementRepository achievementRepository,
+            UserRepository userRepository,
+            GoalRepository goalRepository,
+            UserAchievementRepository userAchievementRepository,
+            UserStreakRepository streakRepository,
+            CriteriaCache criteriaCache,
+            UserAchievementStatsService statsService,
+            UnlockedAchievementCache unlockedCache,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("backfillExecutor") TaskExecutor backfillExecutor,
+            @Value("${goaly.backfill.range-size:50000}") long rangeSize,
+            @Value("${goaly.backfill.page-size:500}") int pageSize) {
+        this.jobRepository = jobRepository;
+        this.rangeRepository = rangeRepository;
+        this.achievementRepository = achievementRepository;
+        this.userRepository = userRepository;
+        this.goalRepository = goalRepository;
+        this.userAchievementRepository = userAchievementRepository;
+        this.streakRepository = streakRepository;
+        this.criteriaCache = criteriaCache;
+        this.statsService = statsService;
+        this.unlockedCache = unlockedCache;
+        // Jobs are started from after-commit listeners, so always run in a fresh transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.backfillExecutor = backfillExecutor;
+        this.rangeSize = rangeSize;
+        this.pageSize = pageSize;
+    }
+
+    @TransactionalEventListener
+    public void onCriteriaChanged(AchievementCriteriaChangedEvent event) {
+        startBackfill(event.getAchievementId());
+    }
+
+    /**
+     * Resume every job that was still running when the application stopped
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeRunningJobs() {
+        for (AchievementBackfillJob job : jobRepository.findByStatus(JobStatus.RUNNING)) {
+            log.info("Resuming achievement backfill job {}", job.getId());
+            submitRanges(job.getId(), job.getAchievementId());
+        }
+    }
+
+    /**
+     * Start a backfill for an achievement, superseding any job already running
+     * for it
+     */
+    public BackfillJobDto startBackfill(Long achievementId) {
+        AchievementBackfillJob job = transactionTemplate.execute(status -> {
+            if (!achievementRepository.existsById(achievementId)) {
+                throw new ResourceNotFoundException("Achievement not found with id: " + achievementId);
+            }
+            for (AchievementBackfillJob running : jobRepository.findByAchievementIdAndStatus(achievementId,
+                    JobStatus.RUNNING)) {
+                jobRepository.finish(running.getId(), JobStatus.CANCELLED, LocalDateTime.now());
+                cancelledJobIds.add(running.getId());
+            }
+
+            AchievementBackfillJob created = jobRepository.save(new AchievementBackfillJob(achievementId));
+            Long maxUserId = userRepository.findMaxId();
+            List<AchievementBackfillRange> ranges = new ArrayList<>();
+            if (maxUserId != null) {
+                for (long start = 0; start < maxUserId; start += rangeSize) {
+                    ranges.add(new AchievementBackfillRange(created.getId(), start,
+                            Math.min(start + rangeSize, maxUserId)));
+                }
+            }
+            rangeRepository.saveAll(ranges);
+            if (ranges.isEmpty()) {
+                jobRepository.finish(created.getId(), JobStatus.COMPLETED, LocalDateTime.now());
+            }
+            return created;
+        });
+
+        submitRanges(job.getId(), achievementId);
+        return getJob(job.getId());
+    }
+
+    public BackfillJobDto getJob(Long jobId) {
+        AchievementBackfillJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Backfill job not found with id: " + jobId));
+        return convertToDto(job, rangeRepository.findByJobIdOrderByRangeStart(jobId));
+    }
+
+    public List<BackfillJobDto> getRecentJobs() {
+        return jobRepository.findTop20ByOrderByCreatedAtDesc().stream()
+                .map(job -> convertToDto(job, rangeRepository.findByJobIdOrderByRangeStart(job.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private void submitRanges(Long jobId, Long achievementId) {
+        for (AchievementBackfillRange range : rangeRepository.findByJobIdAndCompletedFalse(jobId)) {
+            backfillExecutor.execute(() -> runRange(jobId, achievementId, range));
+        }
+    }
+
+    private void runRange(Long jobId, Long achievementId, AchievementBackfillRange range) {
+        try {
+            Achievement achievement = achievementRepository.findById(achievementId).orElse(null);
+            if (achievement == null) {
+                transactionTemplate.executeWithoutResult(status ->
+                        jobRepository.finish(jobId, JobStatus.CANCELLED, LocalDateTime.now()));
+                return;
+            }
+            CompiledCriteria criteria = criteriaCache.get(achievement);
+
+            long checkpoint = range.getCheckpoint();
+            while (!cancelledJobIds.contains(jobId)) {
+                long from = checkpoint;
+                Long next = transactionTemplate.execute(status ->
+                        processPage(range, from, achievement, criteria));
+                if (next == null) {
+                    break;
+                }
+                checkpoint = next;
+            }
+
+            if (!cancelledJobIds.contains(jobId)) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (rangeRepository.countByJobIdAndCompletedFalse(jobId) == 0) {
+                        jobRepository.finish(jobId, JobStatus.COMPLETED, LocalDateTime.now());
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            log.error("Achievement backfill job {} failed in range ({}, {}]", jobId,
+                    range.getRangeStart(), range.getRangeEnd(), e);
+            transactionTemplate.executeWithoutResult(status ->
+                    jobRepository.finish(jobId, JobStatus.FAILED, LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Evaluate one page of users after the checkpoint and save the new
+     * checkpoint in the same transaction
+     *
+     * @return the new checkpoint, or null once the range is finished
+     */
+    private Long processPage(AchievementBackfillRange range, long checkpoint, Achievement achievement,
+            CompiledCriteria criteria) {
+        Long achievementId = achievement.getId();
+        List<Long> userIds = userRepository.findIdsAfter(checkpoint, range.getRangeEnd(), Limit.of(pageSize));
+        if (userIds.isEmpty()) {
+            rangeRepository.advance(range.getId(), checkpoint, 0, 0, true, LocalDateTime.now());
+            return null;
+        }
+
+        long lastUserId = userIds.get(userIds.size() - 1);
+        List<UnlockedAchievementRow> inserted;
+        if (criteria.getSqlCondition() != null) {
+            // Evaluate and unlock the whole page in the database with one statement
+            inserted = userAchievementRepository.insertUnlocksWhere(achievementId, criteria.getSqlCondition(),
+                    checkpoint, lastUserId);
+        } else {
+            Set<Long> alreadyUnlocked = new HashSet<>(
+                    userAchievementRepository.findUserIdsWithAchievement(achievementId, userIds));
+            List<Long> candidates = userIds.stream()
+                    .filter(userId -> !alreadyUnlocked.contains(userId))
+                    .collect(Collectors.toList());
+
+            Map<Long, UserGoalSnapshot> snapshots = goalRepository.loadSnapshots(candidates,
+                    streakRepository.loadStates(candidates), LocalDate.now());
+            List<Long> qualifying = candidates.stream()
+                    .filter(userId -> criteria.test(snapshots.get(userId)))
+                    .collect(Collectors.toList());
+            inserted = userAchievementRepository.insertUnlocksForUsers(achievementId, qualifying);
+        }
+        List<Long> unlockedUserIds = inserted.stream()
+                .map(UnlockedAchievementRow::userId)
+                .collect(Collectors.toList());
+        statsService.recordUnlocks(unlockedUserIds, achievement.getId(), achievement.getPoints(),
+                achievement.getCategory());
+        unlockedCache.markUnlockedForUsers(achievementId, unlockedUserIds);
+        int unlocked = unlockedUserIds.size();
+
+        boolean finished = userIds.size() < pageSize || lastUserId >= range.getRangeEnd();
+        rangeRepository.advance(range.getId(), lastUserId, userIds.size(), unlocked, finished,
+                LocalDateTime.now());
+        return finished ? null : lastUserId;
+    }
+
+    private BackfillJobDto convertToDto(AchievementBackfillJob job, List<AchievementBackfillRange> ranges) {
+        BackfillJobDto dto = new BackfillJobDto();
+        dto.setId(job.getId());
+        dto.setAchievementId(job.getAchievementId());
+        dto.setStatus(job.getStatus());
+        dto.setTotalRanges(ranges.size());
+        dto.setCompletedRanges((int) ranges.stream().filter(AchievementBackfillRange::getCompleted).count());
+        long processed = ranges.stream().mapToLong(AchievementBackfillRange::getProcessedUsers).sum();
+        dto.setProcessedUsers(processed);
+        dto.setUnlockedUsers(ranges.stream().mapToLong(AchievementBackfillRange::getUnlockedUsers).sum());
+        dto.setCreatedAt(job.getCreatedAt());
+        dto.setCompletedAt(job.getCompletedAt());
+
+        LocalDateTime end = job.getCompletedAt() != null ? job.getCompletedAt() : LocalDateTime.now();
+        long elapsedMillis = Duration.between(job.getCreatedAt(), end).toMillis();
+        dto.setUsersPerSecond(elapsedMillis > 0 ? processed * 1000.0 / elapsedMillis : 0);
+        return dto;
+    }
+}
@@ -0,0 +1,300 @@
+package com.goaly.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.entity.Achievement;
+import com.goaly.backend.repository.AchievementRepository;
+import com.goaly.backend.service.criteria.CompiledCriteria;
+import com.goaly.backend.service.criteria.CriteriaCache;
+import com.goaly.backend.service.criteria.CriteriaMetric;
+
+/**
+ * In-memory copy of the achievements table. Readers get an immutable snapshot
+ * indexed by id, category, visibility and criteria metric; admin writes swap
+ * in a freshly loaded snapshot once they commit.
+ */
+@Component
+public class AchievementCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(AchievementCatalog.class);
+
+    private final AchievementRepository achievementRepository;
+    private final CriteriaCache criteriaCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicReference<Snapshot> current = new AtomicReference<>();
+
+    // Ordinals outlive snapshots so cached unlock bitsets stay valid across reloads
+    private final Map<Long, Integer> ordinals = new ConcurrentHashMap<>();
+    private final AtomicInteger nextOrdinal = new AtomicInteger();
+
+    @Autowired
+    public AchievementCatalog(AchievementRepository achievementRepository, CriteriaCache criteriaCache,
+            PlatformTransactionManager transactionManager) {
+        this.achievementRepository = achievementRepository;
+        this.criteriaCache = criteriaCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    /**
+     * The current catalog snapshot, loading it on first use
+     */
+    public Snapshot current() {
+        Snapshot snapshot = current.get();
+        return snapshot != null ? snapshot : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * Periodically pick up edits made by other instances or directly in the
+     * database
+     */
+    @Scheduled(fixedDelayString = "${goaly.catalog.refresh-interval-ms:300000}")
+    public void refresh() {
+        reload();
+    }
+
+    /**
+     * Reload the catalog once the current transaction commits, or immediately
+     * if there is none
+     */
+    public void reloadAfterCommit() {
+        AfterCommit.run(this::reload);
+    }
+
+    /**
+     * Dense ordinal for an achievement id, assigned on first use and never
+     * reused, even after the achievement is deleted
+     */
+    public int ordinalOf(Long achievementId) {
+        return ordinals.computeIfAbsent(achievementId, id -> nextOrdinal.getAndIncrement());
+    }
+
+    /**
+     * Load the achievements table and atomically replace the snapshot
+     */
+    public Snapshot reload() {
+        List<Achievement> achievements = transactionTemplate.execute(status -> achievementRepository.findAll());
+        List<Entry> entries = new ArrayList<>();
+        for (Achievement achievement : achievements) {
+            entries.add(new Entry(achievement, ordinalOf(achievement.getId()), criteriaCache.get(achievement)));
+        }
+        Snapshot snapshot = new Snapshot(entries);
+        Snapshot previous = current.getAndSet(snapshot);
+        if (previous == null || previous.getVersion() != snapshot.getVersion()) {
+            log.debug("Loaded achievement catalog version {} with {} achievements",
+                    snapshot.getVersion(), entries.size());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Immutable, indexed view of every achievement at one version
+     */
+    public static final class Snapshot {
+
+        private final long version;
+        private final List<Entry> all;
+        private final List<Entry> visible;
+        private final Map<Long, Entry> byId;
+        private final Map<String, List<Entry>> byCategory;
+        private final Map<CriteriaMetric, List<Entry>> byMetric;
+        private final List<String> categories;
+
+        Snapshot(List<Entry> entries) {
+            List<Entry> sorted = new ArrayList<>(entries);
+            sorted.sort(Comparator.comparing(Entry::getId));
+
+            Map<Long, Entry> idIndex = new HashMap<>();
+            Map<String, List<Entry>> categoryIndex = new TreeMap<>();
+            Map<CriteriaMetric, List<Entry>> metricIndex = new EnumMap<>(CriteriaMetric.class);
+            List<Entry> visibleEntries = new ArrayList<>();
+            long fingerprint = 17;
+            for (Entry entry : sorted) {
+                idIndex.put(entry.getId(), entry);
+                if (entry.getCategory() != null) {
+                    categoryIndex.computeIfAbsent(entry.getCategory(), c -> new ArrayList<>()).add(entry);
+                }
+                for (CriteriaMetric metric : entry.getCriteria().getMetrics()) {
+                    metricIndex.computeIfAbsent(metric, m -> new ArrayList<>()).add(entry);
+                }
+                if (!entry.isHidden()) {
+                    visibleEntries.add(entry);
+                }
+                fingerprint = 31 * fingerprint + entry.getId();
+                fingerprint = 31 * fingerprint + (entry.getUpdatedAt() != null
+                        ? entry.getUpdatedAt().toInstant(ZoneOffset.UTC).toEpochMilli() : 0);
+            }
+
+            Map<String, List<Entry>> frozenCategories = new LinkedHashMap<>();
+            categoryIndex.forEach((category, list) -> frozenCategories.put(category, List.copyOf(list)));
+            Map<CriteriaMetric, List<Entry>> frozenMetrics = new EnumMap<>(CriteriaMetric.class);
+            metricIndex.forEach((metric, list) -> frozenMetrics.put(metric, List.copyOf(list)));
+
+            this.version = fingerprint;
+            this.all = List.copyOf(sorted);
+            this.visible = List.copyOf(visibleEntries);
+            this.byId = Collections.unmodifiableMap(idIndex);
+            this.byCategory = Collections.unmodifiableMap(frozenCategories);
+            this.byMetric = Collections.unmodifiableMap(frozenMetrics);
+            this.categories = List.copyOf(frozenCategories.keySet());
+        }
+
+        /**
+         * Fingerprint of the catalog contents; changes whenever an achievement
+         * is created, edited or deleted
+         */
+        public long getVersion() {
+            return version;
+        }
+
+        public List<Entry> getAll() {
+            return all;
+        }
+
+        public List<Entry> getVisible() {
+            return visible;
+        }
+
+        public Entry get(Long id) {
+            return byId.get(id);
+        }
+
+        public List<Entry> getByCategory(String category) {
+            return byCategory.getOrDefault(category, List.of());
+        }
+
+        /**
+         * Achievements whose criteria read the given metric
+         */
+        public List<Entry> getByMetric(CriteriaMetric metric) {
+            return byMetric.getOrDefault(metric, List.of());
+        }
+
+        /**
+         * Distinct non-null categories in name order
+         */
+        public List<String> getCategories() {
+            return categories;
+        }
+
+        public int size() {
+            return all.size();
+        }
+    }
+
+    /**
+     * Immutable copy of one achievement row plus its compiled criteria
+     */
+    public static final class Entry {
+
+        private final Long id;
+        private final int ordinal;
+        private final String name;
+        private final String description;
+        private final String criteriaText;
+        private final String icon;
+        private final int points;
+        private final String category;
+        private final boolean hidden;
+        private final LocalDateTime createdAt;
+        private final LocalDateTime updatedAt;
+        private final CompiledCriteria criteria;
+
+        Entry(Achievement achievement, int ordinal, CompiledCriteria criteria) {
+            this.id = achievement.getId();
+            this.ordinal = ordinal;
+            this.name = achievement.getName();
+            this.description = achievement.getDescription();
+            this.criteriaText = achievement.getCriteria();
+            this.icon = achievement.getIcon();
+            this.points = achievement.getPoints() != null ? achievement.getPoints() : 0;
+            this.category = achievement.getCategory();
+            this.hidden = Boolean.TRUE.equals(achievement.getIsHidden());
+            this.createdAt = achievement.getCreatedAt();
+            this.updatedAt = achievement.getUpdatedAt();
+            this.criteria = criteria;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        /**
+         * Stable dense index of this achievement in unlock bitsets
+         */
+        public int getOrdinal() {
+            return ordinal;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public String getCriteriaText() {
+            return criteriaText;
+        }
+
+        public String getIcon() {
+            return icon;
+        }
+
+        public int getPoints() {
+            return points;
+        }
+
+        public String getCategory() {
+            return category;
+        }
+
+        public boolean isHidden() {
+            return hidden;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public CompiledCriteria getCriteria() {
+            return criteria;
+        }
+    }
+}
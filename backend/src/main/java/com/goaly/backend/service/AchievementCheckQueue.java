@@ -0,0 +1,232 @@
+package com.goaly.backend.service;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.goaly.backend.dto.AchievementCheckDto;
+import com.goaly.backend.dto.AchievementCheckDto.CheckStatus;
+import com.goaly.backend.dto.UserAchievementDto;
+import com.goaly.backend.exception.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Deduplicating queue of achievement checks. Every request gets its own
+ * ticket, but all requests for a user that arrive before a worker picks the
+ * user up share one evaluation. Results are kept by ticket for a while and
+ * pushed to any open event stream for the user.
+ */
+@Service
+public class AchievementCheckQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(AchievementCheckQueue.class);
+
+    private final AchievementService achievementService;
+    private final TaskExecutor checkExecutor;
+    private final long ticketTtlMillis;
+    private final long streamTimeoutMillis;
+
+    private final Map<Long, PendingCheck> pending = new ConcurrentHashMap<>();
+    private final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+    private final Map<Long, List<SseEmitter>> streams = new ConcurrentHashMap<>();
+
+    private final Counter requests;
+    private final Counter evaluations;
+    private final Timer waitTimer;
+    private final Timer evaluationTimer;
+
+    @Autowired
+    public AchievementCheckQueue(AchievementService achievementService,
+            @Qualifier("achievementCheckExecutor") TaskExecutor checkExecutor,
+            MeterRegistry meterRegistry,
+            @Value("${goaly.checks.ticket-ttl-ms:600000}") long ticketTtlMillis,
+            @Value("${goaly.checks.stream-timeout-ms:1800000}") long streamTimeoutMillis) {
+        this.achievementService = achievementService;
+        this.checkExecutor = checkExecutor;
+        this.ticketTtlMillis = ticketTtlMillis;
+        this.streamTimeoutMillis = streamTimeoutMillis;
+
+        this.requests = Counter.builder("achievement.checks.requests")
+                .description("Achievement check requests accepted")
+                .register(meterRegistry);
+        this.evaluations = Counter.builder("achievement.checks.evaluations")
+                .description("Achievement evaluations actually run")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("achievement.checks.wait")
+                .description("Time a user spent queued before evaluation")
+                .register(meterRegistry);
+        this.evaluationTimer = Timer.builder("achievement.checks.evaluation")
+                .description("Achievement evaluation latency")
+                .register(meterRegistry);
+        Gauge.builder("achievement.checks.queue.depth", pending, Map::size)
+                .description("Users waiting for an achievement check")
+                .register(meterRegistry);
+        Gauge.builder("achievement.checks.coalescing.ratio", this, AchievementCheckQueue::coalescingRatio)
+                .description("Requests per evaluation run")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a check for a user, joining the pending one if there is one
+     */
+    public AchievementCheckDto enqueue(Long userId) {
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), userId);
+        tickets.put(ticket.id, ticket);
+        requests.increment();
+
+        boolean[] created = new boolean[1];
+        pending.compute(userId, (id, check) -> {
+            if (check == null) {
+                check = new PendingCheck();
+                created[0] = true;
+            }
+            check.tickets.add(ticket);
+            return check;
+        });
+        if (created[0]) {
+            checkExecutor.execute(() -> run(userId));
+        }
+        return ticket.toDto();
+    }
+
+    public AchievementCheckDto getTicket(String ticketId) {
+        Ticket ticket = tickets.get(ticketId);
+        if (ticket == null) {
+            throw new ResourceNotFoundException("Achievement check not found: " + ticketId);
+        }
+        return ticket.toDto();
+    }
+
+    /**
+     * Open an event stream that receives the result of every check run for a
+     * user
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+        List<SseEmitter> userStreams = streams.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        userStreams.add(emitter);
+        Runnable remove = () -> userStreams.remove(emitter);
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        return emitter;
+    }
+
+    @Scheduled(fixedDelayString = "${goaly.checks.ticket-ttl-ms:600000}")
+    public void evictExpiredTickets() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(ticketTtlMillis));
+        tickets.values().removeIf(ticket -> ticket.completedAt != null && ticket.completedAt.isBefore(cutoff));
+        streams.values().removeIf(List::isEmpty);
+    }
+
+    private void run(Long userId) {
+        // Requests arriving from here on queue a fresh evaluation
+        PendingCheck check = pending.remove(userId);
+        if (check == null) {
+            return;
+        }
+        waitTimer.record(System.nanoTime() - check.enqueuedAtNanos, TimeUnit.NANOSECONDS);
+        check.tickets.forEach(ticket -> ticket.status = CheckStatus.RUNNING);
+
+        long start = System.nanoTime();
+        try {
+            List<UserAchievementDto> unlocked = achievementService.checkAndUnlockAchievements(userId);
+            finish(userId, check, CheckStatus.COMPLETED, unlocked, null);
+        } catch (RuntimeException e) {
+            log.warn("Queued achievement check failed for user {}", userId, e);
+            finish(userId, check, CheckStatus.FAILED, List.of(), e.getMessage());
+        } finally {
+            evaluations.increment();
+            evaluationTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void finish(Long userId, PendingCheck check, CheckStatus status, List<UserAchievementDto> unlocked,
+            String error) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Ticket ticket : check.tickets) {
+            ticket.unlocked = unlocked;
+            ticket.error = error;
+            ticket.completedAt = now;
+            ticket.status = status;
+        }
+        push(userId, check.tickets.get(check.tickets.size() - 1).toDto());
+    }
+
+    private void push(Long userId, AchievementCheckDto result) {
+        List<SseEmitter> userStreams = streams.get(userId);
+        if (userStreams == null) {
+            return;
+        }
+        for (SseEmitter emitter : userStreams) {
+            try {
+                emitter.send(SseEmitter.event().name("achievement-check").data(result));
+            } catch (IOException | IllegalStateException e) {
+                userStreams.remove(emitter);
+            }
+        }
+    }
+
+    private double coalescingRatio() {
+        double runs = evaluations.count();
+        return runs > 0 ? requests.count() / runs : 0;
+    }
+
+    /**
+     * Requests for one user waiting for the same evaluation. Only mutated
+     * inside {@code pending.compute}, and only read after the worker removed it.
+     */
+    private static final class PendingCheck {
+
+        private final long enqueuedAtNanos = System.nanoTime();
+        private final List<Ticket> tickets = new ArrayList<>();
+    }
+
+    private static final class Ticket {
+
+        private final String id;
+        private final Long userId;
+        private final LocalDateTime requestedAt = LocalDateTime.now();
+        private volatile CheckStatus status = CheckStatus.QUEUED;
+        private volatile List<UserAchievementDto> unlocked;
+        private volatile String error;
+        private volatile LocalDateTime completedAt;
+
+        private Ticket(String id, Long userId) {
+            this.id = id;
+            this.userId = userId;
+        }
+
+        private AchievementCheckDto toDto() {
+            AchievementCheckDto dto = new AchievementCheckDto();
+            dto.setTicket(id);
+            dto.setUserId(userId);
+            dto.setStatus(status);
+            dto.setUnlocked(unlocked);
+            dto.setError(error);
+            dto.setRequestedAt(requestedAt);
+            dto.setCompletedAt(completedAt);
+            return dto;
+        }
+    }
+}
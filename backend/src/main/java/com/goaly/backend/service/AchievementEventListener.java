@@ -0,0 +1,109 @@
+package com.goaly.backend.service;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.event.GoalCompletedEvent;
+import com.goaly.backend.event.GoalCreatedEvent;
+import com.goaly.backend.event.GoalDeletedEvent;
+import com.goaly.backend.event.GoalEvent;
+import com.goaly.backend.event.GoalUpdatedEvent;
+import com.goaly.backend.service.criteria.CriteriaMetric;
+
+/**
+ * Re-evaluates achievements incrementally as goals change. Each event is mapped
+ * to the metrics it can move, and only achievements whose criteria read one of
+ * those metrics are checked.
+ */
+@Component
+public class AchievementEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(AchievementEventListener.class);
+
+    private final AchievementService achievementService;
+
+    @Autowired
+    public AchievementEventListener(AchievementService achievementService) {
+        this.achievementService = achievementService;
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onGoalEvent(GoalEvent event) {
+        Set<CriteriaMetric> affected = affectedMetrics(event);
+        if (affected.isEmpty()) {
+            return;
+        }
+        try {
+            achievementService.checkAndUnlockAchievements(event.getUserId(), affected);
+        } catch (RuntimeException e) {
+            // The goal change is already committed; a failed check is retried on the next event
+            log.warn("Achievement check failed for user {} after {}", event.getUserId(),
+                    event.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Metrics whose value can change as a result of the event
+     */
+    static Set<CriteriaMetric> affectedMetrics(GoalEvent event) {
+        Set<CriteriaMetric> metrics = EnumSet.noneOf(CriteriaMetric.class);
+
+        if (event instanceof GoalCreatedEvent) {
+            metrics.add(CriteriaMetric.GOALS_CREATED);
+            if (event.getTargetDate() != null) {
+                metrics.add(CriteriaMetric.GOALS_WITH_TARGET_DATE);
+            }
+        } else if (event instanceof GoalCompletedEvent) {
+            addCompletionMetrics(event, metrics);
+            if (event.getTargetDate() != null) {
+                metrics.add(CriteriaMetric.GOALS_WITH_TARGET_DATE);
+            }
+        } else if (event instanceof GoalUpdatedEvent) {
+            GoalUpdatedEvent updated = (GoalUpdatedEvent) event;
+            if (updated.isStatusChanged() && (updated.getPreviousStatus() == GoalStatus.COMPLETED
+                    || updated.getStatus() == GoalStatus.COMPLETED)) {
+                addCompletionMetrics(event, metrics);
+            }
+            if (updated.isTargetDateChanged()) {
+                metrics.add(CriteriaMetric.GOALS_WITH_TARGET_DATE);
+                if (updated.getStatus() == GoalStatus.COMPLETED) {
+                    metrics.add(CriteriaMetric.EARLY_COMPLETIONS);
+                }
+            }
+        } else if (event instanceof GoalDeletedEvent) {
+            metrics.add(CriteriaMetric.GOALS_CREATED);
+            if (event.getTargetDate() != null) {
+                metrics.add(CriteriaMetric.GOALS_WITH_TARGET_DATE);
+            }
+            if (event.getStatus() == GoalStatus.COMPLETED) {
+                addCompletionMetrics(event, metrics);
+            }
+        }
+
+        return metrics;
+    }
+
+    private static void addCompletionMetrics(GoalEvent event, Set<CriteriaMetric> metrics) {
+        metrics.add(CriteriaMetric.GOALS_COMPLETED);
+        metrics.add(CriteriaMetric.FASTEST_COMPLETION_HOURS);
+        metrics.add(CriteriaMetric.LONGEST_STREAK);
+        metrics.add(CriteriaMetric.WEEKLY_STREAK);
+        if (event.getPriority() == GoalPriority.HIGH) {
+            metrics.add(CriteriaMetric.HIGH_PRIORITY_COMPLETED);
+        }
+        if (event.getTargetDate() != null) {
+            metrics.add(CriteriaMetric.EARLY_COMPLETIONS);
+        }
+    }
+}
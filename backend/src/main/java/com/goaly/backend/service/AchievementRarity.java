@@ -0,0 +1,151 @@
+package com.goaly.backend.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.goaly.backend.repository.AchievementRepository;
+import com.goaly.backend.repository.UserRepository;
+
+/**
+ * Share of users who have unlocked each achievement. Writes bump one random
+ * shard of the persistent counters inside the caller's transaction; reads
+ * only touch memory. Every few seconds the shards are summed and the
+ * resulting percentages published to readers, so every committed bump is
+ * counted exactly once, whichever instance made it. The fingerprint of the
+ * published percentages goes into the ETags of responses that carry rarity.
+ */
+@Component
+public class AchievementRarity {
+
+    private final AchievementRepository achievementRepository;
+    private final UserRepository userRepository;
+    private final int shards;
+
+    private volatile Published published = Published.of(Map.of());
+
+    @Autowired
+    public AchievementRarity(AchievementRepository achievementRepository, UserRepository userRepository,
+            @Value("${goaly.counters.shards:8}") int shards) {
+        this.achievementRepository = achievementRepository;
+        this.userRepository = userRepository;
+        this.shards = shards;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        publish();
+    }
+
+    /**
+     * Sum the counter shards and recompute the percentages served to
+     * readers, replacing the published ones only if any of them changed
+     */
+    @Scheduled(fixedDelayString = "${goaly.counters.publish-interval-ms:10000}")
+    public synchronized void publish() {
+        Map<Long, Long> unlockCounts = achievementRepository.loadUnlockCounts();
+        long users = userRepository.loadUserCount();
+        Map<Long, Double> percentages = new HashMap<>();
+        if (users > 0) {
+            unlockCounts.forEach((id, unlocks) -> percentages.put(id, Math.min(100.0, unlocks * 100.0 / users)));
+        }
+        if (!percentages.equals(published.percentages())) {
+            published = Published.of(percentages);
+        }
+    }
+
+    /**
+     * Percentage of users who have unlocked an achievement, as last published
+     */
+    public double percentUnlocked(Long achievementId) {
+        return published.percentages().getOrDefault(achievementId, 0.0);
+    }
+
+    /**
+     * Fingerprint of the published percentages, the same on every instance
+     * that publishes the same values. Read it before building a response so
+     * the response is never older than its ETag.
+     */
+    public long getVersion() {
+        return published.version();
+    }
+
+    /**
+     * Count one unlock of each of the given achievements
+     */
+    public void recordUnlocks(Collection<Long> achievementIds) {
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long achievementId : achievementIds) {
+            deltas.merge(achievementId, 1L, Long::sum);
+        }
+        addUnlockCounts(deltas);
+    }
+
+    /**
+     * Count several unlocks of one achievement
+     */
+    public void recordUnlocks(Long achievementId, long count) {
+        if (count > 0) {
+            addUnlockCounts(Map.of(achievementId, count));
+        }
+    }
+
+    public void recordUserCreated() {
+        addUserCount(1);
+    }
+
+    /**
+     * Remove a deleted user and the unlocks that cascade away with them
+     */
+    public void recordUserDeleted(Collection<Long> unlockedAchievementIds) {
+        addUserCount(-1);
+        Map<Long, Long> deltas = new HashMap<>();
+        for (Long achievementId : unlockedAchievementIds) {
+            deltas.merge(achievementId, -1L, Long::sum);
+        }
+        addUnlockCounts(deltas);
+    }
+
+    private void addUnlockCounts(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        achievementRepository.addUnlockCounts(deltas, randomShard());
+    }
+
+    private void addUserCount(long delta) {
+        userRepository.addUserCount(delta, randomShard());
+    }
+
+    private int randomShard() {
+        return ThreadLocalRandom.current().nextInt(shards);
+    }
+
+    /**
+     * Order-independent fingerprint of a set of percentages
+     */
+    static long fingerprint(Map<Long, Double> percentages) {
+        long fingerprint = 17;
+        for (Map.Entry<Long, Double> entry : new TreeMap<>(percentages).entrySet()) {
+            fingerprint = 31 * fingerprint + entry.getKey();
+            fingerprint = 31 * fingerprint + Double.doubleToLongBits(entry.getValue());
+        }
+        return fingerprint;
+    }
+
+    private record Published(long version, Map<Long, Double> percentages) {
+
+        static Published of(Map<Long, Double> percentages) {
+            return new Published(fingerprint(percentages), percentages);
+        }
+    }
+}
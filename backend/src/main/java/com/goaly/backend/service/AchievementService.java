@@ -2,17 +2,19 @@ package com.goaly.backend.service;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Collection;
+import java.util.EnumSet;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,14 +23,25 @@ import org.springframework.transaction.annotation.Transactional;
 import com.goaly.backend.controller.AchievementController.CreateAchievementRequest;
 import com.goaly.backend.controller.AchievementController.UpdateAchievementRequest;
 import com.goaly.backend.dto.AchievementDto;
+import com.goaly.backend.dto.LeaderboardDto;
+import com.goaly.backend.dto.LeaderboardEntryDto;
 import com.goaly.backend.dto.UserAchievementDto;
 import com.goaly.backend.entity.Achievement;
-import com.goaly.backend.entity.Goal;
+import com.goaly.backend.entity.User;
 import com.goaly.backend.entity.UserAchievement;
+import com.goaly.backend.entity.UserAchievementStats;
+import com.goaly.backend.event.AchievementCriteriaChangedEvent;
 import com.goaly.backend.exception.ResourceNotFoundException;
 import com.goaly.backend.repository.AchievementRepository;
 import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.repository.UnlockedAchievementRow;
 import com.goaly.backend.repository.UserAchievementRepository;
+import com.goaly.backend.repository.UserRepository;
+import com.goaly.backend.service.criteria.CriteriaCache;
+import com.goaly.backend.service.criteria.CriteriaContext;
+import com.goaly.backend.service.criteria.CriteriaMetric;
+import com.goaly.backend.service.criteria.CriteriaSql;
+import com.goaly.backend.service.criteria.StreakState;
 
 @Service
 @Transactional
@@ -37,14 +50,41 @@ public class AchievementService {
     private final AchievementRepository achievementRepository;
     private final UserAchievementRepository userAchievementRepository;
     private final GoalRepository goalRepository;
+    private final CriteriaCache criteriaCache;
+    private final AchievementCatalog catalog;
+    private final UnlockedAchievementCache unlockedCache;
+    private final UserAchievementStatsService statsService;
+    private final UserStreakService streakService;
+    private final PointsLeaderboard leaderboard;
+    private final AchievementRarity rarity;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public AchievementService(AchievementRepository achievementRepository,
             UserAchievementRepository userAchievementRepository,
-            GoalRepository goalRepository) {
+            GoalRepository goalRepository,
+            CriteriaCache criteriaCache,
+            AchievementCatalog catalog,
+            UnlockedAchievementCache unlockedCache,
+            UserAchievementStatsService statsService,
+            UserStreakService streakService,
+            PointsLeaderboard leaderboard,
+            AchievementRarity rarity,
+            UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher) {
         this.achievementRepository = achievementRepository;
         this.userAchievementRepository = userAchievementRepository;
         this.goalRepository = goalRepository;
+        this.criteriaCache = criteriaCache;
+        this.catalog = catalog;
+        this.unlockedCache = unlockedCache;
+        this.statsService = statsService;
+        this.streakService = streakService;
+        this.leaderboard = leaderboard;
+        this.rarity = rarity;
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -64,21 +104,41 @@ public class AchievementService {
      * Get achievement by ID
      */
     public AchievementDto getAchievementById(Long id) {
-        Achievement achievement = achievementRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Achievement not found with id: " + id));
-        return convertToDto(achievement);
+        return convertToDto(getCatalogEntry(id));
+    }
+
+    /**
+     * Get the full achievement catalog with its version
+     */
+    public AchievementCatalog.Snapshot getCatalog() {
+        return catalog.current();
+    }
+
+    /**
+     * Version of the rarity figures achievement responses carry
+     */
+    public long getRarityVersion() {
+        return rarity.getVersion();
+    }
+
+    /**
+     * Get every achievement in a catalog snapshot
+     */
+    public List<AchievementDto> getCatalogAchievements(AchievementCatalog.Snapshot snapshot) {
+        return snapshot.getAll().stream()
+                .map(this::convertToDto)
+                .collect(Collectors.toList());
     }
 
     /**
      * Get user's achievement progress (all achievements with status)
      */
     public List<UserAchievementDto> getUserAchievements(Long userId) {
-        List<Achievement> allAchievements = achievementRepository.findAll();
-        List<Long> unlockedAchievementIds = userAchievementRepository.findAchievementIdsByUserId(userId);
         List<UserAchievement> userAchievements = userAchievementRepository.findByUserId(userId);
 
         Map<Long, UserAchievement> userAchievementMap = userAchievements.stream()
                 .collect(Collectors.toMap(ua -> ua.getAchievement().getId(), ua -> ua));
+        List<AchievementCatalog.Entry> allAchievements = snapshotCovering(userAchievementMap.keySet()).getAll();
 
         return allAchievements.stream()
                 .map(achievement -> {
@@ -87,13 +147,11 @@ public class AchievementService {
                     LocalDateTime unlockedAt = null;
                     Long userAchievementId = null;
 
-                    if (unlockedAchievementIds.contains(achievement.getId())) {
+                    if (userAchievement != null) {
                         status = "unlocked";
-                        if (userAchievement != null) {
-                            unlockedAt = userAchievement.getUnlockedAt();
-                            userAchievementId = userAchievement.getId();
-                        }
-                    } else if (achievement.getIsHidden()) {
+                        unlockedAt = userAchievement.getUnlockedAt();
+                        userAchievementId = userAchievement.getId();
+                    } else if (achievement.isHidden()) {
                         status = "hidden";
                     } else {
                         status = "locked";
@@ -116,11 +174,15 @@ public class AchievementService {
      */
     public List<UserAchievementDto> getUserUnlockedAchievements(Long userId) {
         List<UserAchievement> userAchievements = userAchievementRepository.findByUserIdOrderByUnlockedAtDesc(userId);
+        AchievementCatalog.Snapshot snapshot = snapshotCovering(userAchievements.stream()
+                .map(ua -> ua.getAchievement().getId())
+                .collect(Collectors.toList()));
         return userAchievements.stream()
+                .filter(ua -> snapshot.get(ua.getAchievement().getId()) != null)
                 .map(ua -> new UserAchievementDto(
                 ua.getId(),
                 ua.getUserId(),
-                convertToDto(ua.getAchievement()),
+                convertToDto(snapshot.get(ua.getAchievement().getId())),
                 "unlocked",
                 ua.getUnlockedAt(),
                 ua.getCreatedAt()
@@ -132,12 +194,12 @@ public class AchievementService {
      * Get user's achievements by category
      */
     public List<UserAchievementDto> getUserAchievementsByCategory(Long userId, String category) {
-        List<Achievement> categoryAchievements = achievementRepository.findByCategory(category);
-        List<Long> unlockedAchievementIds = userAchievementRepository.findAchievementIdsByUserId(userId);
         List<UserAchievement> userAchievements = userAchievementRepository.findByUserIdAndAchievementCategory(userId, category);
 
         Map<Long, UserAchievement> userAchievementMap = userAchievements.stream()
                 .collect(Collectors.toMap(ua -> ua.getAchievement().getId(), ua -> ua));
+        List<AchievementCatalog.Entry> categoryAchievements = snapshotCovering(userAchievementMap.keySet())
+                .getByCategory(category);
 
         return categoryAchievements.stream()
                 .map(achievement -> {
@@ -146,13 +208,11 @@ public class AchievementService {
                     LocalDateTime unlockedAt = null;
                     Long userAchievementId = null;
 
-                    if (unlockedAchievementIds.contains(achievement.getId())) {
+                    if (userAchievement != null) {
                         status = "unlocked";
-                        if (userAchievement != null) {
-                            unlockedAt = userAchievement.getUnlockedAt();
-                            userAchievementId = userAchievement.getId();
-                        }
-                    } else if (achievement.getIsHidden()) {
+                        unlockedAt = userAchievement.getUnlockedAt();
+                        userAchievementId = userAchievement.getId();
+                    } else if (achievement.isHidden()) {
                         status = "hidden";
                     } else {
                         status = "locked";
@@ -174,79 +234,203 @@ public class AchievementService {
      * Get user's achievement statistics
      */
     public Map<String, Object> getUserAchievementStats(Long userId) {
-        long totalAchievements = achievementRepository.count();
-        long unlockedCount = userAchievementRepository.countByUserId(userId);
-        Integer totalPoints = userAchievementRepository.getTotalPointsByUserId(userId);
+        AchievementCatalog.Snapshot snapshot = catalog.current();
+        long totalAchievements = snapshot.size();
+        UserAchievementStats userStats = statsService.getStats(userId);
+        long unlockedCount = userStats.getUnlockedCount();
 
-        // Get category breakdown
-        List<String> categories = achievementRepository.findDistinctCategories();
+        // Get category breakdown, including categories with nothing unlocked yet
         Map<String, Long> categoryStats = new HashMap<>();
-
-        for (String category : categories) {
-            List<UserAchievement> categoryAchievements = userAchievementRepository.findByUserIdAndAchievementCategory(userId, category);
-            categoryStats.put(category, (long) categoryAchievements.size());
+        for (String category : snapshot.getCategories()) {
+            categoryStats.put(category, (long) userStats.getCategoryCounts().getOrDefault(category, 0));
         }
 
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalAchievements", totalAchievements);
         stats.put("unlockedCount", unlockedCount);
         stats.put("lockedCount", totalAchievements - unlockedCount);
-        stats.put("totalPoints", totalPoints != null ? totalPoints : 0);
+        stats.put("totalPoints", userStats.getTotalPoints());
         stats.put("completionPercentage", totalAchievements > 0 ? (double) unlockedCount / totalAchievements * 100 : 0);
         stats.put("categoryBreakdown", categoryStats);
 
         return stats;
     }
 
+    /**
+     * Get a page of the points leaderboard, globally or for one category
+     */
+    @Transactional(readOnly = true)
+    public LeaderboardDto getLeaderboard(String category, int offset, int limit) {
+        List<RankIndex.Ranked> ranked = leaderboard.top(category, offset, limit);
+        Map<Long, String> names = userRepository.findAllById(ranked.stream()
+                .map(RankIndex.Ranked::userId)
+                .collect(Collectors.toList()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, user -> user.getName() != null ? user.getName() : ""));
+        List<LeaderboardEntryDto> entries = ranked.stream()
+                .map(entry -> new LeaderboardEntryDto(entry.rank(), entry.userId(), names.get(entry.userId()),
+                        entry.score()))
+                .collect(Collectors.toList());
+        return new LeaderboardDto(category, leaderboard.size(category), offset, entries);
+    }
+
+    /**
+     * Get a user's leaderboard position; users without points are ranked last
+     */
+    @Transactional(readOnly = true)
+    public LeaderboardEntryDto getLeaderboardRank(Long userId, String category) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
+        RankIndex.Ranked ranked = leaderboard.rankOf(category, userId);
+        if (ranked == null) {
+            return new LeaderboardEntryDto(leaderboard.size(category) + 1, userId, user.getName(), 0);
+        }
+        return new LeaderboardEntryDto(ranked.rank(), userId, user.getName(), ranked.score());
+    }
+
     /**
      * Check and unlock achievements for a user based on their current progress
      */
     public List<UserAchievementDto> checkAndUnlockAchievements(Long userId) {
-        List<UserAchievementDto> newlyUnlocked = new ArrayList<>();
-        List<Achievement> allAchievements = achievementRepository.findAll();
-        List<Long> unlockedAchievementIds = userAchievementRepository.findAchievementIdsByUserId(userId);
-
-        for (Achievement achievement : allAchievements) {
-            if (!unlockedAchievementIds.contains(achievement.getId())) {
-                if (checkAchievementCriteria(userId, achievement)) {
-                    UserAchievementDto newAchievement = unlockAchievementForUser(userId, achievement.getId());
-                    newlyUnlocked.add(newAchievement);
+        return checkAndUnlock(userId, catalog.current().getAll());
+    }
+
+    /**
+     * Check and unlock only the achievements whose criteria read one of the
+     * given metrics
+     */
+    public List<UserAchievementDto> checkAndUnlockAchievements(Long userId, Set<CriteriaMetric> affectedMetrics) {
+        if (affectedMetrics.isEmpty()) {
+            return List.of();
+        }
+        AchievementCatalog.Snapshot snapshot = catalog.current();
+        Set<AchievementCatalog.Entry> candidates = new LinkedHashSet<>();
+        for (CriteriaMetric metric : affectedMetrics) {
+            candidates.addAll(snapshot.getByMetric(metric));
+        }
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        return checkAndUnlock(userId, candidates);
+    }
+
+    private List<UserAchievementDto> checkAndUnlock(Long userId, Collection<AchievementCatalog.Entry> achievements) {
+        UnlockedAchievementSet unlocked = unlockedCache.get(userId);
+
+        List<AchievementCatalog.Entry> locked = achievements.stream()
+                .filter(achievement -> !unlocked.contains(achievement.getOrdinal()))
+                .collect(Collectors.toList());
+        if (locked.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        // Rules with a SQL form are evaluated together in one aggregate query
+        List<AchievementCatalog.Entry> sqlRules = new ArrayList<>();
+        List<AchievementCatalog.Entry> javaRules = new ArrayList<>();
+        for (AchievementCatalog.Entry achievement : locked) {
+            (achievement.getCriteria().getSqlCondition() != null ? sqlRules : javaRules).add(achievement);
+        }
+
+        Map<Long, AchievementCatalog.Entry> earned = new HashMap<>();
+        if (!sqlRules.isEmpty()) {
+            boolean[] results = goalRepository.evaluateConditions(userId, sqlRules.stream()
+                    .map(achievement -> achievement.getCriteria().getSqlCondition())
+                    .collect(Collectors.toList()));
+            for (int i = 0; i < results.length; i++) {
+                if (results[i]) {
+                    earned.put(sqlRules.get(i).getId(), sqlRules.get(i));
+                }
+            }
+        }
+        if (!javaRules.isEmpty()) {
+            CriteriaContext context = javaRuleContext(userId, javaRules);
+            for (AchievementCatalog.Entry achievement : javaRules) {
+                if (achievement.getCriteria().test(context)) {
+                    earned.put(achievement.getId(), achievement);
                 }
             }
         }
 
-        return newlyUnlocked;
+        return unlockAll(userId, earned);
+    }
+
+    /**
+     * Metric values for rules that read streaks. Streaks come from the
+     * persisted tracker and any other metric the rules read from one
+     * aggregate over the user's goals, so the goal history is not scanned.
+     */
+    private CriteriaContext javaRuleContext(Long userId, List<AchievementCatalog.Entry> rules) {
+        LocalDate today = LocalDate.now();
+        StreakState streak = streakService.getState(userId);
+        if (streak == null) {
+            // No tracker row: either nothing completed yet or not backfilled, so fold the history
+            return goalRepository.loadSnapshots(List.of(userId), Map.of(), today).get(userId);
+        }
+        Set<CriteriaMetric> aggregated = EnumSet.noneOf(CriteriaMetric.class);
+        for (AchievementCatalog.Entry rule : rules) {
+            for (CriteriaMetric metric : rule.getCriteria().getMetrics()) {
+                if (CriteriaSql.hasAggregate(metric)) {
+                    aggregated.add(metric);
+                }
+            }
+        }
+        Map<CriteriaMetric, Long> values = goalRepository.aggregateMetrics(userId, aggregated);
+        long longestStreak = streak.getBestStreak();
+        long weeklyStreak = streak.weeklyStreak(today.toEpochDay());
+        return metric -> switch (metric) {
+            case LONGEST_STREAK -> longestStreak;
+            case WEEKLY_STREAK -> weeklyStreak;
+            default -> values.getOrDefault(metric, 0L);
+        };
     }
 
     /**
      * Manually unlock an achievement for a user
      */
     public UserAchievementDto unlockAchievementForUser(Long userId, Long achievementId) {
-        // Check if already unlocked
-        if (userAchievementRepository.existsByUserIdAndAchievementId(userId, achievementId)) {
+        AchievementCatalog.Entry achievement = getCatalogEntry(achievementId);
+
+        List<UserAchievementDto> unlocked = unlockAll(userId, Map.of(achievementId, achievement));
+        if (unlocked.isEmpty()) {
             throw new IllegalStateException("Achievement already unlocked for user");
         }
+        return unlocked.get(0);
+    }
 
-        Achievement achievement = achievementRepository.findById(achievementId)
-                .orElseThrow(() -> new ResourceNotFoundException("Achievement not found with id: " + achievementId));
-
-        UserAchievement userAchievement = new UserAchievement(userId, achievement);
-        userAchievement = userAchievementRepository.save(userAchievement);
-
-        return new UserAchievementDto(
-                userAchievement.getId(),
+    /**
+     * Insert unlock rows for all earned achievements in one statement. Rows a
+     * concurrent check already inserted are skipped rather than failing the
+     * transaction, and only the rows actually inserted are returned.
+     */
+    private List<UserAchievementDto> unlockAll(Long userId, Map<Long, AchievementCatalog.Entry> earned) {
+        if (earned.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UnlockedAchievementRow> inserted = userAchievementRepository.insertUnlocks(userId, earned.keySet());
+        // Rows skipped as conflicts are unlocked too, so mark every earned id
+        unlockedCache.markUnlocked(userId, earned.keySet());
+        statsService.recordUnlocks(userId, inserted.stream()
+                .map(row -> earned.get(row.achievementId()))
+                .collect(Collectors.toList()));
+
+        return inserted.stream()
+                .map(row -> new UserAchievementDto(
+                row.id(),
                 userId,
-                convertToDto(achievement),
+                convertToDto(earned.get(row.achievementId())),
                 "unlocked",
-                userAchievement.getUnlockedAt(),
-                userAchievement.getCreatedAt()
-        );
+                row.unlockedAt(),
+                row.createdAt()
+        ))
+                .collect(Collectors.toList());
     }
 
     /**
      * Create new achievement
      */
     public AchievementDto createAchievement(CreateAchievementRequest request) {
+        criteriaCache.validate(request.getCriteria());
+
         Achievement achievement = new Achievement(
                 request.getName(),
                 request.getDescription(),
@@ -258,6 +442,9 @@ public class AchievementService {
         );
 
         achievement = achievementRepository.save(achievement);
+        criteriaCache.reload(achievement);
+        catalog.reloadAfterCommit();
+        eventPublisher.publishEvent(new AchievementCriteriaChangedEvent(achievement.getId()));
         return convertToDto(achievement);
     }
 
@@ -267,6 +454,8 @@ public class AchievementService {
     public AchievementDto updateAchievement(Long id, UpdateAchievementRequest request) {
         Achievement achievement = achievementRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Achievement not found with id: " + id));
+        Integer previousPoints = achievement.getPoints();
+        String previousCategory = achievement.getCategory();
 
         if (request.getName() != null) {
             achievement.setName(request.getName());
@@ -289,8 +478,24 @@ public class AchievementService {
         if (request.getIsHidden() != null) {
             achievement.setIsHidden(request.getIsHidden());
         }
+        if (request.getCriteria() != null) {
+            criteriaCache.validate(request.getCriteria());
+        } else if (request.getName() != null) {
+            criteriaCache.validateRename(achievement.getName(), achievement.getCriteria());
+        }
 
-        achievement = achievementRepository.save(achievement);
+        // Flush so updatedAt is current before the compiled criteria is keyed on it
+        achievement = achievementRepository.saveAndFlush(achievement);
+        criteriaCache.reload(achievement);
+        catalog.reloadAfterCommit();
+        if (!Objects.equals(previousPoints, achievement.getPoints())
+                || !Objects.equals(previousCategory, achievement.getCategory())) {
+            // Registered after the catalog reload so the leaderboard rebuild reads the new points
+            statsService.recordAchievementChanged(achievement.getId());
+        }
+        if (request.getName() != null || request.getCriteria() != null) {
+            eventPublisher.publishEvent(new AchievementCriteriaChangedEvent(achievement.getId()));
+        }
         return convertToDto(achievement);
     }
 
@@ -298,152 +503,73 @@ public class AchievementService {
      * Delete achievement
      */
     public void deleteAchievement(Long id) {
-        if (!achievementRepository.existsById(id)) {
+        // With concurrent unlocks held off, every unlock that cascades away is subtracted first
+        if (!achievementRepository.lockAchievement(id)) {
             throw new ResourceNotFoundException("Achievement not found with id: " + id);
         }
-        achievementRepository.deleteById(id);
+        statsService.recordAchievementDeleted(id);
+        achievementRepository.deleteAchievement(id);
+        criteriaCache.evict(id);
+        catalog.reloadAfterCommit();
+        // Unlocks of the deleted achievement cascade away, so re-rank everyone
+        leaderboard.rebuildAfterCommit();
     }
 
     /**
      * Get all achievement categories
      */
     public List<String> getAchievementCategories() {
-        return achievementRepository.findDistinctCategories();
+        return catalog.current().getCategories();
     }
 
     /**
-     * Check if user meets criteria for a specific achievement
+     * The catalog snapshot to resolve a user's unlock rows against. A row for
+     * an achievement missing locally means another instance changed the
+     * catalog, so reload once; rows still missing after that are skipped.
      */
-    private boolean checkAchievementCriteria(Long userId, Achievement achievement) {
-        List<Goal> userGoals = goalRepository.findByUserId(userId);
-        List<Goal> completedGoals = userGoals.stream()
-                .filter(goal -> Goal.GoalStatus.COMPLETED.equals(goal.getStatus()))
-                .collect(Collectors.toList());
-
-        switch (achievement.getName()) {
-            case "First Steps":
-                return !userGoals.isEmpty();
-
-            case "Goal Crusher":
-                return !completedGoals.isEmpty();
-
-            case "Overachiever":
-                return completedGoals.size() >= 10;
-
-            case "Century Club":
-                return completedGoals.size() >= 100;
-
-            case "Planning Pro":
-                return userGoals.stream()
-                        .filter(goal -> goal.getTargetDate() != null)
-                        .count() >= 5;
-
-            case "Priority Master":
-                return completedGoals.stream()
-                        .filter(goal -> Goal.GoalPriority.HIGH.equals(goal.getPriority()))
-                        .count() >= 5;
-
-            case "Speed Demon":
-                return completedGoals.stream()
-                        .anyMatch(goal -> goal.getCompletionDate() != null
-                        && goal.getCreatedAt() != null
-                        && ChronoUnit.HOURS.between(goal.getCreatedAt(), goal.getCompletionDate().atStartOfDay()) <= 24);
-
-            case "Early Bird":
-                return completedGoals.stream()
-                        .anyMatch(goal -> goal.getCompletionDate() != null
-                        && goal.getTargetDate() != null
-                        && goal.getCompletionDate().isBefore(goal.getTargetDate()));
-
-            case "Streak Master":
-                return checkGoalStreak(completedGoals, 5);
-
-            case "Consistency King":
-                return checkWeeklyConsistency(completedGoals, 4);
-
-            default:
-                return false;
+    private AchievementCatalog.Snapshot snapshotCovering(Collection<Long> achievementIds) {
+        AchievementCatalog.Snapshot snapshot = catalog.current();
+        for (Long achievementId : achievementIds) {
+            if (snapshot.get(achievementId) == null) {
+                return catalog.reload();
+            }
         }
+        return snapshot;
     }
 
-    /**
-     * Check if user has completed goals in a streak
-     */
-    private boolean checkGoalStreak(List<Goal> completedGoals, int requiredStreak) {
-        if (completedGoals.size() < requiredStreak) {
-            return false;
-        }
-
-        // Sort by completion date
-        List<Goal> sortedGoals = completedGoals.stream()
-                .filter(goal -> goal.getCompletionDate() != null)
-                .sorted(Comparator.comparing(Goal::getCompletionDate))
-                .collect(Collectors.toList());
-
-        if (sortedGoals.size() < requiredStreak) {
-            return false;
-        }
-
-        // Check for consecutive completions (allowing some flexibility)
-        int currentStreak = 1;
-        for (int i = 1; i < sortedGoals.size(); i++) {
-            LocalDate prevDate = sortedGoals.get(i - 1).getCompletionDate();
-            LocalDate currentDate = sortedGoals.get(i).getCompletionDate();
-
-            // Allow up to 7 days between completions to count as a streak
-            if (ChronoUnit.DAYS.between(prevDate, currentDate) <= 7) {
-                currentStreak++;
-                if (currentStreak >= requiredStreak) {
-                    return true;
-                }
-            } else {
-                currentStreak = 1;
-            }
+    private AchievementCatalog.Entry getCatalogEntry(Long id) {
+        AchievementCatalog.Entry entry = catalog.current().get(id);
+        if (entry == null) {
+            throw new ResourceNotFoundException("Achievement not found with id: " + id);
         }
-
-        return currentStreak >= requiredStreak;
+        return entry;
     }
 
     /**
-     * Check if user has completed at least one goal every week for the
-     * specified number of weeks
+     * Convert catalog entry to DTO
      */
-    private boolean checkWeeklyConsistency(List<Goal> completedGoals, int requiredWeeks) {
-        if (completedGoals.isEmpty()) {
-            return false;
-        }
-
-        // Get completion dates from the last requiredWeeks weeks
-        LocalDate now = LocalDate.now();
-        LocalDate startDate = now.minusWeeks(requiredWeeks);
-
-        List<LocalDate> recentCompletions = completedGoals.stream()
-                .filter(goal -> goal.getCompletionDate() != null)
-                .map(Goal::getCompletionDate)
-                .filter(date -> !date.isBefore(startDate))
-                .collect(Collectors.toList());
-
-        if (recentCompletions.isEmpty()) {
-            return false;
-        }
-
-        // Check if there's at least one completion in each of the last requiredWeeks weeks
-        Set<Integer> weeksWithCompletions = new HashSet<>();
-        for (LocalDate completionDate : recentCompletions) {
-            long weeksBetween = ChronoUnit.WEEKS.between(completionDate, now);
-            if (weeksBetween >= 0 && weeksBetween < requiredWeeks) {
-                weeksWithCompletions.add((int) weeksBetween);
-            }
-        }
-
-        return weeksWithCompletions.size() >= requiredWeeks;
+    private AchievementDto convertToDto(AchievementCatalog.Entry achievement) {
+        AchievementDto dto = new AchievementDto(
+                achievement.getId(),
+                achievement.getName(),
+                achievement.getDescription(),
+                achievement.getCriteriaText(),
+                achievement.getIcon(),
+                achievement.getPoints(),
+                achievement.getCategory(),
+                achievement.isHidden(),
+                achievement.getCreatedAt(),
+                achievement.getUpdatedAt()
+        );
+        dto.setRarity(rarity.percentUnlocked(achievement.getId()));
+        return dto;
     }
 
     /**
      * Convert Achievement entity to DTO
      */
     private AchievementDto convertToDto(Achievement achievement) {
-        return new AchievementDto(
+        AchievementDto dto = new AchievementDto(
                 achievement.getId(),
                 achievement.getName(),
                 achievement.getDescription(),
@@ -455,5 +581,7 @@ public class AchievementService {
                 achievement.getCreatedAt(),
                 achievement.getUpdatedAt()
         );
+        dto.setRarity(rarity.percentUnlocked(achievement.getId()));
+        return dto;
     }
 }
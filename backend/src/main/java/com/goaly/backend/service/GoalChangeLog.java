@@ -0,0 +1,159 @@
+package com.goaly.backend.service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.goaly.backend.event.GoalCompletedEvent;
+import com.goaly.backend.event.GoalCreatedEvent;
+import com.goaly.backend.event.GoalDeletedEvent;
+import com.goaly.backend.event.GoalEvent;
+import com.goaly.backend.repository.GoalChange;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.repository.UserRepository;
+
+/**
+ * Appends every goal event to goal_change_log. Changes are collected per
+ * transaction; as it commits each user gets a run of sequence numbers in one
+ * statement and the records go out as one JDBC batch. Also keeps monthly
+ * partitions created ahead of time and drops those past retention.
+ */
+@Component
+public class GoalChangeLog {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalChangeLog.class);
+
+    private final GoalRepository goalRepository;
+    private final UserRepository userRepository;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    @Autowired
+    public GoalChangeLog(GoalRepository goalRepository, UserRepository userRepository,
+            @Value("${goaly.changelog.months-ahead:2}") int monthsAhead,
+            @Value("${goaly.changelog.retention-months:12}") int retentionMonths) {
+        this.goalRepository = goalRepository;
+        this.userRepository = userRepository;
+        this.monthsAhead = monthsAhead;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener
+    public void onGoalEvent(GoalEvent event) {
+        GoalChange.Type type;
+        if (event instanceof GoalCreatedEvent) {
+            type = GoalChange.Type.CREATED;
+        } else if (event instanceof GoalCompletedEvent) {
+            type = GoalChange.Type.COMPLETED;
+        } else if (event instanceof GoalDeletedEvent) {
+            type = GoalChange.Type.DELETED;
+        } else {
+            type = GoalChange.Type.UPDATED;
+        }
+        GoalChange change = new GoalChange(event.getUserId(), 0, event.getGoalId(), type, event.getStatus(),
+                event.getPriority(), event.getTargetDate(),
+                event instanceof GoalCompletedEvent completed ? completed.getCompletionDate() : null,
+                LocalDateTime.now());
+        append(change);
+    }
+
+    /**
+     * Log a change made by the current transaction; its sequence number is
+     * ignored and assigned as the transaction commits
+     */
+    public void append(GoalChange change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges pending = new PendingChanges();
+            pending.changes.add(change);
+            pending.beforeCommit(false);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending) {
+                pending.changes.add(change);
+                return;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        pending.changes.add(change);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * Create partitions from this month to {@code months-ahead} months out
+     * and drop those wholly older than the retention period. Dropping a
+     * partition removes its month without touching other rows.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${goaly.changelog.partition-cron:0 15 0 * * *}")
+    public void maintainPartitions() {
+        YearMonth current = YearMonth.now();
+        List<YearMonth> existing = goalRepository.findChangeLogPartitions();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                goalRepository.createChangeLogPartition(month);
+                log.info("Created goal change log partition for {}", month);
+            }
+        }
+        if (retentionMonths <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retentionMonths);
+        for (YearMonth month : existing) {
+            if (month.isBefore(oldestKept)) {
+                goalRepository.dropChangeLogPartition(month);
+                log.info("Dropped goal change log partition for {}", month);
+            }
+        }
+    }
+
+    /**
+     * Changes made by one transaction, numbered and written as it commits
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final List<GoalChange> changes = new ArrayList<>();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Sorted so concurrent commits lock sequence rows in the same order
+            Map<Long, Integer> counts = new TreeMap<>();
+            for (GoalChange change : changes) {
+                counts.merge(change.userId(), 1, Integer::sum);
+            }
+            Map<Long, Long> lastSeqs = userRepository.allocateChangeSeqs(counts);
+
+            // Number each user's changes in the order they were made, ending at the reserved last number
+            Map<Long, Long> nextSeqs = new TreeMap<>();
+            lastSeqs.forEach((userId, lastSeq) -> nextSeqs.put(userId, lastSeq - counts.get(userId) + 1));
+            List<GoalChange> numbered = new ArrayList<>(changes.size());
+            for (GoalChange change : changes) {
+                Long seq = nextSeqs.get(change.userId());
+                if (seq == null) {
+                    // The owner was deleted in the same transaction
+                    continue;
+                }
+                nextSeqs.put(change.userId(), seq + 1);
+                numbered.add(new GoalChange(change.userId(), seq, change.goalId(), change.type(), change.status(),
+                        change.priority(), change.targetDate(), change.completionDate(), change.changedAt()));
+            }
+            changes.clear();
+            goalRepository.appendChanges(numbered);
+        }
+    }
+}
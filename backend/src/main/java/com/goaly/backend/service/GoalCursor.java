@@ -0,0 +1,105 @@
+package com.goaly.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.GoalSortMode;
+
+/**
+ * Position in a keyset-paged goal list: the sort it was read in plus the sort
+ * key and id of the last goal returned. Clients only ever see the encoded
+ * form. The key goes last so it may contain the separator, and is left out
+ * entirely when it was null.
+ */
+final class GoalCursor {
+
+    private static final String VERSION = "1";
+
+    private final GoalSortMode sort;
+    private final boolean descending;
+    private final Object key;
+    private final Long id;
+
+    GoalCursor(GoalSortMode sort, boolean descending, Object key, Long id) {
+        this.sort = sort;
+        this.descending = descending;
+        this.key = key;
+        this.id = id;
+    }
+
+    /**
+     * Cursor pointing just past the given goal
+     */
+    static GoalCursor after(GoalDto goal, GoalSortMode sort, boolean descending) {
+        return new GoalCursor(sort, descending, keyOf(goal, sort), goal.getId());
+    }
+
+    static GoalCursor decode(String encoded) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", 5);
+            if (parts.length < 4 || !VERSION.equals(parts[0])) {
+                throw new ValidationException("Invalid cursor");
+            }
+            GoalSortMode sort = GoalSortMode.valueOf(parts[1]);
+            Object key = parts.length == 5 ? parseKey(sort, parts[4]) : null;
+            if (key == null && !sort.isNullable()) {
+                throw new ValidationException("Invalid cursor");
+            }
+            return new GoalCursor(sort, "d".equals(parts[2]), key, Long.valueOf(parts[3]));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    String encode() {
+        String raw = String.join("|", VERSION, sort.name(), descending ? "d" : "a", String.valueOf(id));
+        if (key != null) {
+            raw += "|" + key;
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    GoalSortMode getSort() {
+        return sort;
+    }
+
+    boolean isDescending() {
+        return descending;
+    }
+
+    Object getKey() {
+        return key;
+    }
+
+    Long getId() {
+        return id;
+    }
+
+    private static Object keyOf(GoalDto goal, GoalSortMode sort) {
+        return switch (sort) {
+            case CREATED -> goal.getCreatedAt();
+            case UPDATED -> goal.getUpdatedAt();
+            case TARGET_DATE -> goal.getTargetDate();
+            // Matches the generated priority_rank column
+            case PRIORITY -> goal.getPriority().ordinal();
+            case STATUS -> goal.getStatus().name();
+            case TITLE -> goal.getTitle();
+        };
+    }
+
+    private static Object parseKey(GoalSortMode sort, String value) {
+        return switch (sort) {
+            case CREATED, UPDATED -> LocalDateTime.parse(value);
+            case TARGET_DATE -> LocalDate.parse(value);
+            case PRIORITY -> GoalPriority.values()[Integer.parseInt(value)].ordinal();
+            case STATUS, TITLE -> value;
+        };
+    }
+}
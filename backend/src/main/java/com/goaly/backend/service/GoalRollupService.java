@@ -0,0 +1,297 @@
+package com.goaly.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.dto.GoalAnalyticsDto;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.entity.Goal;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.repository.GoalRollupDay;
+import com.goaly.backend.repository.UserRepository;
+
+/**
+ * Maintains the goal_daily_rollup rows behind goal analytics. Goal changes
+ * record how a goal's contribution moved; the changes of one transaction are
+ * summed per (user, day) and written in one statement just before it
+ * commits. Analytics read a single range of a user's rows.
+ */
+@Service
+public class GoalRollupService {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalRollupService.class);
+
+    private static final int MAX_RANGE_DAYS = 731;
+    private static final int MAX_WINDOW_DAYS = 365;
+
+    private static final Comparator<RollupKey> KEY_ORDER = Comparator.comparing(RollupKey::userId)
+            .thenComparing(RollupKey::day);
+
+    private final GoalRepository goalRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor backgroundExecutor;
+    private final long rebuildChunkSize;
+
+    @Autowired
+    public GoalRollupService(GoalRepository goalRepository,
+            UserRepository userRepository,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("backfillExecutor") TaskExecutor backgroundExecutor,
+            @Value("${goaly.rollups.rebuild-chunk-size:10000}") long rebuildChunkSize) {
+        this.goalRepository = goalRepository;
+        this.userRepository = userRepository;
+        this.backgroundExecutor = backgroundExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    /**
+     * Record that a goal's contribution changed as part of the current
+     * transaction
+     *
+     * @param before the contribution it replaced, or null for a new goal
+     * @param after its contribution now, or null for a deleted goal
+     */
+    public void record(Long userId, Contribution before, Contribution after) {
+        PendingRollups pending = pending();
+        if (before != null) {
+            pending.add(userId, before, -1);
+        }
+        if (after != null) {
+            pending.add(userId, after, 1);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pending.beforeCommit(false);
+        }
+    }
+
+    /**
+     * A user's goal analytics for days between two dates inclusive, with
+     * completion rates over a trailing window of {@code windowDays}
+     */
+    @Transactional(readOnly = true)
+    public GoalAnalyticsDto getAnalytics(Long userId, LocalDate from, LocalDate to, int windowDays) {
+        if (from.isAfter(to)) {
+            throw new ValidationException("from must not be after to");
+        }
+        if (ChronoUnit.DAYS.between(from, to) >= MAX_RANGE_DAYS) {
+            throw new ValidationException("Analytics cover at most " + MAX_RANGE_DAYS + " days");
+        }
+        if (windowDays < 1 || windowDays > MAX_WINDOW_DAYS) {
+            throw new ValidationException("window must be between 1 and " + MAX_WINDOW_DAYS + " days");
+        }
+
+        // One scan covers the range plus the window leading into its first day
+        LocalDate scanFrom = from.minusDays(windowDays - 1);
+        return analyze(userId, from, to, windowDays, goalRepository.findRollups(userId, scanFrom, to));
+    }
+
+    /**
+     * Fold a user's rollup rows into analytics. The rows cover the range plus
+     * the {@code windowDays - 1} days before it, in day order.
+     */
+    static GoalAnalyticsDto analyze(Long userId, LocalDate from, LocalDate to, int windowDays,
+            List<GoalRollupDay> rows) {
+        LocalDate scanFrom = from.minusDays(windowDays - 1);
+        int length = (int) ChronoUnit.DAYS.between(scanFrom, to) + 1;
+        int[] completed = new int[length + 1];
+        int[] cancelled = new int[length + 1];
+        GoalAnalyticsDto analytics = new GoalAnalyticsDto(userId, from, to, windowDays);
+        List<GoalAnalyticsDto.Day> heatmap = new ArrayList<>();
+        int created = 0;
+        int completedTotal = 0;
+        int cancelledTotal = 0;
+        long completionHours = 0;
+        for (GoalRollupDay row : rows) {
+            int index = (int) ChronoUnit.DAYS.between(scanFrom, row.day());
+            completed[index + 1] = row.completed();
+            cancelled[index + 1] = row.cancelled();
+            if (row.day().isBefore(from)
+                    || row.created() == 0 && row.completed() == 0 && row.cancelled() == 0) {
+                continue;
+            }
+            heatmap.add(new GoalAnalyticsDto.Day(row.day(), row.created(), row.completed(), row.cancelled()));
+            created += row.created();
+            completedTotal += row.completed();
+            cancelledTotal += row.cancelled();
+            completionHours += row.completionHours();
+        }
+
+        // Prefix sums make each window total a subtraction
+        for (int i = 1; i <= length; i++) {
+            completed[i] += completed[i - 1];
+            cancelled[i] += cancelled[i - 1];
+        }
+        List<GoalAnalyticsDto.RatePoint> rates = new ArrayList<>();
+        for (int end = windowDays; end <= length; end++) {
+            int windowCompleted = completed[end] - completed[end - windowDays];
+            int windowCancelled = cancelled[end] - cancelled[end - windowDays];
+            rates.add(new GoalAnalyticsDto.RatePoint(scanFrom.plusDays(end - 1), windowCompleted, windowCancelled,
+                    completionRate(windowCompleted, windowCancelled)));
+        }
+
+        analytics.setCreated(created);
+        analytics.setCompleted(completedTotal);
+        analytics.setCancelled(cancelledTotal);
+        analytics.setCompletionRate(completionRate(completedTotal, cancelledTotal));
+        analytics.setAverageHoursToComplete(completedTotal > 0 ? (double) completionHours / completedTotal : null);
+        analytics.setHeatmap(heatmap);
+        analytics.setRollingCompletionRates(rates);
+        return analytics;
+    }
+
+    /**
+     * Run {@link #rebuildAll()} in the background
+     */
+    public void startRebuild() {
+        backgroundExecutor.execute(this::rebuildAll);
+    }
+
+    /**
+     * Recompute every user's rollup rows from goals, one id range per
+     * transaction
+     *
+     * @return number of rollup rows written
+     */
+    @Scheduled(cron = "${goaly.rollups.rebuild-cron:0 30 4 * * *}")
+    public long rebuildAll() {
+        Long maxUserId = userRepository.findMaxId();
+        if (maxUserId == null) {
+            return 0;
+        }
+        long rebuilt = 0;
+        for (long start = 0; start < maxUserId; start += rebuildChunkSize) {
+            long afterId = start;
+            long untilId = Math.min(start + rebuildChunkSize, maxUserId);
+            Integer rows = transactionTemplate.execute(status -> goalRepository.rebuildRollupRange(afterId, untilId));
+            rebuilt += rows != null ? rows : 0;
+        }
+        log.info("Rebuilt {} goal rollup rows", rebuilt);
+        return rebuilt;
+    }
+
+    private static Double completionRate(int completed, int cancelled) {
+        return completed + cancelled > 0 ? (double) completed / (completed + cancelled) : null;
+    }
+
+    private PendingRollups pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new PendingRollups();
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingRollups pending) {
+                return pending;
+            }
+        }
+        PendingRollups pending = new PendingRollups();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        return pending;
+    }
+
+    /**
+     * What one goal adds to its owner's rollup rows. It counts as created on
+     * its creation day, completed on its completion day while completed and
+     * cancelled on its cancellation day while cancelled.
+     */
+    public record Contribution(LocalDate createdDay, LocalDate completedDay, LocalDate cancelledDay,
+            long completionHours) {
+
+        public static Contribution of(Goal goal) {
+            return of(goal.getStatus(), goal.getCreatedAt(), goal.getCompletionDate(), goal.getCancellationDate());
+        }
+
+        public static Contribution of(GoalDto goal) {
+            return of(goal, goal.getStatus());
+        }
+
+        /**
+         * A goal as it was while it had another status. Completion and
+         * cancellation dates are only set on entering those statuses, so the
+         * current dates still describe the earlier state.
+         */
+        public static Contribution of(GoalDto goal, GoalStatus status) {
+            return of(status, goal.getCreatedAt(), goal.getCompletionDate(), goal.getCancellationDate());
+        }
+
+        private static Contribution of(GoalStatus status, LocalDateTime createdAt, LocalDate completionDate,
+                LocalDate cancellationDate) {
+            LocalDate completedDay = status == GoalStatus.COMPLETED ? completionDate : null;
+            // Whole hours to the start of the completion day, as in the achievement criteria
+            long hours = completedDay != null && createdAt != null
+                    ? Math.max(ChronoUnit.HOURS.between(createdAt, completedDay.atStartOfDay()), 0)
+                    : 0;
+            return new Contribution(createdAt != null ? createdAt.toLocalDate() : null, completedDay,
+                    status == GoalStatus.CANCELLED ? cancellationDate : null, hours);
+        }
+    }
+
+    private record RollupKey(Long userId, LocalDate day) {
+    }
+
+    /**
+     * Rollup changes of one transaction, summed per (user, day) and written
+     * as it commits. Keys are kept in order so concurrent writers lock rows
+     * in the same order.
+     */
+    private final class PendingRollups implements TransactionSynchronization {
+
+        private final Map<RollupKey, long[]> changes = new TreeMap<>(KEY_ORDER);
+
+        void add(Long userId, Contribution contribution, int sign) {
+            if (contribution.createdDay() != null) {
+                change(userId, contribution.createdDay())[0] += sign;
+            }
+            if (contribution.completedDay() != null) {
+                long[] change = change(userId, contribution.completedDay());
+                change[1] += sign;
+                change[3] += sign * contribution.completionHours();
+            }
+            if (contribution.cancelledDay() != null) {
+                change(userId, contribution.cancelledDay())[2] += sign;
+            }
+        }
+
+        private long[] change(Long userId, LocalDate day) {
+            return changes.computeIfAbsent(new RollupKey(userId, day), key -> new long[4]);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            List<GoalRollupDay> rows = new ArrayList<>(changes.size());
+            changes.forEach((key, change) -> {
+                // An edit that undid itself within the transaction writes nothing
+                if (change[0] != 0 || change[1] != 0 || change[2] != 0 || change[3] != 0) {
+                    rows.add(new GoalRollupDay(key.userId(), key.day(), (int) change[0], (int) change[1],
+                            (int) change[2], change[3]));
+                }
+            });
+            changes.clear();
+            goalRepository.addRollups(rows);
+        }
+    }
+}
@@ -6,9 +6,14 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
 import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalBatchRequest;
+import com.goaly.backend.dto.GoalBatchResultDto;
+import com.goaly.backend.dto.GoalChangesDto;
 import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.GoalSliceDto;
 import com.goaly.backend.dto.UpdateGoalRequest;
 import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.repository.GoalSortMode;
 
 public interface GoalService {
 
@@ -18,6 +23,19 @@ public interface GoalService {
 
     Page<GoalDto> getGoalsByUserId(Long userId, Pageable pageable);
 
+    /**
+     * Read a user's goals a slice at a time without counting them. A blank
+     * cursor starts from the top in the given sort; otherwise the sort stored
+     * in the cursor wins.
+     */
+    GoalSliceDto getGoalsByUserId(Long userId, String cursor, GoalSortMode sort, boolean descending, int size);
+
+    /**
+     * Goals a user created, updated or deleted after a change sequence
+     * number, at most {@code limit} changes at a time
+     */
+    GoalChangesDto getChangesSince(Long userId, long since, int limit);
+
     List<GoalDto> getGoalsByUserIdAndStatus(Long userId, GoalStatus status);
 
     GoalDto updateGoal(Long id, UpdateGoalRequest request);
@@ -26,5 +44,11 @@ public interface GoalService {
 
     GoalDto completeGoal(Long id);
 
+    /**
+     * Apply a list of create, update, complete and delete operations in one
+     * transaction, reporting each operation's outcome
+     */
+    GoalBatchResultDto applyBatch(GoalBatchRequest request);
+
     List<GoalDto> getUpcomingGoals(Long userId);
 }
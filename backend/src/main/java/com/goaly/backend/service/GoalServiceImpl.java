@@ -1,23 +1,52 @@
 package com.goaly.backend.service;
 
 import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalBatchOperation;
+import com.goaly.backend.dto.GoalBatchOperation.OperationType;
+import com.goaly.backend.dto.GoalBatchRequest;
+import com.goaly.backend.dto.GoalBatchRequest.FailurePolicy;
+import com.goaly.backend.dto.GoalBatchResultDto;
+import com.goaly.backend.dto.GoalBatchResultDto.ItemResult;
+import com.goaly.backend.dto.GoalBatchResultDto.ItemStatus;
+import com.goaly.backend.dto.GoalChangesDto;
 import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.GoalSliceDto;
 import com.goaly.backend.dto.UpdateGoalRequest;
 import com.goaly.backend.entity.Goal;
 import com.goaly.backend.entity.Goal.GoalStatus;
 import com.goaly.backend.entity.User;
+import com.goaly.backend.event.GoalCompletedEvent;
+import com.goaly.backend.event.GoalCreatedEvent;
+import com.goaly.backend.event.GoalDeletedEvent;
+import com.goaly.backend.event.GoalEvent;
+import com.goaly.backend.event.GoalUpdatedEvent;
+import com.goaly.backend.exception.ConflictException;
 import com.goaly.backend.exception.ResourceNotFoundException;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.GoalChange;
 import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.repository.GoalSortMode;
+import com.goaly.backend.repository.GoalTransition;
 import com.goaly.backend.repository.UserRepository;
+import com.goaly.backend.service.GoalRollupService.Contribution;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -25,11 +54,16 @@ public class GoalServiceImpl implements GoalService {
 
     private final GoalRepository goalRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final GoalRollupService rollups;
 
     @Autowired
-    public GoalServiceImpl(GoalRepository goalRepository, UserRepository userRepository) {
+    public GoalServiceImpl(GoalRepository goalRepository, UserRepository userRepository,
+            ApplicationEventPublisher eventPublisher, GoalRollupService rollups) {
         this.goalRepository = goalRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+        this.rollups = rollups;
     }
 
     @Override
@@ -37,13 +71,9 @@ public class GoalServiceImpl implements GoalService {
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
 
-        Goal goal = new Goal();
-        goal.setTitle(request.getTitle());
-        goal.setDescription(request.getDescription());
-        goal.setTargetDate(request.getTargetDate());
-        goal.setUser(user);
-
-        Goal savedGoal = goalRepository.save(goal);
+        Goal savedGoal = goalRepository.save(newGoal(request, user));
+        rollups.record(user.getId(), null, Contribution.of(savedGoal));
+        eventPublisher.publishEvent(createdEvent(savedGoal));
         return convertToDto(savedGoal);
     }
 
@@ -58,21 +88,290 @@ public class GoalServiceImpl implements GoalService {
     @Override
     @Transactional(readOnly = true)
     public Page<GoalDto> getGoalsByUserId(Long userId, Pageable pageable) {
-        Page<Goal> goals = goalRepository.findByUserId(userId, pageable);
-        return goals.map(this::convertToDto);
+        return goalRepository.findDtosByUserId(userId, pageable);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public GoalSliceDto getGoalsByUserId(Long userId, String cursor, GoalSortMode sort, boolean descending,
+            int size) {
+        GoalCursor position = cursor == null || cursor.isBlank() ? null : GoalCursor.decode(cursor);
+        if (position != null) {
+            sort = position.getSort();
+            descending = position.isDescending();
+        }
+        // One extra row tells us whether another slice follows
+        List<GoalDto> goals = goalRepository.findUserGoalsAfter(userId, sort, descending,
+                position != null ? position.getKey() : null,
+                position != null ? position.getId() : null,
+                size + 1);
+        if (goals.size() <= size) {
+            return new GoalSliceDto(goals, null);
+        }
+        List<GoalDto> content = goals.subList(0, size);
+        String next = GoalCursor.after(content.get(size - 1), sort, descending).encode();
+        return new GoalSliceDto(List.copyOf(content), next);
+    }
+
+    @Override
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public GoalChangesDto getChangesSince(Long userId, long since, int limit) {
+        // One snapshot for the sequence, the log and the goals, so the goals are exactly as of the high-water mark
+        long lastSeq = userRepository.loadLastChangeSeq(userId);
+        if (since == lastSeq) {
+            return new GoalChangesDto(since, since, false, false, List.of(), List.of());
+        }
+        Long oldestSeq = goalRepository.findOldestChangeSeq(userId);
+        if (since > lastSeq || oldestSeq == null || oldestSeq > since + 1) {
+            // Changes after since have been dropped by retention (or never existed): send everything
+            return new GoalChangesDto(since, lastSeq, false, true, goalRepository.findAllDtosByUserId(userId),
+                    List.of());
+        }
+
+        List<GoalChange> changes = goalRepository.findChangesAfter(userId, since, limit + 1);
+        boolean hasMore = changes.size() > limit;
+        if (hasMore) {
+            changes = changes.subList(0, limit);
+        }
+        // Only each goal's latest change matters to the client
+        Map<Long, GoalChange> latest = new LinkedHashMap<>();
+        for (GoalChange change : changes) {
+            latest.put(change.goalId(), change);
+        }
+        Set<Long> liveIds = new HashSet<>();
+        latest.forEach((goalId, change) -> {
+            if (change.type() != GoalChange.Type.DELETED) {
+                liveIds.add(goalId);
+            }
+        });
+        List<GoalDto> goals = liveIds.isEmpty() ? List.of() : goalRepository.findDtosByUserIdAndIdIn(userId, liveIds);
+        Set<Long> found = new HashSet<>();
+        goals.forEach(goal -> found.add(goal.getId()));
+        // A goal deleted after this page's last change is reported as deleted now
+        List<Long> deletedIds = new ArrayList<>();
+        for (Long goalId : latest.keySet()) {
+            if (!found.contains(goalId)) {
+                deletedIds.add(goalId);
+            }
+        }
+        long highWaterMark = changes.get(changes.size() - 1).seq();
+        return new GoalChangesDto(since, highWaterMark, hasMore, false, goals, deletedIds);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<GoalDto> getGoalsByUserIdAndStatus(Long userId, GoalStatus status) {
-        List<Goal> goals = goalRepository.findByUserIdAndStatus(userId, status);
-        return goals.stream().map(this::convertToDto).collect(Collectors.toList());
+        return goalRepository.findDtosByUserIdAndStatus(userId, status);
     }
 
     @Override
     public GoalDto updateGoal(Long id, UpdateGoalRequest request) {
-        Goal goal = goalRepository.findById(id)
+        GoalTransition transition = goalRepository.updateGoal(id, request, LocalDateTime.now(), LocalDate.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Goal not found with id: " + id));
+        GoalDto goal = transition.goal();
+        if (!transition.changed()) {
+            throw new ConflictException("Goal " + id + " was modified concurrently; current version is "
+                    + goal.getVersion());
+        }
+        rollups.record(goal.getUserId(), Contribution.of(goal, transition.previousStatus()), Contribution.of(goal));
+
+        if (transition.previousStatus() != GoalStatus.COMPLETED && goal.getStatus() == GoalStatus.COMPLETED) {
+            eventPublisher.publishEvent(new GoalCompletedEvent(goal.getUserId(), goal.getId(),
+                    goal.getPriority(), goal.getTargetDate(), goal.getCompletionDate()));
+        } else {
+            eventPublisher.publishEvent(new GoalUpdatedEvent(goal.getUserId(), goal.getId(),
+                    goal.getStatus(), goal.getPriority(), goal.getTargetDate(),
+                    transition.previousStatus(), transition.previousTargetDate()));
+        }
+        return goal;
+    }
+
+    @Override
+    public void deleteGoal(Long id) {
+        GoalDto goal = goalRepository.deleteGoal(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Goal not found with id: " + id));
+        rollups.record(goal.getUserId(), Contribution.of(goal), null);
+        eventPublisher.publishEvent(new GoalDeletedEvent(goal.getUserId(), goal.getId(),
+                goal.getStatus(), goal.getPriority(), goal.getTargetDate()));
+    }
+
+    @Override
+    public GoalDto completeGoal(Long id) {
+        GoalTransition transition = goalRepository.completeGoal(id, LocalDateTime.now(), LocalDate.now())
+                .orElseThrow(() -> new ResourceNotFoundException("Goal not found with id: " + id));
+        GoalDto goal = transition.goal();
+        if (transition.changed()) {
+            rollups.record(goal.getUserId(), Contribution.of(goal, transition.previousStatus()),
+                    Contribution.of(goal));
+            eventPublisher.publishEvent(new GoalCompletedEvent(goal.getUserId(), goal.getId(),
+                    goal.getPriority(), goal.getTargetDate(), goal.getCompletionDate()));
+        }
+        return goal;
+    }
+
+    @Override
+    public GoalBatchResultDto applyBatch(GoalBatchRequest request) {
+        List<GoalBatchOperation> operations = request.getOperations();
+
+        // Load every goal and user the batch touches in two queries
+        Set<Long> goalIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        for (GoalBatchOperation operation : operations) {
+            if (operation.getType() == OperationType.CREATE) {
+                if (operation.getGoal() != null && operation.getGoal().getUserId() != null) {
+                    userIds.add(operation.getGoal().getUserId());
+                }
+            } else if (operation.getId() != null) {
+                goalIds.add(operation.getId());
+            }
+        }
+        Map<Long, Goal> goals = new HashMap<>();
+        for (Goal goal : goalRepository.findAllById(goalIds)) {
+            goals.put(goal.getId(), goal);
+            // Owners are lazy; loading them here keeps convertToDto from selecting one per goal
+            userIds.add(goal.getUser().getId());
+        }
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllById(userIds)) {
+            users.put(user.getId(), user);
+        }
+
+        List<ItemResult> results = new ArrayList<>(operations.size());
+        Goal[] applied = new Goal[operations.size()];
+        List<GoalEvent> events = new ArrayList<>();
+        boolean anyFailed = false;
+        for (int i = 0; i < operations.size(); i++) {
+            GoalBatchOperation operation = operations.get(i);
+            ItemResult result = new ItemResult(i, operation.getType());
+            results.add(result);
+            try {
+                applied[i] = applyOperation(operation, goals, users, events);
+                result.setStatus(ItemStatus.OK);
+            } catch (ResourceNotFoundException | ValidationException | ConflictException e) {
+                result.setStatus(ItemStatus.FAILED);
+                result.setId(operation.getId());
+                result.setError(e.getMessage());
+                anyFailed = true;
+            }
+        }
+
+        if (anyFailed && request.getOnFailure() == FailurePolicy.ALL_OR_NOTHING) {
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            for (ItemResult result : results) {
+                if (result.getStatus() == ItemStatus.OK) {
+                    result.setStatus(ItemStatus.ROLLED_BACK);
+                }
+            }
+            return new GoalBatchResultDto(false, results);
+        }
+
+        // One flush sends the inserts, updates and deletes as JDBC batches
+        goalRepository.flush();
+        events.forEach(eventPublisher::publishEvent);
+        for (int i = 0; i < results.size(); i++) {
+            ItemResult result = results.get(i);
+            if (result.getStatus() != ItemStatus.OK) {
+                continue;
+            }
+            result.setId(applied[i].getId());
+            if (result.getType() != OperationType.DELETE) {
+                result.setGoal(convertToDto(applied[i]));
+            }
+        }
+        return new GoalBatchResultDto(true, results);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<GoalDto> getUpcomingGoals(Long userId) {
+        LocalDate nextWeek = LocalDate.now().plusWeeks(1);
+        return goalRepository.findUpcomingDtosByUserId(userId, nextWeek);
+    }
+
+    /**
+     * Apply one batch operation to the preloaded goals, queueing its event.
+     * Everything is checked before anything is changed, so a failed
+     * operation leaves no partial edits behind.
+     */
+    private Goal applyOperation(GoalBatchOperation operation, Map<Long, Goal> goals, Map<Long, User> users,
+            List<GoalEvent> events) {
+        if (operation.getType() == OperationType.CREATE) {
+            CreateGoalRequest create = operation.getGoal();
+            if (create == null) {
+                throw new ValidationException("goal is required for CREATE");
+            }
+            User user = users.get(create.getUserId());
+            if (user == null) {
+                throw new ResourceNotFoundException("User not found with id: " + create.getUserId());
+            }
+            Goal goal = goalRepository.save(newGoal(create, user));
+            rollups.record(user.getId(), null, Contribution.of(goal));
+            events.add(createdEvent(goal));
+            return goal;
+        }
+
+        if (operation.getId() == null) {
+            throw new ValidationException("id is required for " + operation.getType());
+        }
+        Goal goal = goals.get(operation.getId());
+        if (goal == null) {
+            throw new ResourceNotFoundException("Goal not found with id: " + operation.getId());
+        }
+        Contribution before = Contribution.of(goal);
+        switch (operation.getType()) {
+            case UPDATE -> {
+                if (operation.getChanges() == null) {
+                    throw new ValidationException("changes are required for UPDATE");
+                }
+                Long expectedVersion = operation.getChanges().getVersion();
+                if (expectedVersion != null && !expectedVersion.equals(goal.getVersion())) {
+                    throw new ConflictException("Goal " + goal.getId()
+                            + " was modified concurrently; current version is " + goal.getVersion());
+                }
+                events.add(applyUpdate(goal, operation.getChanges()));
+                rollups.record(goal.getUser().getId(), before, Contribution.of(goal));
+            }
+            case COMPLETE -> {
+                GoalCompletedEvent event = applyComplete(goal);
+                if (event != null) {
+                    rollups.record(goal.getUser().getId(), before, Contribution.of(goal));
+                    events.add(event);
+                }
+            }
+            case DELETE -> {
+                goalRepository.delete(goal);
+                goals.remove(goal.getId());
+                rollups.record(goal.getUser().getId(), before, null);
+                events.add(deletedEvent(goal));
+            }
+            default -> throw new IllegalStateException("Unexpected operation " + operation.getType());
+        }
+        return goal;
+    }
+
+    private Goal newGoal(CreateGoalRequest request, User user) {
+        Goal goal = new Goal();
+        goal.setTitle(request.getTitle());
+        goal.setDescription(request.getDescription());
+        if (request.getPriority() != null) {
+            goal.setPriority(request.getPriority());
+        }
+        goal.setTargetDate(request.getTargetDate());
+        goal.setUser(user);
+        return goal;
+    }
+
+    private GoalCreatedEvent createdEvent(Goal goal) {
+        return new GoalCreatedEvent(goal.getUser().getId(), goal.getId(),
+                goal.getStatus(), goal.getPriority(), goal.getTargetDate());
+    }
+
+    /**
+     * Apply the non-null fields of an update and build the event describing it
+     */
+    private GoalEvent applyUpdate(Goal goal, UpdateGoalRequest request) {
+        GoalStatus previousStatus = goal.getStatus();
+        LocalDate previousTargetDate = goal.getTargetDate();
 
         if (request.getTitle() != null) {
             goal.setTitle(request.getTitle());
@@ -82,44 +381,47 @@ public class GoalServiceImpl implements GoalService {
         }
         if (request.getStatus() != null) {
             goal.setStatus(request.getStatus());
-            if (request.getStatus() == GoalStatus.COMPLETED) {
+            // Keep the original completion date when an already completed goal is saved again
+            if (request.getStatus() == GoalStatus.COMPLETED && previousStatus != GoalStatus.COMPLETED) {
                 goal.setCompletionDate(LocalDate.now());
             }
+            if (request.getStatus() == GoalStatus.CANCELLED && previousStatus != GoalStatus.CANCELLED) {
+                goal.setCancellationDate(LocalDate.now());
+            }
+        }
+        if (request.getPriority() != null) {
+            goal.setPriority(request.getPriority());
         }
         if (request.getTargetDate() != null) {
             goal.setTargetDate(request.getTargetDate());
         }
 
-        Goal updatedGoal = goalRepository.save(goal);
-        return convertToDto(updatedGoal);
-    }
-
-    @Override
-    public void deleteGoal(Long id) {
-        if (!goalRepository.existsById(id)) {
-            throw new ResourceNotFoundException("Goal not found with id: " + id);
+        Long userId = goal.getUser().getId();
+        if (previousStatus != GoalStatus.COMPLETED && goal.getStatus() == GoalStatus.COMPLETED) {
+            return new GoalCompletedEvent(userId, goal.getId(),
+                    goal.getPriority(), goal.getTargetDate(), goal.getCompletionDate());
         }
-        goalRepository.deleteById(id);
+        return new GoalUpdatedEvent(userId, goal.getId(),
+                goal.getStatus(), goal.getPriority(), goal.getTargetDate(),
+                previousStatus, previousTargetDate);
     }
 
-    @Override
-    public GoalDto completeGoal(Long id) {
-        Goal goal = goalRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Goal not found with id: " + id));
-
+    /**
+     * Mark a goal completed, or return null if it already was
+     */
+    private GoalCompletedEvent applyComplete(Goal goal) {
+        if (goal.getStatus() == GoalStatus.COMPLETED) {
+            return null;
+        }
         goal.setStatus(GoalStatus.COMPLETED);
         goal.setCompletionDate(LocalDate.now());
-
-        Goal completedGoal = goalRepository.save(goal);
-        return convertToDto(completedGoal);
+        return new GoalCompletedEvent(goal.getUser().getId(), goal.getId(),
+                goal.getPriority(), goal.getTargetDate(), goal.getCompletionDate());
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<GoalDto> getUpcomingGoals(Long userId) {
-        LocalDate nextWeek = LocalDate.now().plusWeeks(1);
-        List<Goal> upcomingGoals = goalRepository.findUpcomingGoalsByUserId(userId, nextWeek);
-        return upcomingGoals.stream().map(this::convertToDto).collect(Collectors.toList());
+    private GoalDeletedEvent deletedEvent(Goal goal) {
+        return new GoalDeletedEvent(goal.getUser().getId(), goal.getId(),
+                goal.getStatus(), goal.getPriority(), goal.getTargetDate());
     }
 
     private GoalDto convertToDto(Goal goal) {
@@ -128,12 +430,15 @@ public class GoalServiceImpl implements GoalService {
         dto.setTitle(goal.getTitle());
         dto.setDescription(goal.getDescription());
         dto.setStatus(goal.getStatus());
+        dto.setPriority(goal.getPriority());
         dto.setTargetDate(goal.getTargetDate());
         dto.setCompletionDate(goal.getCompletionDate());
+        dto.setCancellationDate(goal.getCancellationDate());
         dto.setUserId(goal.getUser().getId());
         dto.setUserName(goal.getUser().getName());
         dto.setCreatedAt(goal.getCreatedAt());
         dto.setUpdatedAt(goal.getUpdatedAt());
+        dto.setVersion(goal.getVersion());
         return dto;
     }
 }
@@ -0,0 +1,196 @@
+package com.goaly.backend.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Sorted set of longs that also answers "how many are smaller" and "which
+ * are at positions i.." in O(log n). A treap whose nodes carry subtree
+ * sizes. Not thread-safe; {@link RankIndex} guards it.
+ */
+final class OrderStatisticSet {
+
+    private static final class Node {
+        private final long value;
+        private final int priority;
+        private int size = 1;
+        private Node left;
+        private Node right;
+
+        private Node(long value, int priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+    }
+
+    private final SplittableRandom random = new SplittableRandom();
+    private Node root;
+
+    int size() {
+        return size(root);
+    }
+
+    boolean isEmpty() {
+        return root == null;
+    }
+
+    boolean contains(long value) {
+        Node node = root;
+        while (node != null && node.value != value) {
+            node = value < node.value ? node.left : node.right;
+        }
+        return node != null;
+    }
+
+    /**
+     * Insert a value, returning false if it was already present
+     */
+    boolean add(long value) {
+        if (contains(value)) {
+            return false;
+        }
+        root = insert(root, new Node(value, random.nextInt()));
+        return true;
+    }
+
+    /**
+     * Remove a value, returning false if it was not present
+     */
+    boolean remove(long value) {
+        if (!contains(value)) {
+            return false;
+        }
+        root = delete(root, value);
+        return true;
+    }
+
+    /**
+     * Number of values strictly less than {@code value}
+     */
+    int countLess(long value) {
+        int count = 0;
+        Node node = root;
+        while (node != null) {
+            if (node.value < value) {
+                count += size(node.left) + 1;
+                node = node.right;
+            } else {
+                node = node.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Up to {@code limit} values in ascending order, starting at the 0-based
+     * position {@code from}
+     */
+    List<Long> range(int from, int limit) {
+        List<Long> values = new ArrayList<>(Math.max(0, Math.min(limit, size() - from)));
+        // Descend to the start position, keeping the nodes still to visit in order
+        Deque<Node> pending = new ArrayDeque<>();
+        Node node = root;
+        int skip = from;
+        while (node != null) {
+            int leftSize = size(node.left);
+            if (skip < leftSize) {
+                pending.push(node);
+                node = node.left;
+            } else if (skip == leftSize) {
+                pending.push(node);
+                break;
+            } else {
+                skip -= leftSize + 1;
+                node = node.right;
+            }
+        }
+        while (!pending.isEmpty() && values.size() < limit) {
+            Node next = pending.pop();
+            values.add(next.value);
+            for (Node child = next.right; child != null; child = child.left) {
+                pending.push(child);
+            }
+        }
+        return values;
+    }
+
+    private static int size(Node node) {
+        return node != null ? node.size : 0;
+    }
+
+    private static Node update(Node node) {
+        node.size = size(node.left) + size(node.right) + 1;
+        return node;
+    }
+
+    private static Node insert(Node node, Node item) {
+        if (node == null) {
+            return item;
+        }
+        if (item.priority > node.priority) {
+            Node[] parts = split(node, item.value);
+            item.left = parts[0];
+            item.right = parts[1];
+            return update(item);
+        }
+        if (item.value < node.value) {
+            node.left = insert(node.left, item);
+        } else {
+            node.right = insert(node.right, item);
+        }
+        return update(node);
+    }
+
+    private static Node delete(Node node, long value) {
+        if (node.value == value) {
+            return merge(node.left, node.right);
+        }
+        if (value < node.value) {
+            node.left = delete(node.left, value);
+        } else {
+            node.right = delete(node.right, value);
+        }
+        return update(node);
+    }
+
+    /**
+     * Split into values below {@code value} and values at or above it
+     */
+    private static Node[] split(Node node, long value) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (node.value < value) {
+            Node[] parts = split(node.right, value);
+            node.right = parts[0];
+            parts[0] = update(node);
+            return parts;
+        }
+        Node[] parts = split(node.left, value);
+        node.left = parts[1];
+        parts[1] = update(node);
+        return parts;
+    }
+
+    /**
+     * Join two treaps where every value in {@code left} is below every value
+     * in {@code right}
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+}
@@ -0,0 +1,250 @@
+package com.goaly.backend.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.repository.UnlockKey;
+import com.goaly.backend.repository.UserAchievementRepository;
+
+/**
+ * In-memory points rankings, one global and one per achievement category.
+ * Built from a single streaming scan of user_achievements at startup, then
+ * advanced as unlocks commit. Rebuilt after stats reconciliation and
+ * achievement deletes to correct any drift; changes that commit while a
+ * rebuild scans are buffered and replayed onto the rebuilt boards.
+ */
+@Component
+public class PointsLeaderboard {
+
+    private static final Logger log = LoggerFactory.getLogger(PointsLeaderboard.class);
+
+    private final UserAchievementRepository userAchievementRepository;
+    private final AchievementCatalog catalog;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TaskExecutor backgroundExecutor;
+
+    private volatile Boards boards = new Boards();
+
+    // Deltas apply under the read lock, the rebuilt boards swap in under the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    // Non-null while a rebuild runs
+    private Queue<Unlock> pendingUnlocks;
+    private Queue<Long> pendingRemovals;
+
+    @Autowired
+    public PointsLeaderboard(UserAchievementRepository userAchievementRepository,
+            AchievementCatalog catalog,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("backfillExecutor") TaskExecutor backgroundExecutor) {
+        this.userAchievementRepository = userAchievementRepository;
+        this.catalog = catalog;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // The buffered unlocks are checked against the snapshot the scan read
+        this.readOnlyTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.backgroundExecutor = backgroundExecutor;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild every board from user_achievements and swap them in
+     */
+    public synchronized void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            pendingUnlocks = new ConcurrentLinkedQueue<>();
+            pendingRemovals = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> rebuildInSnapshot());
+        } finally {
+            swapLock.writeLock().lock();
+            try {
+                pendingUnlocks = null;
+                pendingRemovals = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void rebuildInSnapshot() {
+        AchievementCatalog.Snapshot snapshot = catalog.current();
+        Map<Long, Long> globalScores = new HashMap<>();
+        Map<String, Map<Long, Long>> categoryScores = new HashMap<>();
+        userAchievementRepository.scanUnlocks((userId, achievementId) -> {
+            AchievementCatalog.Entry achievement = snapshot.get(achievementId);
+            if (achievement == null) {
+                return;
+            }
+            globalScores.merge(userId, (long) achievement.getPoints(), Long::sum);
+            if (achievement.getCategory() != null) {
+                categoryScores.computeIfAbsent(achievement.getCategory(), c -> new HashMap<>())
+                        .merge(userId, (long) achievement.getPoints(), Long::sum);
+            }
+        });
+
+        Boards rebuilt = new Boards();
+        globalScores.forEach(rebuilt.global::add);
+        categoryScores.forEach((category, scores) -> scores.forEach(rebuilt.board(category)::add));
+
+        swapLock.writeLock().lock();
+        try {
+            // Unlocks that committed after the scan's snapshot are missing from it
+            List<Unlock> unlocks = new ArrayList<>(pendingUnlocks);
+            Set<UnlockKey> scanned = userAchievementRepository.findUnlocked(
+                    unlocks.stream().map(Unlock::key).distinct().toList());
+            for (Unlock unlock : unlocks) {
+                if (!scanned.contains(unlock.key())) {
+                    rebuilt.apply(unlock);
+                }
+            }
+            pendingRemovals.forEach(rebuilt::remove);
+            boards = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("Rebuilt points leaderboard for {} users", globalScores.size());
+    }
+
+    /**
+     * Rebuild in the background once the current transaction commits
+     */
+    public void rebuildAfterCommit() {
+        AfterCommit.run(() -> backgroundExecutor.execute(this::rebuild));
+    }
+
+    /**
+     * Add achievements unlocked by one user once the transaction commits
+     */
+    public void recordUnlocks(Long userId, Collection<AchievementCatalog.Entry> unlocked) {
+        AfterCommit.run(() -> apply(unlocked.stream()
+                .map(achievement -> new Unlock(userId, achievement.getId(), achievement.getPoints(),
+                        achievement.getCategory()))
+                .toList()));
+    }
+
+    /**
+     * Add one achievement unlocked by many users once the transaction commits
+     */
+    public void recordUnlocks(Collection<Long> userIds, Long achievementId, long points, String category) {
+        AfterCommit.run(() -> apply(userIds.stream()
+                .map(userId -> new Unlock(userId, achievementId, points, category))
+                .toList()));
+    }
+
+    /**
+     * Take a deleted user off every board once the transaction commits
+     */
+    public void recordUserDeleted(Long userId) {
+        AfterCommit.run(() -> {
+            swapLock.readLock().lock();
+            try {
+                boards.remove(userId);
+                if (pendingRemovals != null) {
+                    pendingRemovals.add(userId);
+                }
+            } finally {
+                swapLock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Ranked users from a 0-based position, highest points first. A null
+     * category means the global board.
+     */
+    public List<RankIndex.Ranked> top(String category, int offset, int limit) {
+        RankIndex index = boards.find(category);
+        return index != null ? index.top(offset, limit) : List.of();
+    }
+
+    /**
+     * A user's position on a board, or null if they have no points on it
+     */
+    public RankIndex.Ranked rankOf(String category, Long userId) {
+        RankIndex index = boards.find(category);
+        return index != null ? index.rankOf(userId) : null;
+    }
+
+    /**
+     * Number of ranked users on a board
+     */
+    public int size(String category) {
+        RankIndex index = boards.find(category);
+        return index != null ? index.size() : 0;
+    }
+
+    private void apply(List<Unlock> unlocks) {
+        swapLock.readLock().lock();
+        try {
+            Boards current = boards;
+            unlocks.forEach(current::apply);
+            if (pendingUnlocks != null) {
+                pendingUnlocks.addAll(unlocks);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static final class Boards {
+
+        private final RankIndex global = new RankIndex();
+        private final Map<String, RankIndex> byCategory = new ConcurrentHashMap<>();
+
+        private RankIndex board(String category) {
+            return byCategory.computeIfAbsent(category, c -> new RankIndex());
+        }
+
+        private RankIndex find(String category) {
+            return category == null ? global : byCategory.get(category);
+        }
+
+        private void apply(Unlock unlock) {
+            global.add(unlock.userId(), unlock.points());
+            if (unlock.category() != null) {
+                board(unlock.category()).add(unlock.userId(), unlock.points());
+            }
+        }
+
+        private void remove(Long userId) {
+            global.remove(userId);
+            byCategory.values().forEach(board -> board.remove(userId));
+        }
+    }
+
+    private record Unlock(long userId, long achievementId, long points, String category) {
+
+        private UnlockKey key() {
+            return new UnlockKey(userId, achievementId);
+        }
+    }
+}
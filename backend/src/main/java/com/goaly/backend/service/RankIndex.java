@@ -0,0 +1,177 @@
+package com.goaly.backend.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Order-statistic index of user scores. A Fenwick tree over score values
+ * counts users at or below each score, so rank lookups and positional seeks
+ * are O(log n); users sharing a score are kept in id order in an
+ * {@link OrderStatisticSet} so ties rank stably and seeking within a large
+ * tie is O(log n) too.
+ */
+final class RankIndex {
+
+    /** One ranked user */
+    record Ranked(long rank, long userId, long score) {
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Long> scores = new HashMap<>();
+    private final TreeMap<Long, OrderStatisticSet> buckets = new TreeMap<>();
+    private long[] tree = new long[65];
+
+    /**
+     * Add points to a user's score, inserting the user if unranked
+     */
+    void add(long userId, long points) {
+        lock.writeLock().lock();
+        try {
+            Long previous = scores.get(userId);
+            long score = (previous != null ? previous : 0) + points;
+            if (previous != null) {
+                removeFromBucket(userId, previous);
+            }
+            ensureCapacity(score);
+            scores.put(userId, score);
+            buckets.computeIfAbsent(score, s -> new OrderStatisticSet()).add(userId);
+            updateTree(score, 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop a user from the ranking, if ranked
+     */
+    void remove(long userId) {
+        lock.writeLock().lock();
+        try {
+            Long score = scores.remove(userId);
+            if (score != null) {
+                removeFromBucket(userId, score);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return scores.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * A user's 1-based rank, or null if they are not ranked
+     */
+    Ranked rankOf(long userId) {
+        lock.readLock().lock();
+        try {
+            Long score = scores.get(userId);
+            if (score == null) {
+                return null;
+            }
+            long higher = scores.size() - countAtOrBelow(score);
+            long tiesBefore = buckets.get(score).countLess(userId);
+            return new Ranked(higher + tiesBefore + 1, userId, score);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} users starting at the 0-based position
+     * {@code offset}, highest score first
+     */
+    List<Ranked> top(int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            List<Ranked> result = new ArrayList<>(Math.min(limit, Math.max(0, scores.size() - offset)));
+            if (offset >= scores.size() || limit <= 0) {
+                return result;
+            }
+            // Seek straight to the score holding the offset position
+            long ascendingIndex = scores.size() - offset;
+            long score = findByCount(ascendingIndex);
+            long position = offset;
+            int skip = (int) (offset - (scores.size() - countAtOrBelow(score)));
+            for (Map.Entry<Long, OrderStatisticSet> bucket : buckets.headMap(score, true).descendingMap()
+                    .entrySet()) {
+                for (long userId : bucket.getValue().range(skip, limit - result.size())) {
+                    result.add(new Ranked(++position, userId, bucket.getKey()));
+                }
+                if (result.size() == limit) {
+                    break;
+                }
+                skip = 0;
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeFromBucket(long userId, long score) {
+        OrderStatisticSet bucket = buckets.get(score);
+        bucket.remove(userId);
+        if (bucket.isEmpty()) {
+            buckets.remove(score);
+        }
+        updateTree(score, -1);
+    }
+
+    private void ensureCapacity(long score) {
+        if (score + 1 < tree.length) {
+            return;
+        }
+        int capacity = tree.length - 1;
+        while (capacity <= score) {
+            capacity *= 2;
+        }
+        tree = new long[capacity + 1];
+        for (Map.Entry<Long, OrderStatisticSet> bucket : buckets.entrySet()) {
+            updateTree(bucket.getKey(), bucket.getValue().size());
+        }
+    }
+
+    // Score s lives at Fenwick index s + 1 so that zero scores are representable
+    private void updateTree(long score, long delta) {
+        for (int i = (int) score + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    private long countAtOrBelow(long score) {
+        long count = 0;
+        for (int i = (int) Math.min(score + 1, tree.length - 1); i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    /**
+     * Smallest score whose at-or-below count reaches {@code count}
+     */
+    private long findByCount(long count) {
+        int index = 0;
+        long remaining = count;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = index + step;
+            if (next < tree.length && tree[next] < remaining) {
+                index = next;
+                remaining -= tree[next];
+            }
+        }
+        // index is the last Fenwick slot below the target; its score is index
+        return index;
+    }
+}
@@ -0,0 +1,98 @@
+package com.goaly.backend.service;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.goaly.backend.repository.UserAchievementRepository;
+
+/**
+ * Bounded per-user cache of unlocked achievement bitsets. A miss loads the
+ * user's unlocked ids in one query; unlock paths add bits once their
+ * transaction commits so a rollback never leaves a phantom unlock behind.
+ */
+@Component
+public class UnlockedAchievementCache {
+
+    private final UserAchievementRepository userAchievementRepository;
+    private final AchievementCatalog catalog;
+    private final Map<Long, UnlockedAchievementSet> cache;
+
+    @Autowired
+    public UnlockedAchievementCache(UserAchievementRepository userAchievementRepository,
+            AchievementCatalog catalog,
+            @Value("${goaly.unlocks.cache-size:50000}") int maxUsers) {
+        this.userAchievementRepository = userAchievementRepository;
+        this.catalog = catalog;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, UnlockedAchievementSet> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * The user's unlocked achievements, loading them on a miss
+     */
+    public UnlockedAchievementSet get(Long userId) {
+        synchronized (cache) {
+            UnlockedAchievementSet cached = cache.get(userId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        UnlockedAchievementSet loaded = toSet(userAchievementRepository.findAchievementIdsByUserId(userId));
+        synchronized (cache) {
+            // An unlock may have been merged in while we were loading
+            return cache.merge(userId, loaded, UnlockedAchievementSet::union);
+        }
+    }
+
+    /**
+     * Record achievements as unlocked for a user after the current
+     * transaction commits
+     */
+    public void markUnlocked(Long userId, Collection<Long> achievementIds) {
+        if (achievementIds.isEmpty()) {
+            return;
+        }
+        UnlockedAchievementSet unlocked = toSet(achievementIds);
+        AfterCommit.run(() -> {
+            synchronized (cache) {
+                cache.computeIfPresent(userId, (id, cached) -> cached.union(unlocked));
+            }
+        });
+    }
+
+    /**
+     * Record one achievement as unlocked for many users after the current
+     * transaction commits
+     */
+    public void markUnlockedForUsers(Long achievementId, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        int ordinal = catalog.ordinalOf(achievementId);
+        AfterCommit.run(() -> {
+            synchronized (cache) {
+                for (Long userId : userIds) {
+                    cache.computeIfPresent(userId, (id, cached) -> cached.with(ordinal));
+                }
+            }
+        });
+    }
+
+    private UnlockedAchievementSet toSet(Collection<Long> achievementIds) {
+        int[] ordinals = new int[achievementIds.size()];
+        int i = 0;
+        for (Long achievementId : achievementIds) {
+            ordinals[i++] = catalog.ordinalOf(achievementId);
+        }
+        return UnlockedAchievementSet.of(ordinals);
+    }
+}
@@ -0,0 +1,63 @@
+package com.goaly.backend.service;
+
+import java.util.Arrays;
+
+/**
+ * Immutable bitset of the achievements one user has unlocked, indexed by
+ * catalog ordinal. Takes one bit per achievement instead of a boxed Long.
+ */
+public final class UnlockedAchievementSet {
+
+    public static final UnlockedAchievementSet EMPTY = new UnlockedAchievementSet(new long[0]);
+
+    private final long[] words;
+
+    private UnlockedAchievementSet(long[] words) {
+        this.words = words;
+    }
+
+    public static UnlockedAchievementSet of(int... ordinals) {
+        return EMPTY.with(ordinals);
+    }
+
+    public boolean contains(int ordinal) {
+        int word = ordinal >>> 6;
+        return word < words.length && (words[word] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * Copy of this set with the given ordinals added
+     */
+    public UnlockedAchievementSet with(int... ordinals) {
+        int max = -1;
+        for (int ordinal : ordinals) {
+            max = Math.max(max, ordinal);
+        }
+        if (max < 0) {
+            return this;
+        }
+        long[] copy = Arrays.copyOf(words, Math.max(words.length, (max >>> 6) + 1));
+        for (int ordinal : ordinals) {
+            copy[ordinal >>> 6] |= 1L << ordinal;
+        }
+        return new UnlockedAchievementSet(copy);
+    }
+
+    public UnlockedAchievementSet union(UnlockedAchievementSet other) {
+        long[] longer = words.length >= other.words.length ? words : other.words;
+        long[] shorter = longer == words ? other.words : words;
+        long[] merged = longer.clone();
+        for (int i = 0; i < shorter.length; i++) {
+            merged[i] |= shorter[i];
+        }
+        return new UnlockedAchievementSet(merged);
+    }
+
+    public int size() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,160 @@
+package com.goaly.backend.service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.entity.UserAchievementStats;
+import com.goaly.backend.repository.UserAchievementStatsRepository;
+import com.goaly.backend.repository.UserRepository;
+
+/**
+ * Maintains the materialized user_achievement_stats rows and the in-memory
+ * points leaderboard. Unlock paths call in here from inside their own
+ * transaction so the totals commit together with the unlock rows.
+ */
+@Service
+public class UserAchievementStatsService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserAchievementStatsService.class);
+
+    private final UserAchievementStatsRepository statsRepository;
+    private final UserRepository userRepository;
+    private final PointsLeaderboard leaderboard;
+    private final AchievementRarity rarity;
+    private final UserDataVersions dataVersions;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor backgroundExecutor;
+    private final long reconcileChunkSize;
+
+    @Autowired
+    public UserAchievementStatsService(UserAchievementStatsRepository statsRepository,
+            UserRepository userRepository,
+            PointsLeaderboard leaderboard,
+            AchievementRarity rarity,
+            UserDataVersions dataVersions,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("backfillExecutor") TaskExecutor backgroundExecutor,
+            @Value("${goaly.stats.reconcile-chunk-size:10000}") long reconcileChunkSize) {
+        this.statsRepository = statsRepository;
+        this.userRepository = userRepository;
+        this.leaderboard = leaderboard;
+        this.rarity = rarity;
+        this.dataVersions = dataVersions;
+        this.backgroundExecutor = backgroundExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.reconcileChunkSize = reconcileChunkSize;
+    }
+
+    /**
+     * Add achievements just unlocked by one user to their totals
+     */
+    @Transactional
+    public void recordUnlocks(Long userId, Collection<AchievementCatalog.Entry> unlocked) {
+        if (unlocked.isEmpty()) {
+            return;
+        }
+        long points = 0;
+        Map<String, Integer> categoryCounts = new HashMap<>();
+        for (AchievementCatalog.Entry achievement : unlocked) {
+            points += achievement.getPoints();
+            if (achievement.getCategory() != null) {
+                categoryCounts.merge(achievement.getCategory(), 1, Integer::sum);
+            }
+        }
+        statsRepository.addUnlocks(userId, unlocked.size(), points, categoryCounts);
+        leaderboard.recordUnlocks(userId, unlocked);
+        rarity.recordUnlocks(unlocked.stream().map(AchievementCatalog.Entry::getId).toList());
+        dataVersions.touch(userId);
+    }
+
+    /**
+     * Add one achievement just unlocked by many users to their totals
+     */
+    @Transactional
+    public void recordUnlocks(Collection<Long> userIds, Long achievementId, long points, String category) {
+        statsRepository.addUnlockForUsers(userIds, points, category);
+        leaderboard.recordUnlocks(userIds, achievementId, points, category);
+        rarity.recordUnlocks(achievementId, userIds.size());
+        dataVersions.touch(userIds);
+    }
+
+    /**
+     * Recompute the totals of everyone who unlocked an achievement whose
+     * points or category just changed, and re-rank once it commits
+     */
+    @Transactional
+    public void recordAchievementChanged(Long achievementId) {
+        List<Long> userIds = statsRepository.rebuildUnlockers(achievementId);
+        leaderboard.rebuildAfterCommit();
+        dataVersions.touch(userIds);
+    }
+
+    /**
+     * Take an achievement about to be deleted off its unlockers' totals. Its
+     * unlocks cascade away with it, so this must run first in the same
+     * transaction, with the achievement locked.
+     */
+    @Transactional
+    public void recordAchievementDeleted(Long achievementId) {
+        dataVersions.touch(statsRepository.subtractAchievement(achievementId));
+    }
+
+    /**
+     * Read a user's totals with a single primary key lookup
+     */
+    @Transactional(readOnly = true)
+    public UserAchievementStats getStats(Long userId) {
+        return statsRepository.findById(userId).orElseGet(() -> {
+            UserAchievementStats empty = new UserAchievementStats();
+            empty.setUserId(userId);
+            return empty;
+        });
+    }
+
+    /**
+     * Run {@link #reconcile()} in the background
+     */
+    public void startReconcile() {
+        backgroundExecutor.execute(this::reconcile);
+    }
+
+    /**
+     * Rebuild every user's totals from user_achievements, one id range per
+     * transaction. Repairs any drift the incremental updates missed.
+     *
+     * @return number of users rewritten
+     */
+    @Scheduled(cron = "${goaly.stats.reconcile-cron:0 30 3 * * *}")
+    public long reconcile() {
+        Long maxUserId = userRepository.findMaxId();
+        if (maxUserId == null) {
+            return 0;
+        }
+        long rewritten = 0;
+        for (long start = 0; start < maxUserId; start += reconcileChunkSize) {
+            long afterId = start;
+            long untilId = Math.min(start + reconcileChunkSize, maxUserId);
+            Integer rows = transactionTemplate.execute(status -> statsRepository.rebuildRange(afterId, untilId));
+            rewritten += rows != null ? rows : 0;
+        }
+        log.info("Reconciled achievement stats for {} users", rewritten);
+        leaderboard.rebuild();
+        return rewritten;
+    }
+}
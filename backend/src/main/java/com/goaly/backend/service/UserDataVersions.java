@@ -0,0 +1,136 @@
+package com.goaly.backend.service;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.goaly.backend.event.GoalEvent;
+import com.goaly.backend.repository.UserRepository;
+
+/**
+ * Per-user data versions used as ETags for goal and achievement reads. Users
+ * touched by a transaction are collected and bumped in one statement just
+ * before it commits, so a batch of edits costs one bump per user. Versions
+ * are cached for a short time so a revalidation usually needs no query;
+ * local bumps update the cache as soon as they commit.
+ */
+@Component
+public class UserDataVersions {
+
+    private final UserRepository userRepository;
+    private final long cacheTtlMillis;
+    private final Map<Long, CachedVersion> cache;
+
+    @Autowired
+    public UserDataVersions(UserRepository userRepository,
+            @Value("${goaly.versions.cache-size:100000}") int maxUsers,
+            @Value("${goaly.versions.cache-ttl-ms:5000}") long cacheTtlMillis) {
+        this.userRepository = userRepository;
+        this.cacheTtlMillis = cacheTtlMillis;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CachedVersion> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    @EventListener
+    public void onGoalEvent(GoalEvent event) {
+        touch(event.getUserId());
+    }
+
+    /**
+     * A user's current data version
+     */
+    public long current(Long userId) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            CachedVersion cached = cache.get(userId);
+            if (cached != null && now - cached.loadedAtMillis < cacheTtlMillis) {
+                return cached.version;
+            }
+        }
+        long loaded = userRepository.loadDataVersion(userId);
+        return remember(userId, loaded, now);
+    }
+
+    /**
+     * Mark a user's data as changed by the current transaction
+     */
+    public void touch(Long userId) {
+        touch(Set.of(userId));
+    }
+
+    /**
+     * Mark several users' data as changed by the current transaction
+     */
+    public void touch(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(userIds);
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBump pending) {
+                pending.userIds.addAll(userIds);
+                return;
+            }
+        }
+        PendingBump pending = new PendingBump();
+        pending.userIds.addAll(userIds);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    private void bump(Collection<Long> userIds) {
+        Map<Long, Long> versions = userRepository.bumpDataVersions(userIds);
+        long now = System.currentTimeMillis();
+        versions.forEach((userId, version) -> remember(userId, version, now));
+    }
+
+    private long remember(Long userId, long version, long now) {
+        synchronized (cache) {
+            // Versions only move forward; keep the newer of a racing load and bump
+            CachedVersion cached = cache.get(userId);
+            if (cached != null && cached.version > version) {
+                version = cached.version;
+            }
+            cache.put(userId, new CachedVersion(version, now));
+            return version;
+        }
+    }
+
+    private record CachedVersion(long version, long loadedAtMillis) {
+    }
+
+    /**
+     * Users touched by one transaction, bumped as it commits
+     */
+    private final class PendingBump implements TransactionSynchronization {
+
+        private final Set<Long> userIds = new HashSet<>();
+        private Map<Long, Long> versions = Map.of();
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            versions = userRepository.bumpDataVersions(userIds);
+        }
+
+        @Override
+        public void afterCommit() {
+            long now = System.currentTimeMillis();
+            versions.forEach((userId, version) -> remember(userId, version, now));
+        }
+    }
+}
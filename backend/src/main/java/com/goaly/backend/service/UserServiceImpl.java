@@ -17,10 +17,17 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
+    private final AchievementRarity rarity;
+    private final PointsLeaderboard leaderboard;
+    private final UserDataVersions dataVersions;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository, AchievementRarity rarity,
+            PointsLeaderboard leaderboard, UserDataVersions dataVersions) {
         this.userRepository = userRepository;
+        this.rarity = rarity;
+        this.leaderboard = leaderboard;
+        this.dataVersions = dataVersions;
     }
 
     @Override
@@ -31,6 +38,7 @@ public class UserServiceImpl implements UserService {
 
         User user = new User(email, name);
         User savedUser = userRepository.save(user);
+        rarity.recordUserCreated();
         return convertToDto(savedUser);
     }
 
@@ -62,6 +70,10 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
 
+        if (!name.equals(user.getName())) {
+            // Goal responses carry the owner's name
+            dataVersions.touch(id);
+        }
         user.setName(name);
         User updatedUser = userRepository.save(user);
         return convertToDto(updatedUser);
@@ -69,10 +81,11 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public void deleteUser(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("User not found with id: " + id);
-        }
-        userRepository.deleteById(id);
+        // Unlocks cascade away with the user, so take them off the counters and boards too
+        List<Long> unlockedAchievementIds = userRepository.deleteUser(id)
+                .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + id));
+        rarity.recordUserDeleted(unlockedAchievementIds);
+        leaderboard.recordUserDeleted(id);
     }
 
     private UserDto convertToDto(User user) {
@@ -0,0 +1,181 @@
+package com.goaly.backend.service;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+
+import jakarta.persistence.EntityManager;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.entity.UserStreak;
+import com.goaly.backend.event.GoalCompletedEvent;
+import com.goaly.backend.event.GoalDeletedEvent;
+import com.goaly.backend.event.GoalUpdatedEvent;
+import com.goaly.backend.repository.UserRepository;
+import com.goaly.backend.repository.UserStreakRepository;
+import com.goaly.backend.service.criteria.StreakState;
+
+/**
+ * Maintains the persisted user_streaks rows. Goal events are handled inside
+ * the goal change's own transaction: a completion dated no earlier than the
+ * last one is applied in O(1), anything that rewrites history rebuilds the
+ * user's row from goals, as does any later completion in that transaction.
+ */
+@Service
+public class UserStreakService {
+
+    private static final Logger log = LoggerFactory.getLogger(UserStreakService.class);
+
+    private final UserStreakRepository streakRepository;
+    private final UserRepository userRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskExecutor backgroundExecutor;
+    private final long rebuildChunkSize;
+
+    @Autowired
+    public UserStreakService(UserStreakRepository streakRepository,
+            UserRepository userRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("backfillExecutor") TaskExecutor backgroundExecutor,
+            @Value("${goaly.streaks.rebuild-chunk-size:10000}") long rebuildChunkSize) {
+        this.streakRepository = streakRepository;
+        this.userRepository = userRepository;
+        this.entityManager = entityManager;
+        this.backgroundExecutor = backgroundExecutor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.rebuildChunkSize = rebuildChunkSize;
+    }
+
+    @EventListener
+    public void onGoalCompleted(GoalCompletedEvent event) {
+        recordCompletion(event.getUserId(), event.getCompletionDate());
+    }
+
+    @EventListener
+    public void onGoalUpdated(GoalUpdatedEvent event) {
+        if (event.isStatusChanged() && event.getPreviousStatus() == GoalStatus.COMPLETED) {
+            rebuildUser(event.getUserId());
+        }
+    }
+
+    @EventListener
+    public void onGoalDeleted(GoalDeletedEvent event) {
+        if (event.getStatus() == GoalStatus.COMPLETED) {
+            rebuildUser(event.getUserId());
+        }
+    }
+
+    /**
+     * Advance a user's streak by one completion
+     */
+    @Transactional
+    public void recordCompletion(Long userId, LocalDate completionDate) {
+        long day = completionDate.toEpochDay();
+        if (rebuiltUsers().contains(userId)) {
+            // The earlier rebuild read every flushed goal, possibly this one already
+            rebuildUser(userId);
+            return;
+        }
+        UserStreak streak = streakRepository.findForUpdate(userId).orElse(null);
+        if (streak == null || !streak.toState().canAppend(day)) {
+            rebuildUser(userId);
+            return;
+        }
+        streak.apply(streak.toState().append(day));
+        streakRepository.save(streak);
+    }
+
+    /**
+     * Recompute one user's streak from their completed goals
+     */
+    @Transactional
+    public void rebuildUser(Long userId) {
+        streakRepository.flush();
+        streakRepository.rebuildRange(userId - 1, userId);
+        // The rebuild bypasses the persistence context; evict any copy loaded
+        // earlier in this transaction so later reads and saves see the new row
+        entityManager.detach(entityManager.getReference(UserStreak.class, userId));
+        rebuiltUsers().add(userId);
+    }
+
+    /**
+     * A user's persisted streak state, or null if they have no row yet
+     */
+    @Transactional(readOnly = true)
+    public StreakState getState(Long userId) {
+        return streakRepository.findById(userId).map(UserStreak::toState).orElse(null);
+    }
+
+    /**
+     * Run {@link #rebuildAll()} in the background
+     */
+    public void startRebuild() {
+        backgroundExecutor.execute(this::rebuildAll);
+    }
+
+    /**
+     * Rebuild every user's streak from goals, one id range per transaction.
+     * Creates rows for users who completed goals before the tracker existed.
+     *
+     * @return number of users with a streak
+     */
+    @Scheduled(cron = "${goaly.streaks.rebuild-cron:0 0 4 * * *}")
+    public long rebuildAll() {
+        Long maxUserId = userRepository.findMaxId();
+        if (maxUserId == null) {
+            return 0;
+        }
+        long rebuilt = 0;
+        for (long start = 0; start < maxUserId; start += rebuildChunkSize) {
+            long afterId = start;
+            long untilId = Math.min(start + rebuildChunkSize, maxUserId);
+            Integer rows = transactionTemplate.execute(status -> streakRepository.rebuildRange(afterId, untilId));
+            rebuilt += rows != null ? rows : 0;
+        }
+        log.info("Rebuilt completion streaks for {} users", rebuilt);
+        return rebuilt;
+    }
+
+    private Set<Long> rebuiltUsers() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new HashSet<>();
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof RebuiltUsers rebuilt) {
+                return rebuilt.userIds;
+            }
+        }
+        RebuiltUsers rebuilt = new RebuiltUsers();
+        TransactionSynchronizationManager.registerSynchronization(rebuilt);
+        return rebuilt.userIds;
+    }
+
+    /**
+     * Users rebuilt from goals in the current transaction. Goal batches flush
+     * every operation before publishing events, so a completion handled after
+     * such a rebuild may already be counted and must not be appended again.
+     */
+    private static final class RebuiltUsers implements TransactionSynchronization {
+
+        private final Set<Long> userIds = new HashSet<>();
+    }
+}
@@ -0,0 +1,54 @@
+package com.goaly.backend.service.criteria;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * Compiled criteria of a single achievement, tagged with the version of the
+ * achievement row it was compiled from
+ */
+public final class CompiledCriteria {
+
+    private final Long achievementId;
+    private final LocalDateTime updatedAt;
+    private final CriteriaPredicate predicate;
+    private final Set<CriteriaMetric> metrics;
+    private final String sqlCondition;
+
+    public CompiledCriteria(Long achievementId, LocalDateTime updatedAt, CriteriaPredicate predicate) {
+        this.achievementId = achievementId;
+        this.updatedAt = updatedAt;
+        this.predicate = predicate;
+        this.metrics = Collections.unmodifiableSet(predicate.metrics());
+        this.sqlCondition = CriteriaSql.toCondition(predicate);
+    }
+
+    public boolean test(CriteriaContext context) {
+        return predicate.test(context);
+    }
+
+    public Long getAchievementId() {
+        return achievementId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public CriteriaPredicate getPredicate() {
+        return predicate;
+    }
+
+    public Set<CriteriaMetric> getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Equivalent SQL aggregate condition, or null if the criteria must be
+     * evaluated in Java
+     */
+    public String getSqlCondition() {
+        return sqlCondition;
+    }
+}
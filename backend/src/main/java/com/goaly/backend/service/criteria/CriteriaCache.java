@@ -0,0 +1,103 @@
+package com.goaly.backend.service.criteria;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.goaly.backend.entity.Achievement;
+import com.goaly.backend.exception.ValidationException;
+
+/**
+ * Cache of compiled achievement criteria keyed by achievement id. An entry is
+ * only reused while the achievement's {@code updatedAt} matches the one it was
+ * compiled from, so edits made outside the service are picked up on the next
+ * lookup.
+ */
+@Component
+public class CriteriaCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CriteriaCache.class);
+
+    /**
+     * Rules for the original built-in achievements, used when their stored
+     * criteria is a human readable description rather than an expression
+     */
+    private static final Map<String, String> LEGACY_RULES = Map.of(
+            "First Steps", "goals_created >= 1",
+            "Goal Crusher", "goals_completed >= 1",
+            "Overachiever", "goals_completed >= 10",
+            "Century Club", "goals_completed >= 100",
+            "Planning Pro", "goals_with_target_date >= 5",
+            "Priority Master", "high_priority_completed >= 5",
+            "Speed Demon", "fastest_completion_hours <= 24",
+            "Early Bird", "early_completions >= 1",
+            "Streak Master", "longest_streak >= 5",
+            "Consistency King", "weekly_streak >= 4");
+
+    private final Map<Long, CompiledCriteria> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Get the compiled criteria for an achievement, compiling it if the cached
+     * entry is missing or stale
+     */
+    public CompiledCriteria get(Achievement achievement) {
+        CompiledCriteria cached = cache.get(achievement.getId());
+        if (cached != null && Objects.equals(cached.getUpdatedAt(), achievement.getUpdatedAt())) {
+            return cached;
+        }
+        return reload(achievement);
+    }
+
+    /**
+     * Recompile and cache the criteria for an achievement
+     */
+    public CompiledCriteria reload(Achievement achievement) {
+        CompiledCriteria compiled = new CompiledCriteria(
+                achievement.getId(), achievement.getUpdatedAt(), compile(achievement));
+        cache.put(achievement.getId(), compiled);
+        return compiled;
+    }
+
+    /**
+     * Drop the cached criteria for a deleted achievement
+     */
+    public void evict(Long achievementId) {
+        cache.remove(achievementId);
+    }
+
+    /**
+     * Check that submitted criteria can be compiled before it is saved. The
+     * legacy rules never apply here, whatever the achievement is called.
+     */
+    public void validate(String criteria) {
+        CriteriaParser.parse(criteria);
+    }
+
+    /**
+     * Check that a stored achievement keeps a rule under a new name: its
+     * criteria must compile unless the name maps to a legacy rule
+     */
+    public void validateRename(String name, String storedCriteria) {
+        if (!LEGACY_RULES.containsKey(name)) {
+            CriteriaParser.parse(storedCriteria);
+        }
+    }
+
+    private CriteriaPredicate compile(Achievement achievement) {
+        try {
+            return CriteriaParser.parse(achievement.getCriteria());
+        } catch (ValidationException e) {
+            String legacyRule = LEGACY_RULES.get(achievement.getName());
+            if (legacyRule != null) {
+                return CriteriaParser.parse(legacyRule);
+            }
+            log.warn("Achievement {} has invalid criteria and can never unlock: {}",
+                    achievement.getId(), e.getMessage());
+            return CriteriaPredicate.Constant.FALSE;
+        }
+    }
+}
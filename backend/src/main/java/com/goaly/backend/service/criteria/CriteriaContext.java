@@ -0,0 +1,11 @@
+package com.goaly.backend.service.criteria;
+
+/**
+ * Source of metric values that a compiled criteria predicate is evaluated
+ * against
+ */
+@FunctionalInterface
+public interface CriteriaContext {
+
+    long value(CriteriaMetric metric);
+}
@@ -0,0 +1,48 @@
+package com.goaly.backend.service.criteria;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Goal metrics that achievement criteria can be written against
+ */
+public enum CriteriaMetric {
+
+    GOALS_CREATED("goals_created"),
+    GOALS_COMPLETED("goals_completed"),
+    GOALS_WITH_TARGET_DATE("goals_with_target_date"),
+    HIGH_PRIORITY_COMPLETED("high_priority_completed"),
+    EARLY_COMPLETIONS("early_completions"),
+    FASTEST_COMPLETION_HOURS("fastest_completion_hours"),
+    LONGEST_STREAK("longest_streak"),
+    WEEKLY_STREAK("weekly_streak");
+
+    private static final Map<String, CriteriaMetric> BY_KEY = new HashMap<>();
+
+    static {
+        for (CriteriaMetric metric : values()) {
+            BY_KEY.put(metric.key, metric);
+        }
+    }
+
+    private final String key;
+
+    CriteriaMetric(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Name of the metric as written in criteria expressions
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Resolve a metric from its expression key, or null if unknown
+     */
+    public static CriteriaMetric fromKey(String key) {
+        return BY_KEY.get(key.toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,210 @@
+package com.goaly.backend.service.criteria;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.service.criteria.CriteriaPredicate.Operator;
+
+/**
+ * Compiles the achievement criteria DSL into an immutable predicate tree.
+ *
+ * <pre>
+ * expression := or
+ * or         := and ( ("OR" | "||") and )*
+ * and        := unary ( ("AND" | "&&") unary )*
+ * unary      := ("NOT" | "!") unary | "(" expression ")" | "true" | "false" | comparison
+ * comparison := metric ( ">=" | ">" | "<=" | "<" | "==" | "=" | "!=" ) integer
+ * </pre>
+ *
+ * Metric names are the keys of {@link CriteriaMetric}, e.g.
+ * {@code goals_completed >= 10 AND high_priority_completed >= 5}.
+ */
+public final class CriteriaParser {
+
+    private final String source;
+    private final List<String> tokens;
+    private int position;
+
+    private CriteriaParser(String source) {
+        this.source = source;
+        this.tokens = tokenize(source);
+    }
+
+    /**
+     * Parse a criteria expression, throwing {@link ValidationException} if it
+     * is not valid
+     */
+    public static CriteriaPredicate parse(String source) {
+        if (source == null || source.isBlank()) {
+            throw new ValidationException("Criteria expression is empty");
+        }
+        CriteriaParser parser = new CriteriaParser(source);
+        CriteriaPredicate predicate = parser.parseOr();
+        if (parser.position < parser.tokens.size()) {
+            throw parser.error("Unexpected token '" + parser.peek() + "'");
+        }
+        return predicate;
+    }
+
+    private CriteriaPredicate parseOr() {
+        List<CriteriaPredicate> operands = new ArrayList<>();
+        operands.add(parseAnd());
+        while (acceptKeyword("OR") || accept("||")) {
+            operands.add(parseAnd());
+        }
+        return operands.size() == 1 ? operands.get(0) : new CriteriaPredicate.Or(operands);
+    }
+
+    private CriteriaPredicate parseAnd() {
+        List<CriteriaPredicate> operands = new ArrayList<>();
+        operands.add(parseUnary());
+        while (acceptKeyword("AND") || accept("&&")) {
+            operands.add(parseUnary());
+        }
+        return operands.size() == 1 ? operands.get(0) : new CriteriaPredicate.And(operands);
+    }
+
+    private CriteriaPredicate parseUnary() {
+        if (acceptKeyword("NOT") || accept("!")) {
+            return new CriteriaPredicate.Not(parseUnary());
+        }
+        if (accept("(")) {
+            CriteriaPredicate inner = parseOr();
+            expect(")");
+            return inner;
+        }
+        if (acceptKeyword("TRUE")) {
+            return CriteriaPredicate.Constant.TRUE;
+        }
+        if (acceptKeyword("FALSE")) {
+            return CriteriaPredicate.Constant.FALSE;
+        }
+        return parseComparison();
+    }
+
+    private CriteriaPredicate parseComparison() {
+        String name = next("metric name");
+        CriteriaMetric metric = CriteriaMetric.fromKey(name);
+        if (metric == null) {
+            throw error("Unknown metric '" + name + "'");
+        }
+        Operator operator = parseOperator(next("comparison operator"));
+        String number = next("number");
+        long threshold;
+        try {
+            threshold = Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            throw error("Expected a number but found '" + number + "'");
+        }
+        return new CriteriaPredicate.Comparison(metric, operator, threshold);
+    }
+
+    private Operator parseOperator(String token) {
+        switch (token) {
+            case ">":
+                return Operator.GT;
+            case ">=":
+                return Operator.GE;
+            case "<":
+                return Operator.LT;
+            case "<=":
+                return Operator.LE;
+            case "=":
+            case "==":
+                return Operator.EQ;
+            case "!=":
+                return Operator.NE;
+            default:
+                throw error("Expected a comparison operator but found '" + token + "'");
+        }
+    }
+
+    private String peek() {
+        return position < tokens.size() ? tokens.get(position) : null;
+    }
+
+    private String next(String expected) {
+        if (position >= tokens.size()) {
+            throw error("Expected " + expected + " but reached end of expression");
+        }
+        return tokens.get(position++);
+    }
+
+    private boolean accept(String token) {
+        if (token.equals(peek())) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean acceptKeyword(String keyword) {
+        String token = peek();
+        if (token != null && token.toUpperCase(Locale.ROOT).equals(keyword)) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(String token) {
+        if (!accept(token)) {
+            throw error("Expected '" + token + "'");
+        }
+    }
+
+    private ValidationException error(String message) {
+        return new ValidationException("Invalid criteria '" + source + "': " + message);
+    }
+
+    private static List<String> tokenize(String source) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < source.length()) {
+            char c = source.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (Character.isLetter(c) || c == '_') {
+                int start = i;
+                while (i < source.length()
+                        && (Character.isLetterOrDigit(source.charAt(i)) || source.charAt(i) == '_')) {
+                    i++;
+                }
+                tokens.add(source.substring(start, i));
+            } else if (Character.isDigit(c) || (c == '-' && i + 1 < source.length()
+                    && Character.isDigit(source.charAt(i + 1)))) {
+                int start = i++;
+                while (i < source.length() && Character.isDigit(source.charAt(i))) {
+                    i++;
+                }
+                tokens.add(source.substring(start, i));
+            } else if (i + 1 < source.length() && isTwoCharOperator(source.substring(i, i + 2))) {
+                tokens.add(source.substring(i, i + 2));
+                i += 2;
+            } else if ("()<>=!".indexOf(c) >= 0) {
+                tokens.add(String.valueOf(c));
+                i++;
+            } else {
+                throw new ValidationException("Invalid criteria '" + source
+                        + "': Unexpected character '" + c + "'");
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isTwoCharOperator(String candidate) {
+        switch (candidate) {
+            case ">=":
+            case "<=":
+            case "==":
+            case "!=":
+            case "&&":
+            case "||":
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package com.goaly.backend.service.criteria;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable node of a compiled achievement criteria expression. Evaluation
+ * only reads primitive metric values from the context, so checking a rule
+ * does not allocate.
+ */
+public interface CriteriaPredicate {
+
+    boolean test(CriteriaContext context);
+
+    /**
+     * Add every metric referenced by this node to the given set
+     */
+    void collectMetrics(Set<CriteriaMetric> metrics);
+
+    default Set<CriteriaMetric> metrics() {
+        Set<CriteriaMetric> metrics = EnumSet.noneOf(CriteriaMetric.class);
+        collectMetrics(metrics);
+        return metrics;
+    }
+
+    enum Operator {
+        GT(">"), GE(">="), LT("<"), LE("<="), EQ("=="), NE("!=");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        public String getSymbol() {
+            return symbol;
+        }
+
+        boolean apply(long left, long right) {
+            switch (this) {
+                case GT:
+                    return left > right;
+                case GE:
+                    return left >= right;
+                case LT:
+                    return left < right;
+                case LE:
+                    return left <= right;
+                case EQ:
+                    return left == right;
+                default:
+                    return left != right;
+            }
+        }
+    }
+
+    final class Comparison implements CriteriaPredicate {
+
+        private final CriteriaMetric metric;
+        private final Operator operator;
+        private final long threshold;
+
+        public Comparison(CriteriaMetric metric, Operator operator, long threshold) {
+            this.metric = metric;
+            this.operator = operator;
+            this.threshold = threshold;
+        }
+
+        @Override
+        public boolean test(CriteriaContext context) {
+            return operator.apply(context.value(metric), threshold);
+        }
+
+        @Override
+        public void collectMetrics(Set<CriteriaMetric> metrics) {
+            metrics.add(metric);
+        }
+
+        public CriteriaMetric getMetric() {
+            return metric;
+        }
+
+        public Operator getOperator() {
+            return operator;
+        }
+
+        public long getThreshold() {
+            return threshold;
+        }
+    }
+
+    final class And implements CriteriaPredicate {
+
+        private final CriteriaPredicate[] operands;
+
+        public And(List<CriteriaPredicate> operands) {
+            this.operands = operands.toArray(new CriteriaPredicate[0]);
+        }
+
+        @Override
+        public boolean test(CriteriaContext context) {
+            for (CriteriaPredicate operand : operands) {
+                if (!operand.test(context)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void collectMetrics(Set<CriteriaMetric> metrics) {
+            for (CriteriaPredicate operand : operands) {
+                operand.collectMetrics(metrics);
+            }
+        }
+
+        public List<CriteriaPredicate> getOperands() {
+            return List.of(operands);
+        }
+    }
+
+    final class Or implements CriteriaPredicate {
+
+        private final CriteriaPredicate[] operands;
+
+        public Or(List<CriteriaPredicate> operands) {
+            this.operands = operands.toArray(new CriteriaPredicate[0]);
+        }
+
+        @Override
+        public boolean test(CriteriaContext context) {
+            for (CriteriaPredicate operand : operands) {
+                if (operand.test(context)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void collectMetrics(Set<CriteriaMetric> metrics) {
+            for (CriteriaPredicate operand : operands) {
+                operand.collectMetrics(metrics);
+            }
+        }
+
+        public List<CriteriaPredicate> getOperands() {
+            return List.of(operands);
+        }
+    }
+
+    final class Not implements CriteriaPredicate {
+
+        private final CriteriaPredicate operand;
+
+        public Not(CriteriaPredicate operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        public boolean test(CriteriaContext context) {
+            return !operand.test(context);
+        }
+
+        @Override
+        public void collectMetrics(Set<CriteriaMetric> metrics) {
+            operand.collectMetrics(metrics);
+        }
+
+        public CriteriaPredicate getOperand() {
+            return operand;
+        }
+    }
+
+    final class Constant implements CriteriaPredicate {
+
+        public static final Constant TRUE = new Constant(true);
+        public static final Constant FALSE = new Constant(false);
+
+        private final boolean value;
+
+        private Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean test(CriteriaContext context) {
+            return value;
+        }
+
+        @Override
+        public void collectMetrics(Set<CriteriaMetric> metrics) {
+        }
+
+        public boolean getValue() {
+            return value;
+        }
+    }
+}
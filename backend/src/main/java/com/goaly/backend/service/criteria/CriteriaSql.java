@@ -0,0 +1,127 @@
+package com.goaly.backend.service.criteria;
+
+import java.util.List;
+
+/**
+ * Translates compiled criteria into a SQL boolean over aggregates of the goals
+ * table, aliased {@code g} and grouped by user. The text is built only from
+ * enum constants and numeric literals, never from the raw criteria string.
+ * Streak metrics have no aggregate form, so criteria that read them stay on
+ * the Java path.
+ */
+public final class CriteriaSql {
+
+    /** Value of fastest_completion_hours for a user with no completions */
+    private static final String NO_COMPLETION_HOURS = Long.toString(Long.MAX_VALUE);
+
+    private CriteriaSql() {
+    }
+
+    /**
+     * SQL condition equivalent to the predicate, or null if it reads a metric
+     * that cannot be aggregated in SQL
+     */
+    public static String toCondition(CriteriaPredicate predicate) {
+        StringBuilder sql = new StringBuilder();
+        return append(predicate, sql) ? sql.toString() : null;
+    }
+
+    /**
+     * Aggregate expression for one metric, or null if it has none
+     */
+    public static String aggregate(CriteriaMetric metric) {
+        switch (metric) {
+            case GOALS_CREATED:
+                return "COUNT(g.id)";
+            case GOALS_COMPLETED:
+                return "COUNT(g.id) FILTER (WHERE g.status = 'COMPLETED')";
+            case GOALS_WITH_TARGET_DATE:
+                return "COUNT(g.target_date)";
+            case HIGH_PRIORITY_COMPLETED:
+                return "COUNT(g.id) FILTER (WHERE g.status = 'COMPLETED' AND g.priority = 'HIGH')";
+            case EARLY_COMPLETIONS:
+                return "COUNT(g.id) FILTER (WHERE g.status = 'COMPLETED' AND g.completion_date < g.target_date)";
+            case FASTEST_COMPLETION_HOURS:
+                // Whole hours from creation to the start of the completion day, in local time
+                return "COALESCE(MIN(TRUNC(EXTRACT(EPOCH FROM "
+                        + "(g.completion_date::timestamp - g.created_at::timestamp)) / 3600)::bigint) "
+                        + "FILTER (WHERE g.status = 'COMPLETED' AND g.completion_date IS NOT NULL), "
+                        + NO_COMPLETION_HOURS + ")";
+            default:
+                return null;
+        }
+    }
+
+    public static boolean hasAggregate(CriteriaMetric metric) {
+        return aggregate(metric) != null;
+    }
+
+    private static boolean append(CriteriaPredicate predicate, StringBuilder sql) {
+        if (predicate instanceof CriteriaPredicate.Comparison) {
+            CriteriaPredicate.Comparison comparison = (CriteriaPredicate.Comparison) predicate;
+            String aggregate = aggregate(comparison.getMetric());
+            if (aggregate == null) {
+                return false;
+            }
+            sql.append('(').append(aggregate).append(' ')
+                    .append(operator(comparison.getOperator())).append(' ')
+                    .append(comparison.getThreshold()).append(')');
+            return true;
+        }
+        if (predicate instanceof CriteriaPredicate.And) {
+            return appendAll(((CriteriaPredicate.And) predicate).getOperands(), " AND ", sql);
+        }
+        if (predicate instanceof CriteriaPredicate.Or) {
+            return appendAll(((CriteriaPredicate.Or) predicate).getOperands(), " OR ", sql);
+        }
+        if (predicate instanceof CriteriaPredicate.Not) {
+            sql.append("(NOT ");
+            if (!append(((CriteriaPredicate.Not) predicate).getOperand(), sql)) {
+                return false;
+            }
+            sql.append(')');
+            return true;
+        }
+        if (predicate instanceof CriteriaPredicate.Constant) {
+            sql.append(((CriteriaPredicate.Constant) predicate).getValue() ? "TRUE" : "FALSE");
+            return true;
+        }
+        return false;
+    }
+
+    private static boolean appendAll(List<CriteriaPredicate> operands, String joiner, StringBuilder sql) {
+        if (operands.isEmpty()) {
+            // Matches the Java evaluation of an empty AND / OR
+            sql.append(joiner.equals(" AND ") ? "TRUE" : "FALSE");
+            return true;
+        }
+        sql.append('(');
+        for (int i = 0; i < operands.size(); i++) {
+            if (i > 0) {
+                sql.append(joiner);
+            }
+            if (!append(operands.get(i), sql)) {
+                return false;
+            }
+        }
+        sql.append(')');
+        return true;
+    }
+
+    private static String operator(CriteriaPredicate.Operator operator) {
+        switch (operator) {
+            case GT:
+                return ">";
+            case GE:
+                return ">=";
+            case LT:
+                return "<";
+            case LE:
+                return "<=";
+            case EQ:
+                return "=";
+            default:
+                return "<>";
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.goaly.backend.service.criteria;
+
+/**
+ * Running streak state for one user, advanced one completion at a time in
+ * date order. The same fold rebuilds it from history, so the incremental and
+ * offline paths agree by construction.
+ */
+public final class StreakState {
+
+    /** Maximum gap in days between completions that still continues a streak */
+    public static final int STREAK_GAP_DAYS = 7;
+
+    /** Days of completion history kept in the recent-days bitmap */
+    public static final int RECENT_DAYS = Long.SIZE;
+
+    public static final StreakState EMPTY = new StreakState(Long.MIN_VALUE, 0, 0, Long.MIN_VALUE, 0L);
+
+    private final long lastCompletionDay;
+    private final int currentStreak;
+    private final int bestStreak;
+    private final long runStartDay;
+    private final long recentDays;
+
+    /**
+     * @param lastCompletionDay epoch day of the latest completion
+     * @param currentStreak completions in the run ending at the latest completion
+     * @param bestStreak longest run seen so far
+     * @param runStartDay epoch day of the first completion in the current run
+     * @param recentDays bit i set when something was completed i days before
+     *        the latest completion
+     */
+    public StreakState(long lastCompletionDay, int currentStreak, int bestStreak, long runStartDay,
+            long recentDays) {
+        this.lastCompletionDay = lastCompletionDay;
+        this.currentStreak = currentStreak;
+        this.bestStreak = bestStreak;
+        this.runStartDay = runStartDay;
+        this.recentDays = recentDays;
+    }
+
+    /**
+     * Fold sorted completion days into a streak state
+     */
+    public static StreakState of(long[] sortedDays) {
+        StreakState state = EMPTY;
+        for (long day : sortedDays) {
+            state = state.append(day);
+        }
+        return state;
+    }
+
+    public boolean isEmpty() {
+        return currentStreak == 0;
+    }
+
+    /**
+     * Whether a completion on this day can be applied incrementally; earlier
+     * days need a rebuild from history
+     */
+    public boolean canAppend(long epochDay) {
+        return isEmpty() || epochDay >= lastCompletionDay;
+    }
+
+    /**
+     * State after one more completion on a day no earlier than the last one
+     */
+    public StreakState append(long epochDay) {
+        if (isEmpty()) {
+            return new StreakState(epochDay, 1, 1, epochDay, 1L);
+        }
+        if (epochDay < lastCompletionDay) {
+            throw new IllegalArgumentException("Completions must be appended in date order");
+        }
+        long gap = epochDay - lastCompletionDay;
+        boolean continues = gap <= STREAK_GAP_DAYS;
+        int current = continues ? currentStreak + 1 : 1;
+        long shifted = gap >= RECENT_DAYS ? 0L : recentDays << gap;
+        return new StreakState(epochDay, current, Math.max(bestStreak, current),
+                continues ? runStartDay : epochDay, shifted | 1L);
+    }
+
+    /**
+     * Consecutive 7-day windows, counting back from today, that each contain
+     * a completion. Windows that overlap the current run always do, because a
+     * run never leaves seven empty days; older windows are read from the
+     * recent-days bitmap. A streak that bridges gaps further back than the
+     * bitmap reaches stops there, so values are exact up to nine weeks.
+     */
+    public int weeklyStreak(long todayEpochDay) {
+        if (isEmpty()) {
+            return 0;
+        }
+        int weeks = 0;
+        while (windowHasCompletion(todayEpochDay - 7L * weeks - 6, todayEpochDay - 7L * weeks)) {
+            weeks++;
+        }
+        return weeks;
+    }
+
+    private boolean windowHasCompletion(long start, long end) {
+        if (start > lastCompletionDay) {
+            return false;
+        }
+        if (end >= runStartDay) {
+            return true;
+        }
+        long oldestTracked = lastCompletionDay - (RECENT_DAYS - 1);
+        for (long day = Math.max(start, oldestTracked); day <= end; day++) {
+            if ((recentDays & (1L << (lastCompletionDay - day))) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long getLastCompletionDay() {
+        return lastCompletionDay;
+    }
+
+    public int getCurrentStreak() {
+        return currentStreak;
+    }
+
+    public int getBestStreak() {
+        return bestStreak;
+    }
+
+    public long getRunStartDay() {
+        return runStartDay;
+    }
+
+    public long getRecentDays() {
+        return recentDays;
+    }
+}
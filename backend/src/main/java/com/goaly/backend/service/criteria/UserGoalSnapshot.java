@@ -0,0 +1,179 @@
+package com.goaly.backend.service.criteria;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+
+import com.goaly.backend.entity.Goal;
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+/**
+ * Aggregate view of a user's goals, built in a single pass and shared by every
+ * rule checked in one evaluation
+ */
+public final class UserGoalSnapshot implements CriteriaContext {
+
+    private final int[][] countsByStatusAndPriority;
+    private final int totalGoals;
+    private final int goalsWithTargetDate;
+    private final int earlyCompletions;
+    private final long fastestCompletionHours;
+    private final long[] completionEpochDays;
+    private final int longestStreak;
+    private final int weeklyStreak;
+
+    private UserGoalSnapshot(Builder builder, LocalDate today) {
+        this.countsByStatusAndPriority = new int[builder.countsByStatusAndPriority.length][];
+        for (int i = 0; i < countsByStatusAndPriority.length; i++) {
+            countsByStatusAndPriority[i] = builder.countsByStatusAndPriority[i].clone();
+        }
+        this.totalGoals = builder.totalGoals;
+        this.goalsWithTargetDate = builder.goalsWithTargetDate;
+        this.earlyCompletions = builder.earlyCompletions;
+        this.fastestCompletionHours = builder.fastestCompletionHours;
+        // Prefer the persisted tracker; folding the history gives the same values
+        StreakState streak = builder.streak;
+        if (streak != null) {
+            this.completionEpochDays = new long[0];
+        } else {
+            this.completionEpochDays = Arrays.copyOf(builder.completionEpochDays, builder.completionCount);
+            Arrays.sort(completionEpochDays);
+            streak = StreakState.of(completionEpochDays);
+        }
+        this.longestStreak = streak.getBestStreak();
+        this.weeklyStreak = streak.weeklyStreak(today.toEpochDay());
+    }
+
+    public static UserGoalSnapshot of(List<Goal> goals, LocalDate today) {
+        return of(goals, null, today);
+    }
+
+    /**
+     * Snapshot whose streak metrics come from a persisted tracker instead of
+     * the goal history, when one is given
+     */
+    public static UserGoalSnapshot of(List<Goal> goals, StreakState streak, LocalDate today) {
+        Builder builder = builder().streak(streak);
+        for (Goal goal : goals) {
+            builder.add(goal.getStatus(), goal.getPriority(), goal.getTargetDate(),
+                    goal.getCompletionDate(), goal.getCreatedAt());
+        }
+        return builder.build(today);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public long value(CriteriaMetric metric) {
+        switch (metric) {
+            case GOALS_CREATED:
+                return totalGoals;
+            case GOALS_COMPLETED:
+                return countByStatus(GoalStatus.COMPLETED);
+            case GOALS_WITH_TARGET_DATE:
+                return goalsWithTargetDate;
+            case HIGH_PRIORITY_COMPLETED:
+                return countsByStatusAndPriority[GoalStatus.COMPLETED.ordinal()][GoalPriority.HIGH.ordinal()];
+            case EARLY_COMPLETIONS:
+                return earlyCompletions;
+            case FASTEST_COMPLETION_HOURS:
+                return fastestCompletionHours;
+            case LONGEST_STREAK:
+                return longestStreak;
+            case WEEKLY_STREAK:
+                return weeklyStreak;
+            default:
+                return 0;
+        }
+    }
+
+    public int countByStatus(GoalStatus status) {
+        int count = 0;
+        for (int c : countsByStatusAndPriority[status.ordinal()]) {
+            count += c;
+        }
+        return count;
+    }
+
+    public int countByStatusAndPriority(GoalStatus status, GoalPriority priority) {
+        return countsByStatusAndPriority[status.ordinal()][priority.ordinal()];
+    }
+
+    public int getTotalGoals() {
+        return totalGoals;
+    }
+
+    /**
+     * Completion dates of completed goals as sorted epoch days; empty when
+     * the snapshot was built with a persisted streak, which needs none
+     */
+    public long[] getCompletionEpochDays() {
+        return completionEpochDays.clone();
+    }
+
+    /**
+     * Accumulates goal rows one at a time so snapshots can be built from
+     * entities or straight from a JDBC result set
+     */
+    public static final class Builder {
+
+        private final int[][] countsByStatusAndPriority =
+                new int[GoalStatus.values().length][GoalPriority.values().length];
+        private int totalGoals;
+        private int goalsWithTargetDate;
+        private int earlyCompletions;
+        private long fastestCompletionHours = Long.MAX_VALUE;
+        private long[] completionEpochDays = new long[16];
+        private int completionCount;
+        private StreakState streak;
+
+        private Builder() {
+        }
+
+        /**
+         * Use persisted streak state rather than folding the completion
+         * dates, which are then not collected; set it before adding goals
+         */
+        public Builder streak(StreakState streak) {
+            this.streak = streak;
+            return this;
+        }
+
+        public Builder add(GoalStatus status, GoalPriority priority, LocalDate targetDate,
+                LocalDate completionDate, LocalDateTime createdAt) {
+            GoalStatus effectiveStatus = status != null ? status : GoalStatus.ACTIVE;
+            GoalPriority effectivePriority = priority != null ? priority : GoalPriority.MEDIUM;
+            countsByStatusAndPriority[effectiveStatus.ordinal()][effectivePriority.ordinal()]++;
+            totalGoals++;
+            if (targetDate != null) {
+                goalsWithTargetDate++;
+            }
+
+            if (effectiveStatus == GoalStatus.COMPLETED && completionDate != null) {
+                if (targetDate != null && completionDate.isBefore(targetDate)) {
+                    earlyCompletions++;
+                }
+                if (createdAt != null) {
+                    long hours = ChronoUnit.HOURS.between(createdAt, completionDate.atStartOfDay());
+                    fastestCompletionHours = Math.min(fastestCompletionHours, hours);
+                }
+                if (streak == null) {
+                    if (completionCount == completionEpochDays.length) {
+                        completionEpochDays = Arrays.copyOf(completionEpochDays, completionCount * 2);
+                    }
+                    completionEpochDays[completionCount++] = completionDate.toEpochDay();
+                }
+            }
+            return this;
+        }
+
+        public UserGoalSnapshot build(LocalDate today) {
+            return new UserGoalSnapshot(this, today);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.goaly.backend.service.digest;
+
+import java.util.List;
+
+/**
+ * Delivers goal digests. The digest job hands over digests in batches and
+ * waits for each call to return before reading further, so a slow sender
+ * slows the scan instead of piling digests up in memory.
+ */
+public interface DigestSender {
+
+    void send(List<GoalDigest> digests);
+}
@@ -0,0 +1,58 @@
+package com.goaly.backend.service.digest;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import com.goaly.backend.entity.Goal.GoalPriority;
+
+/**
+ * One user's reminder digest: active goals already past their target date and
+ * those coming due, each in target date order
+ */
+public final class GoalDigest {
+
+    /** A goal listed in a digest */
+    public record Item(Long goalId, String title, GoalPriority priority, LocalDate targetDate) {
+    }
+
+    private final Long userId;
+    private final String email;
+    private final String name;
+    private final LocalDate date;
+    private final List<Item> overdue;
+    private final List<Item> upcoming;
+
+    public GoalDigest(Long userId, String email, String name, LocalDate date, List<Item> overdue,
+            List<Item> upcoming) {
+        this.userId = userId;
+        this.email = email;
+        this.name = name;
+        this.date = date;
+        this.overdue = List.copyOf(overdue);
+        this.upcoming = List.copyOf(upcoming);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public List<Item> getOverdue() {
+        return overdue;
+    }
+
+    public List<Item> getUpcoming() {
+        return upcoming;
+    }
+}
@@ -0,0 +1,180 @@
+package com.goaly.backend.service.digest;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.goaly.backend.repository.GoalDigestRow;
+import com.goaly.backend.repository.GoalRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Builds the daily reminder digest for every user in one pass. A single
+ * cursor query streams active goals due in the window in (user_id,
+ * target_date) order; rows are folded into the current user's digest and
+ * digests are handed to the {@link DigestSender} in fixed-size batches, so
+ * memory stays bounded by one batch whatever the number of users.
+ */
+@Service
+public class GoalDigestJob {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalDigestJob.class);
+
+    private final GoalRepository goalRepository;
+    private final DigestSender sender;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int overdueDays;
+    private final int upcomingDays;
+    private final int batchSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private final Counter rows;
+    private final Counter digests;
+    private final Counter batches;
+    private final Timer runTimer;
+    private volatile long lastCompletedAtMillis = System.currentTimeMillis();
+    private volatile double lastDigestsPerSecond;
+
+    @Autowired
+    public GoalDigestJob(GoalRepository goalRepository, DigestSender sender,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${goaly.digest.overdue-days:30}") int overdueDays,
+            @Value("${goaly.digest.upcoming-days:7}") int upcomingDays,
+            @Value("${goaly.digest.batch-size:500}") int batchSize) {
+        this.goalRepository = goalRepository;
+        this.sender = sender;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.overdueDays = overdueDays;
+        this.upcomingDays = upcomingDays;
+        this.batchSize = batchSize;
+
+        this.rows = Counter.builder("goal.digest.rows")
+                .description("Goal rows streamed into digests")
+                .register(meterRegistry);
+        this.digests = Counter.builder("goal.digest.digests")
+                .description("Digests handed to the sender")
+                .register(meterRegistry);
+        this.batches = Counter.builder("goal.digest.batches")
+                .description("Digest batches handed to the sender")
+                .register(meterRegistry);
+        this.runTimer = Timer.builder("goal.digest.run")
+                .description("Duration of a full digest run")
+                .register(meterRegistry);
+        Gauge.builder("goal.digest.lag.seconds", this,
+                        job -> (System.currentTimeMillis() - job.lastCompletedAtMillis) / 1000.0)
+                .description("Seconds since the last digest run completed")
+                .register(meterRegistry);
+        Gauge.builder("goal.digest.throughput", this, job -> job.lastDigestsPerSecond)
+                .description("Digests per second in the last run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${goaly.digest.cron:0 0 6 * * *}")
+    public void runScheduled() {
+        run(LocalDate.now());
+    }
+
+    /**
+     * Build and send every digest for the given day
+     *
+     * @return number of digests sent, or -1 if a run was already in progress
+     */
+    public long run(LocalDate today) {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Skipping digest run for {}; the previous run is still going", today);
+            return -1;
+        }
+        long start = System.nanoTime();
+        try {
+            Assembler assembler = new Assembler(today);
+            readOnlyTransaction.executeWithoutResult(status -> goalRepository.scanDigestRows(
+                    today.minusDays(overdueDays), today.plusDays(upcomingDays), assembler::accept));
+            assembler.finish();
+
+            long elapsed = System.nanoTime() - start;
+            runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+            lastDigestsPerSecond = assembler.sent / Math.max(elapsed / 1e9, 1e-3);
+            lastCompletedAtMillis = System.currentTimeMillis();
+            log.info("Sent {} goal digests for {} in {} ms", assembler.sent, today,
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+            return assembler.sent;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Folds the ordered row stream into per-user digests and flushes them to
+     * the sender a batch at a time
+     */
+    private final class Assembler {
+
+        private final LocalDate today;
+        private final List<GoalDigest> batch = new ArrayList<>(batchSize);
+        private GoalDigestRow owner;
+        private final List<GoalDigest.Item> overdue = new ArrayList<>();
+        private final List<GoalDigest.Item> upcoming = new ArrayList<>();
+        private long sent;
+
+        private Assembler(LocalDate today) {
+            this.today = today;
+        }
+
+        private void accept(GoalDigestRow row) {
+            rows.increment();
+            if (owner != null && !owner.userId().equals(row.userId())) {
+                closeDigest();
+            }
+            if (owner == null) {
+                owner = row;
+            }
+            GoalDigest.Item item = new GoalDigest.Item(row.goalId(), row.title(), row.priority(), row.targetDate());
+            (row.targetDate().isBefore(today) ? overdue : upcoming).add(item);
+        }
+
+        private void finish() {
+            if (owner != null) {
+                closeDigest();
+            }
+            flush();
+        }
+
+        private void closeDigest() {
+            batch.add(new GoalDigest(owner.userId(), owner.email(), owner.name(), today, overdue, upcoming));
+            owner = null;
+            overdue.clear();
+            upcoming.clear();
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            sender.send(List.copyOf(batch));
+            sent += batch.size();
+            digests.increment(batch.size());
+            batches.increment();
+            batch.clear();
+        }
+    }
+}
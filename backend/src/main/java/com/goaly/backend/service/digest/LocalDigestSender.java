@@ -0,0 +1,52 @@
+package com.goaly.backend.service.digest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Sender for local runs and testing. Appends each digest as one JSON line to
+ * a file when a path is configured, and otherwise logs a one-line summary.
+ */
+public class LocalDigestSender implements DigestSender {
+
+    private static final Logger log = LoggerFactory.getLogger(LocalDigestSender.class);
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public LocalDigestSender(ObjectMapper objectMapper, Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public void send(List<GoalDigest> digests) {
+        if (file == null) {
+            for (GoalDigest digest : digests) {
+                log.info("Digest for user {} <{}>: {} overdue, {} upcoming", digest.getUserId(),
+                        digest.getEmail(), digest.getOverdue().size(), digest.getUpcoming().size());
+            }
+            return;
+        }
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (GoalDigest digest : digests) {
+                writer.write(objectMapper.writeValueAsString(digest));
+                writer.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write digests to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.goaly.backend.service.export;
+
+import com.goaly.backend.exception.ValidationException;
+
+/**
+ * Formats a user export can be written in
+ */
+public enum ExportFormat {
+
+    /** One JSON object per line, each tagged with its record type */
+    NDJSON("application/x-ndjson", "ndjson"),
+    /** One header line, then goals and achievements as rows tagged with their record type */
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String extension;
+
+    ExportFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static ExportFormat fromParam(String value) {
+        for (ExportFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value) || format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new ValidationException("Unsupported export format: " + value);
+    }
+}
@@ -0,0 +1,203 @@
+package com.goaly.backend.service.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.UserDto;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.repository.UserAchievementRepository;
+import com.goaly.backend.repository.UserUnlockRow;
+
+/**
+ * Writes a user's goals and unlocked achievements to a stream as they are
+ * read. Both come from forward-only cursors inside one read-only
+ * transaction and each row is written and dropped before the next, so heap
+ * use does not grow with the user's history. Output is flushed after every
+ * fetch so the client starts receiving data after the first one.
+ */
+@Service
+public class UserExportService {
+
+    private static final String CSV_HEADER = "type,id,title,description,status,priority,target_date,"
+            + "completion_date,cancellation_date,created_at,updated_at,category,points,unlocked_at";
+
+    private final GoalRepository goalRepository;
+    private final UserAchievementRepository userAchievementRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    @Autowired
+    public UserExportService(GoalRepository goalRepository,
+            UserAchievementRepository userAchievementRepository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${goaly.export.fetch-size:500}") int fetchSize) {
+        this.goalRepository = goalRepository;
+        this.userAchievementRepository = userAchievementRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Write a user's export to {@code out}, gzipped if asked. The stream is
+     * finished but not closed.
+     */
+    public void export(UserDto user, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        // Sync flush so every flush below reaches the client instead of waiting in the deflater
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, 8192, true) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(compressed != null ? compressed : out,
+                StandardCharsets.UTF_8));
+        RowWriter rows = format == ExportFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+        try {
+            rows.begin(user);
+            writer.flush();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                goalRepository.scanUserGoals(user.getId(), fetchSize, rows::goal);
+                userAchievementRepository.scanUserUnlocks(user.getId(), fetchSize, rows::unlock);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+    }
+
+    /**
+     * Formats rows onto the writer, flushing once per fetch
+     */
+    private abstract class RowWriter {
+
+        protected final Writer writer;
+        private int unflushed;
+
+        RowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        abstract void begin(UserDto user) throws IOException;
+
+        abstract void writeGoal(GoalDto goal) throws IOException;
+
+        abstract void writeUnlock(UserUnlockRow unlock) throws IOException;
+
+        void goal(GoalDto goal) {
+            try {
+                writeGoal(goal);
+                rowWritten();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void unlock(UserUnlockRow unlock) {
+            try {
+                writeUnlock(unlock);
+                rowWritten();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void rowWritten() throws IOException {
+            if (++unflushed >= fetchSize) {
+                writer.flush();
+                unflushed = 0;
+            }
+        }
+    }
+
+    private record Line(String type, Object data) {
+    }
+
+    private final class NdjsonRowWriter extends RowWriter {
+
+        NdjsonRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void begin(UserDto user) throws IOException {
+            write(new Line("user", user));
+        }
+
+        @Override
+        void writeGoal(GoalDto goal) throws IOException {
+            write(new Line("goal", goal));
+        }
+
+        @Override
+        void writeUnlock(UserUnlockRow unlock) throws IOException {
+            write(new Line("achievement", unlock));
+        }
+
+        private void write(Line line) throws IOException {
+            writer.write(objectMapper.writeValueAsString(line));
+            writer.write('\n');
+        }
+    }
+
+    private final class CsvRowWriter extends RowWriter {
+
+        CsvRowWriter(Writer writer) {
+            super(writer);
+        }
+
+        @Override
+        void begin(UserDto user) throws IOException {
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        @Override
+        void writeGoal(GoalDto goal) throws IOException {
+            row("goal", goal.getId(), goal.getTitle(), goal.getDescription(), goal.getStatus(), goal.getPriority(),
+                    goal.getTargetDate(), goal.getCompletionDate(), goal.getCancellationDate(), goal.getCreatedAt(),
+                    goal.getUpdatedAt(), null, null, null);
+        }
+
+        @Override
+        void writeUnlock(UserUnlockRow unlock) throws IOException {
+            row("achievement", unlock.achievementId(), unlock.name(), null, null, null, null, null, null, null,
+                    null, unlock.category(), unlock.points(), unlock.unlockedAt());
+        }
+
+        private void row(Object... values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write('\n');
+        }
+
+        private String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
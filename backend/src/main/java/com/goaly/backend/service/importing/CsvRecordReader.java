@@ -0,0 +1,141 @@
+package com.goaly.backend.service.importing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.goaly.backend.exception.ValidationException;
+
+/**
+ * Reads RFC 4180 CSV with a header line naming the columns. Quoted fields
+ * may contain commas, doubled quotes and line breaks. Empty fields are
+ * treated as absent. A header that cannot be read fails the whole import.
+ */
+class CsvRecordReader implements ImportRecordReader {
+
+    private final Reader reader;
+    private List<String> header;
+    private long line = 1;
+    private long recordLine;
+    private int peeked = -2;
+
+    CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public Map<String, String> next() throws IOException {
+        if (header == null) {
+            List<String> names;
+            try {
+                names = readRecord();
+            } catch (MalformedRecordException e) {
+                throw new ValidationException("Invalid CSV header: " + e.getMessage());
+            }
+            if (names == null) {
+                return null;
+            }
+            List<String> columns = new ArrayList<>(names.size());
+            for (String name : names) {
+                String column = ImportRecordReader.normalize(name);
+                if (columns.contains(column)) {
+                    throw new ValidationException("Duplicate CSV column: " + name.trim());
+                }
+                columns.add(column);
+            }
+            header = columns;
+        }
+        List<String> values;
+        do {
+            values = readRecord();
+            if (values == null) {
+                return null;
+            }
+        } while (values.size() == 1 && values.get(0).isEmpty());
+
+        if (values.size() != header.size()) {
+            throw new MalformedRecordException("Expected " + header.size() + " fields but found " + values.size());
+        }
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            String value = values.get(i);
+            fields.put(header.get(i), value.isEmpty() ? null : value);
+        }
+        return fields;
+    }
+
+    @Override
+    public long line() {
+        return recordLine;
+    }
+
+    /**
+     * The fields of the next record, or null at the end of the input
+     */
+    private List<String> readRecord() throws IOException {
+        int c = read();
+        if (c < 0) {
+            return null;
+        }
+        recordLine = line;
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new MalformedRecordException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c < 0 || c == '\n' || c == '\r') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (c >= 0) {
+                    line++;
+                }
+                fields.add(field.toString());
+                return fields;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
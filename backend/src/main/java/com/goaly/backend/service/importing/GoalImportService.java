@@ -0,0 +1,289 @@
+package com.goaly.backend.service.importing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goaly.backend.dto.GoalImportResultDto;
+import com.goaly.backend.dto.GoalImportResultDto.RowError;
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.repository.GoalChange;
+import com.goaly.backend.repository.GoalImportRow;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.service.AchievementCheckQueue;
+import com.goaly.backend.service.AfterCommit;
+import com.goaly.backend.service.GoalChangeLog;
+import com.goaly.backend.service.GoalRollupService;
+import com.goaly.backend.service.GoalRollupService.Contribution;
+import com.goaly.backend.service.UserDataVersions;
+import com.goaly.backend.service.UserStreakService;
+
+/**
+ * Bulk goal import. The upload is parsed and validated as it streams in and
+ * valid rows are fed straight into a COPY into a staging table, so neither
+ * the upload nor the rows are held in memory. One INSERT ... SELECT then
+ * moves every staged row whose user exists into goals. Rollups, the change
+ * log and data versions are updated from the inserted rows; streaks and
+ * achievements are refreshed once per affected user rather than per goal.
+ */
+@Service
+public class GoalImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(GoalImportService.class);
+
+    private final GoalRepository goalRepository;
+    private final GoalRollupService rollups;
+    private final GoalChangeLog changeLog;
+    private final UserDataVersions dataVersions;
+    private final UserStreakService streakService;
+    private final AchievementCheckQueue checkQueue;
+    private final ObjectMapper objectMapper;
+    private final long maxRows;
+    private final int maxErrors;
+
+    @Autowired
+    public GoalImportService(GoalRepository goalRepository,
+            GoalRollupService rollups,
+            GoalChangeLog changeLog,
+            UserDataVersions dataVersions,
+            UserStreakService streakService,
+            AchievementCheckQueue checkQueue,
+            ObjectMapper objectMapper,
+            @Value("${goaly.imports.max-rows:100000}") long maxRows,
+            @Value("${goaly.imports.max-errors:1000}") int maxErrors) {
+        this.goalRepository = goalRepository;
+        this.rollups = rollups;
+        this.changeLog = changeLog;
+        this.dataVersions = dataVersions;
+        this.streakService = streakService;
+        this.checkQueue = checkQueue;
+        this.objectMapper = objectMapper;
+        this.maxRows = maxRows;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Import goals from an upload, skipping and reporting rows that fail
+     * validation or name a missing user
+     *
+     * @param defaultUserId owner of rows that do not name one, or null to require it on every row
+     */
+    @Transactional
+    public GoalImportResultDto importGoals(InputStream upload, ImportFormat format, Long defaultUserId) {
+        long startedAt = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+        ImportRecordReader records = format == ImportFormat.CSV
+                ? new CsvRecordReader(reader)
+                : new NdjsonRecordReader(reader, objectMapper);
+        ValidatingIterator rows = new ValidatingIterator(records, defaultUserId);
+
+        goalRepository.createImportStaging();
+        long staged;
+        try {
+            staged = goalRepository.copyIntoImportStaging(rows);
+        } catch (UncheckedIOException e) {
+            throw new IllegalStateException("Could not read import upload", e.getCause());
+        }
+        goalRepository.findImportRowsWithoutUser().forEach((line, userId) ->
+                rows.reject(line, "User not found with id: " + userId));
+
+        LocalDateTime now = LocalDateTime.now();
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> completedUserIds = new HashSet<>();
+        long[] imported = new long[1];
+        goalRepository.mergeImportStaging(staged, now, now.toLocalDate(), goal -> {
+            imported[0]++;
+            userIds.add(goal.getUserId());
+            if (goal.getStatus() == GoalStatus.COMPLETED) {
+                completedUserIds.add(goal.getUserId());
+            }
+            rollups.record(goal.getUserId(), null, Contribution.of(goal));
+            changeLog.append(new GoalChange(goal.getUserId(), 0, goal.getId(), GoalChange.Type.CREATED,
+                    goal.getStatus(), goal.getPriority(), goal.getTargetDate(), goal.getCompletionDate(), now));
+        });
+
+        dataVersions.touch(userIds);
+        // Imported completions can land anywhere in a streak's history
+        completedUserIds.forEach(streakService::rebuildUser);
+        AfterCommit.run(() -> userIds.forEach(checkQueue::enqueue));
+
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        GoalImportResultDto result = new GoalImportResultDto(rows.received, imported[0], elapsedMillis,
+                rows.errors, rows.rejected > rows.errors.size());
+        log.info("Imported {} of {} goals for {} users in {} ms ({} rows/s)", result.getImported(),
+                result.getReceived(), userIds.size(), elapsedMillis, Math.round(result.getRowsPerSecond()));
+        return result;
+    }
+
+    /**
+     * Pulls records from the upload, turning valid ones into staging rows and
+     * recording why the others were skipped
+     */
+    private final class ValidatingIterator implements Iterator<GoalImportRow> {
+
+        private final ImportRecordReader records;
+        private final Long defaultUserId;
+        private final List<RowError> errors = new ArrayList<>();
+        private long received;
+        private long rejected;
+        private GoalImportRow next;
+        private boolean done;
+
+        ValidatingIterator(ImportRecordReader records, Long defaultUserId) {
+            this.records = records;
+            this.defaultUserId = defaultUserId;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && !done) {
+                try {
+                    Map<String, String> fields = records.next();
+                    if (fields == null) {
+                        done = true;
+                    } else if (received >= maxRows) {
+                        reject(records.line(), "Import is limited to " + maxRows + " rows; the rest were skipped");
+                        done = true;
+                    } else {
+                        received++;
+                        next = validate(records.line(), fields);
+                    }
+                } catch (ImportRecordReader.MalformedRecordException e) {
+                    received++;
+                    reject(records.line(), e.getMessage());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return next != null;
+        }
+
+        @Override
+        public GoalImportRow next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            GoalImportRow row = next;
+            next = null;
+            return row;
+        }
+
+        void reject(long line, String message) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(new RowError(line, message));
+            }
+        }
+
+        /**
+         * The staging row for a record, or null if it was rejected
+         */
+        private GoalImportRow validate(long line, Map<String, String> fields) {
+            try {
+                Long userId = fields.get("userid") != null ? parseId(fields.get("userid")) : defaultUserId;
+                if (userId == null) {
+                    throw new IllegalArgumentException("userId is required");
+                }
+                String title = fields.get("title");
+                if (title == null || title.isBlank()) {
+                    throw new IllegalArgumentException("title is required");
+                }
+                // The column limits characters, not UTF-16 units
+                if (title.codePointCount(0, title.length()) > 200) {
+                    throw new IllegalArgumentException("title must be at most 200 characters");
+                }
+                String description = fields.get("description");
+                if (description != null && description.codePointCount(0, description.length()) > 1000) {
+                    throw new IllegalArgumentException("description must be at most 1000 characters");
+                }
+                GoalStatus status = parseEnum(GoalStatus.class, "status", fields.get("status"), GoalStatus.ACTIVE);
+                GoalPriority priority = parseEnum(GoalPriority.class, "priority", fields.get("priority"),
+                        GoalPriority.MEDIUM);
+                LocalDate targetDate = parseDate(fields.get("targetdate"));
+                LocalDate completionDate = parseDate(fields.get("completiondate"));
+                LocalDateTime createdAt = parseDateTime(fields.get("createdat"));
+                if (completionDate != null && status != GoalStatus.COMPLETED) {
+                    throw new IllegalArgumentException("completionDate is only allowed on COMPLETED goals");
+                }
+                if (completionDate != null && createdAt != null
+                        && completionDate.isBefore(createdAt.toLocalDate())) {
+                    throw new IllegalArgumentException("completionDate is before createdAt");
+                }
+                return new GoalImportRow(line, userId, title, description, status, priority,
+                        targetDate, completionDate, createdAt);
+            } catch (DateTimeParseException e) {
+                reject(line, "Invalid date: " + e.getParsedString());
+            } catch (IllegalArgumentException e) {
+                reject(line, e.getMessage());
+            }
+            return null;
+        }
+
+        private Long parseId(String value) {
+            try {
+                return Long.valueOf(value.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid userId: " + value);
+            }
+        }
+
+        private <E extends Enum<E>> E parseEnum(Class<E> type, String field, String value, E defaultValue) {
+            if (value == null) {
+                return defaultValue;
+            }
+            try {
+                return Enum.valueOf(type, value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid " + field + ": " + value);
+            }
+        }
+
+        private LocalDate parseDate(String value) {
+            return value != null ? LocalDate.parse(value.trim()) : null;
+        }
+
+        /**
+         * A local date-time, an offset date-time converted to local time, or
+         * a date taken as its start
+         */
+        private LocalDateTime parseDateTime(String value) {
+            if (value == null) {
+                return null;
+            }
+            String text = value.trim();
+            if (text.length() <= 10) {
+                return LocalDate.parse(text).atStartOfDay();
+            }
+            try {
+                return LocalDateTime.parse(text);
+            } catch (DateTimeParseException e) {
+                return OffsetDateTime.parse(text).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.goaly.backend.service.importing;
+
+import org.springframework.http.MediaType;
+
+import com.goaly.backend.exception.ValidationException;
+
+/**
+ * Upload formats accepted by the goal import, chosen by content type
+ */
+public enum ImportFormat {
+
+    /** A header line naming the columns, then one goal per row */
+    CSV("text/csv"),
+    /** One JSON object per line */
+    NDJSON("application/x-ndjson");
+
+    private final String contentType;
+
+    ImportFormat(String contentType) {
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public static ImportFormat fromContentType(String value) {
+        if (value != null) {
+            MediaType mediaType = MediaType.parseMediaType(value);
+            for (ImportFormat format : values()) {
+                if (MediaType.parseMediaType(format.contentType).isCompatibleWith(mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new ValidationException("Unsupported import content type: " + value);
+    }
+}
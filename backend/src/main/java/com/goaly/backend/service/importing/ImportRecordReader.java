@@ -0,0 +1,40 @@
+package com.goaly.backend.service.importing;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an upload one record at a time as field name to raw value. Field
+ * names are normalized to lower case without underscores, so user_id and
+ * userId are the same field.
+ */
+interface ImportRecordReader {
+
+    /**
+     * The next record, or null at the end of the upload
+     *
+     * @throws MalformedRecordException if the record cannot be parsed; it has
+     *                                  been skipped and reading can go on
+     */
+    Map<String, String> next() throws IOException;
+
+    /**
+     * Line the record last returned or rejected started on
+     */
+    long line();
+
+    static String normalize(String name) {
+        return name.trim().replace("_", "").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A record that could not be parsed
+     */
+    class MalformedRecordException extends RuntimeException {
+
+        MalformedRecordException(String message) {
+            super(message);
+        }
+    }
+}
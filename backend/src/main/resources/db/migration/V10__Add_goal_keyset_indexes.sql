@@ -0,0 +1,7 @@
+-- Keyset pagination over a user's goals seeks on (user_id, <sort key>, id).
+-- These cover every lookup idx_goals_user_id served, so it is dropped.
+CREATE INDEX idx_goals_user_created_id ON goals (user_id, created_at, id);
+
+CREATE INDEX idx_goals_user_updated_id ON goals (user_id, updated_at, id);
+
+DROP INDEX idx_goals_user_id;
@@ -0,0 +1,39 @@
+-- Every goal and achievement sort mode gets an index matching its ORDER BY
+-- (including the id tie-break) so listings are an ordered index scan with a
+-- LIMIT rather than a sort of all matching rows.
+
+-- Priority ranks LOW < MEDIUM < HIGH instead of sorting alphabetically
+ALTER TABLE goals
+ADD COLUMN priority_rank SMALLINT GENERATED ALWAYS AS (
+    CASE priority
+        WHEN 'LOW' THEN 0
+        WHEN 'MEDIUM' THEN 1
+        WHEN 'HIGH' THEN 2
+    END
+) STORED;
+
+CREATE INDEX idx_goals_user_target_date_id ON goals (user_id, target_date, id);
+
+CREATE INDEX idx_goals_user_priority_id ON goals (user_id, priority_rank, id);
+
+CREATE INDEX idx_goals_user_status_id ON goals (user_id, status, id);
+
+CREATE INDEX idx_goals_user_title_id ON goals (user_id, title, id);
+
+-- Covered by idx_goals_user_status_id
+DROP INDEX idx_goals_user_status;
+
+CREATE INDEX idx_achievements_name_id ON achievements (name, id);
+
+CREATE INDEX idx_achievements_points_id ON achievements (points, id);
+
+CREATE INDEX idx_achievements_created_id ON achievements (created_at, id);
+
+CREATE INDEX idx_achievements_category_name_id ON achievements (category, name, id);
+
+CREATE INDEX idx_achievements_category_points_id ON achievements (category, points, id);
+
+CREATE INDEX idx_achievements_category_created_id ON achievements (category, created_at, id);
+
+-- Covered by idx_achievements_category_name_id
+DROP INDEX idx_achievements_category;
@@ -0,0 +1,11 @@
+-- Optimistic locking for goals, users and achievements. Entity saves check
+-- and bump it through @Version; the single-statement goal transitions bump
+-- it in SQL.
+ALTER TABLE goals
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE users
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE achievements
+ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,9 @@
+-- Per-user counter bumped by every transaction that changes a user's goals or
+-- unlocks; served as the ETag of their goal and achievement reads. A missing
+-- row means version 0.
+CREATE TABLE
+    user_data_versions (
+        user_id BIGINT PRIMARY KEY,
+        version BIGINT NOT NULL,
+        CONSTRAINT fk_user_data_versions_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+    );
@@ -0,0 +1,5 @@
+-- Lets the daily digest stream active goals in (user_id, target_date) order
+-- straight off an index that holds nothing but active goals
+CREATE INDEX idx_goals_active_user_target_date ON goals (user_id, target_date, id)
+WHERE
+    status = 'ACTIVE';
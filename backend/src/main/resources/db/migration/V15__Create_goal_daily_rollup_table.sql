@@ -0,0 +1,78 @@
+-- Cancelled goals remember the day they were cancelled, as completed goals do.
+-- Goals cancelled before this column existed use their last update.
+ALTER TABLE goals
+ADD COLUMN cancellation_date DATE;
+
+UPDATE goals
+SET
+    cancellation_date = COALESCE(updated_at, created_at)::date
+WHERE
+    status = 'CANCELLED';
+
+-- Per-user daily goal activity for analytics, kept up to date by goal changes.
+-- A goal counts as created on its creation day, completed on its completion
+-- day while it is COMPLETED and cancelled on its cancellation day while it is
+-- CANCELLED. completion_hours sums the whole hours from creation to the start
+-- of the completion day (at least zero) of the goals completed that day.
+CREATE TABLE
+    goal_daily_rollup (
+        user_id BIGINT NOT NULL,
+        day DATE NOT NULL,
+        created INTEGER NOT NULL DEFAULT 0,
+        completed INTEGER NOT NULL DEFAULT 0,
+        cancelled INTEGER NOT NULL DEFAULT 0,
+        completion_hours BIGINT NOT NULL DEFAULT 0,
+        PRIMARY KEY (user_id, day),
+        CONSTRAINT fk_goal_daily_rollup_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+    );
+
+INSERT INTO
+    goal_daily_rollup (user_id, day, created, completed, cancelled, completion_hours)
+SELECT
+    user_id,
+    day,
+    SUM(created),
+    SUM(completed),
+    SUM(cancelled),
+    SUM(completion_hours)
+FROM
+    (
+        SELECT
+            user_id,
+            created_at::date AS day,
+            1 AS created,
+            0 AS completed,
+            0 AS cancelled,
+            0::bigint AS completion_hours
+        FROM
+            goals
+        UNION ALL
+        SELECT
+            user_id,
+            completion_date,
+            0,
+            1,
+            0,
+            GREATEST(TRUNC(EXTRACT(EPOCH FROM (completion_date::timestamp - created_at::timestamp)) / 3600), 0)::bigint
+        FROM
+            goals
+        WHERE
+            status = 'COMPLETED'
+            AND completion_date IS NOT NULL
+        UNION ALL
+        SELECT
+            user_id,
+            cancellation_date,
+            0,
+            0,
+            1,
+            0
+        FROM
+            goals
+        WHERE
+            status = 'CANCELLED'
+            AND cancellation_date IS NOT NULL
+    ) contributions
+GROUP BY
+    user_id,
+    day;
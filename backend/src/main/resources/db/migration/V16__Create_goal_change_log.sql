@@ -0,0 +1,47 @@
+-- Last change sequence number handed out per user. Numbers are allocated as a
+-- transaction commits, so each user's changes are numbered in commit order.
+CREATE TABLE
+    user_change_seqs (
+        user_id BIGINT PRIMARY KEY,
+        last_seq BIGINT NOT NULL,
+        CONSTRAINT fk_user_change_seqs_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+    );
+
+-- Append-only record of every goal create, update, completion and delete.
+-- Partitioned by month so the retention job can drop whole months; there is
+-- no foreign key to users so history outlives deleted accounts until then.
+-- Partitions are named goal_change_log_YYYY_MM and created ahead of time by
+-- the application.
+CREATE TABLE
+    goal_change_log (
+        user_id BIGINT NOT NULL,
+        seq BIGINT NOT NULL,
+        goal_id BIGINT NOT NULL,
+        change_type VARCHAR(10) NOT NULL,
+        status VARCHAR(20) NOT NULL,
+        priority VARCHAR(10) NOT NULL,
+        target_date DATE,
+        completion_date DATE,
+        changed_at TIMESTAMP
+        WITH
+            TIME ZONE NOT NULL,
+            PRIMARY KEY (user_id, seq, changed_at)
+    )
+PARTITION BY
+    RANGE (changed_at);
+
+DO $$
+DECLARE
+    first_month DATE := date_trunc('month', CURRENT_DATE)::date;
+    month DATE;
+BEGIN
+    FOR i IN 0..2 LOOP
+        month := (first_month + make_interval(months => i))::date;
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF goal_change_log FOR VALUES FROM (%L) TO (%L)',
+            'goal_change_log_' || to_char(month, 'YYYY_MM'),
+            month,
+            (month + INTERVAL '1 month')::date);
+    END LOOP;
+END
+$$;
@@ -0,0 +1,7 @@
+-- Goals and user achievements are inserted in JDBC batches, which needs ids
+-- handed out from a pooled sequence instead of IDENTITY. Each nextval reserves
+-- a block of 50 ids ending at the returned value, so inserts relying on the
+-- column default still never collide with ids Hibernate allocates.
+ALTER SEQUENCE goals_id_seq INCREMENT BY 50;
+
+ALTER SEQUENCE user_achievements_id_seq INCREMENT BY 50;
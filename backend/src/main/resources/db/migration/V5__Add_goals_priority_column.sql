@@ -0,0 +1,5 @@
+-- Goal.priority is mapped by the entity and read by achievement criteria but
+-- was never created
+ALTER TABLE goals
+ADD COLUMN priority VARCHAR(20) NOT NULL DEFAULT 'MEDIUM',
+ADD CONSTRAINT chk_priority CHECK (priority IN ('LOW', 'MEDIUM', 'HIGH'));
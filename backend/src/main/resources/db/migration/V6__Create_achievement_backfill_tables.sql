@@ -0,0 +1,38 @@
+CREATE TABLE
+    achievement_backfill_jobs (
+        id BIGSERIAL PRIMARY KEY,
+        achievement_id BIGINT NOT NULL,
+        status VARCHAR(20) NOT NULL DEFAULT 'RUNNING',
+        created_at TIMESTAMP
+        WITH
+            TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            completed_at TIMESTAMP
+        WITH
+            TIME ZONE,
+            CONSTRAINT fk_backfill_jobs_achievement FOREIGN KEY (achievement_id) REFERENCES achievements (id) ON DELETE CASCADE,
+            CONSTRAINT chk_backfill_job_status CHECK (
+                status IN ('RUNNING', 'COMPLETED', 'CANCELLED', 'FAILED')
+            )
+    );
+
+-- One row per slice of the users id space. checkpoint is the last user id
+-- processed, so a restarted job resumes each range where it stopped.
+CREATE TABLE
+    achievement_backfill_ranges (
+        id BIGSERIAL PRIMARY KEY,
+        job_id BIGINT NOT NULL,
+        range_start BIGINT NOT NULL,
+        range_end BIGINT NOT NULL,
+        checkpoint BIGINT NOT NULL,
+        processed_users BIGINT NOT NULL DEFAULT 0,
+        unlocked_users BIGINT NOT NULL DEFAULT 0,
+        completed BOOLEAN NOT NULL DEFAULT FALSE,
+        updated_at TIMESTAMP
+        WITH
+            TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            CONSTRAINT fk_backfill_ranges_job FOREIGN KEY (job_id) REFERENCES achievement_backfill_jobs (id) ON DELETE CASCADE
+    );
+
+CREATE INDEX idx_backfill_jobs_status ON achievement_backfill_jobs (status);
+
+CREATE INDEX idx_backfill_ranges_job_id ON achievement_backfill_ranges (job_id);
@@ -0,0 +1,44 @@
+-- Per-user achievement totals, kept up to date in the same transaction as
+-- each unlock so the stats endpoint is a single primary key lookup.
+-- category_counts maps category name to unlocked count.
+CREATE TABLE
+    user_achievement_stats (
+        user_id BIGINT PRIMARY KEY,
+        unlocked_count INTEGER NOT NULL DEFAULT 0,
+        total_points BIGINT NOT NULL DEFAULT 0,
+        category_counts JSONB NOT NULL DEFAULT '{}'::jsonb,
+        updated_at TIMESTAMP
+        WITH
+            TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            CONSTRAINT fk_user_achievement_stats_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+    );
+
+INSERT INTO
+    user_achievement_stats (user_id, unlocked_count, total_points, category_counts)
+SELECT
+    per_category.user_id,
+    SUM(per_category.unlocked),
+    SUM(per_category.points),
+    COALESCE(
+        jsonb_object_agg(per_category.category, per_category.unlocked) FILTER (
+            WHERE
+                per_category.category IS NOT NULL
+        ),
+        '{}'::jsonb
+    )
+FROM
+    (
+        SELECT
+            ua.user_id,
+            a.category,
+            COUNT(*) AS unlocked,
+            SUM(a.points) AS points
+        FROM
+            user_achievements ua
+            JOIN achievements a ON a.id = ua.achievement_id
+        GROUP BY
+            ua.user_id,
+            a.category
+    ) per_category
+GROUP BY
+    per_category.user_id;
@@ -0,0 +1,22 @@
+-- Per-user completion streak state, advanced in O(1) as goals are completed.
+-- recent_days is a bitmap where bit i means a goal was completed i days before
+-- last_completion_date. Rows are created on a user's next completion or by the
+-- rebuild job; until then streaks are computed from goals.
+CREATE TABLE
+    user_streaks (
+        user_id BIGINT PRIMARY KEY,
+        last_completion_date DATE NOT NULL,
+        current_streak INTEGER NOT NULL,
+        best_streak INTEGER NOT NULL,
+        run_start_date DATE NOT NULL,
+        recent_days BIGINT NOT NULL DEFAULT 0,
+        updated_at TIMESTAMP
+        WITH
+            TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+            CONSTRAINT fk_user_streaks_user FOREIGN KEY (user_id) REFERENCES users (id) ON DELETE CASCADE
+    );
+
+-- Streak rebuilds read completed goals per user in date order
+CREATE INDEX idx_goals_user_completion_date ON goals (user_id, completion_date)
+WHERE
+    status = 'COMPLETED';
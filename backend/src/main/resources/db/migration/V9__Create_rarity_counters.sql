@@ -0,0 +1,36 @@
+-- Sharded counters behind achievement rarity. Each unlock adds to one randomly
+-- chosen shard row so popular achievements do not serialize on a single row;
+-- readers sum the shards.
+CREATE TABLE
+    achievement_unlock_counters (
+        achievement_id BIGINT NOT NULL,
+        shard SMALLINT NOT NULL,
+        unlock_count BIGINT NOT NULL DEFAULT 0,
+        PRIMARY KEY (achievement_id, shard),
+        CONSTRAINT fk_achievement_unlock_counters_achievement FOREIGN KEY (achievement_id) REFERENCES achievements (id) ON DELETE CASCADE
+    );
+
+CREATE TABLE
+    user_count_shards (
+        shard SMALLINT PRIMARY KEY,
+        user_count BIGINT NOT NULL DEFAULT 0
+    );
+
+INSERT INTO
+    achievement_unlock_counters (achievement_id, shard, unlock_count)
+SELECT
+    achievement_id,
+    0,
+    COUNT(*)
+FROM
+    user_achievements
+GROUP BY
+    achievement_id;
+
+INSERT INTO
+    user_count_shards (shard, user_count)
+SELECT
+    0,
+    COUNT(*)
+FROM
+    users;
@@ -0,0 +1,74 @@
+package com.goaly.backend;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+/**
+ * Base for tests that need the real schema. One Postgres container is
+ * started with the application context and migrated by Flyway; every
+ * subclass shares it through the cached context, so tests create their own
+ * rows rather than assuming an empty database. MockMvc is available for
+ * tests that go through the controllers.
+ * <p>
+ * Without Docker, pass {@code -Dgoaly.test.database-url=jdbc:postgresql://...}
+ * to run against an existing PostgreSQL 16 database instead (credentials
+ * come from DB_USERNAME and DB_PASSWORD as usual). It should be UTF8 and is
+ * migrated by Flyway. With neither, the tests are skipped.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.goaly.backend.RecordedSql")
+@AutoConfigureMockMvc
+@Import(PostgresIntegrationTest.Containers.class)
+@ExtendWith(PostgresIntegrationTest.DatabaseAvailable.class)
+public abstract class PostgresIntegrationTest {
+
+    private static final String DATABASE_URL_PROPERTY = "goaly.test.database-url";
+
+    @DynamicPropertySource
+    static void databaseUrl(DynamicPropertyRegistry registry) {
+        String url = System.getProperty(DATABASE_URL_PROPERTY);
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+        }
+    }
+
+    /**
+     * Skips the tests when there is neither a configured database nor Docker
+     */
+    static class DatabaseAvailable implements ExecutionCondition {
+
+        @Override
+        public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+            if (System.getProperty(DATABASE_URL_PROPERTY) != null
+                    || DockerClientFactory.instance().isDockerAvailable()) {
+                return ConditionEvaluationResult.enabled("Postgres available");
+            }
+            return ConditionEvaluationResult.disabled("Neither Docker nor " + DATABASE_URL_PROPERTY + " is available");
+        }
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class Containers {
+
+        // GENERIC_PLAN in the plan tests needs 16 or later
+        @Bean
+        @ServiceConnection
+        @ConditionalOnExpression("'${" + DATABASE_URL_PROPERTY + ":}'.isEmpty()")
+        PostgreSQLContainer<?> postgres() {
+            return new PostgreSQLContainer<>("postgres:16-alpine");
+        }
+    }
+}
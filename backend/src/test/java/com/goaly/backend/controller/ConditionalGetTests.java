@@ -0,0 +1,126 @@
+package com.goaly.backend.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.controller.AchievementController.CreateAchievementRequest;
+import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.service.AchievementRarity;
+import com.goaly.backend.service.AchievementService;
+import com.goaly.backend.service.GoalService;
+import com.goaly.backend.service.UserService;
+
+/**
+ * Checks that a revalidation is only answered with 304 when the response
+ * would have been the same
+ */
+@WithMockUser
+class ConditionalGetTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private AchievementRarity rarity;
+
+    private Long userId;
+
+    @BeforeEach
+    void createGoals() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Revalidator").getId();
+        for (int i = 0; i < 3; i++) {
+            CreateGoalRequest request = new CreateGoalRequest();
+            request.setUserId(userId);
+            request.setTitle("Goal " + i);
+            goalService.createGoal(request);
+        }
+    }
+
+    @Test
+    void pageTagCoversPageSizeAndSort() throws Exception {
+        String path = "/goals/user/" + userId;
+        String first = etag(path + "?page=0&size=1");
+
+        assertThat(first).isEqualTo(etag(path + "?page=0&size=1"));
+        assertThat(etag(path + "?page=1&size=1")).isNotEqualTo(first);
+        assertThat(etag(path + "?page=0&size=2")).isNotEqualTo(first);
+        assertThat(etag(path + "?page=0&size=1&sortBy=title")).isNotEqualTo(first);
+        assertThat(etag(path + "?page=0&size=1&sortDir=asc")).isNotEqualTo(first);
+        mockMvc.perform(get(path + "?page=1&size=1").header(HttpHeaders.IF_NONE_MATCH, first))
+                .andExpect(status().isOk());
+        mockMvc.perform(get(path + "?page=0&size=1").header(HttpHeaders.IF_NONE_MATCH, first))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void sliceTagCoversCursor() throws Exception {
+        String path = "/goals/user/" + userId + "?size=1&cursor=";
+        String firstSlice = mockMvc.perform(get(path)).andReturn().getResponse().getContentAsString();
+        String cursor = firstSlice.replaceAll(".*\"nextCursor\":\"([A-Za-z0-9_-]+)\".*", "$1");
+        String first = etag(path);
+
+        assertThat(etag(path + cursor)).isNotEqualTo(first);
+        mockMvc.perform(get(path + cursor).header(HttpHeaders.IF_NONE_MATCH, first))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void sliceRejectsCursorThatCannotGoInATag() throws Exception {
+        mockMvc.perform(get("/goals/user/" + userId).param("cursor", "a\"b"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void goalTagChangesWhenTheOwnerIsRenamed() throws Exception {
+        String path = "/goals/user/" + userId + "?page=0&size=10";
+        String before = etag(path);
+
+        userService.updateUser(userId, "Renamed");
+
+        mockMvc.perform(get(path).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk());
+        assertThat(etag(path)).isNotEqualTo(before);
+    }
+
+    @Test
+    void catalogTagChangesWithRarity() throws Exception {
+        CreateAchievementRequest request = new CreateAchievementRequest();
+        request.setName("Rare " + UUID.randomUUID());
+        request.setDescription("Unlocked by hand");
+        request.setCriteria("goals_completed >= 1000000");
+        Long achievementId = achievementService.createAchievement(request).getId();
+        rarity.publish();
+        String before = etag("/achievements/catalog");
+
+        achievementService.unlockAchievementForUser(userId, achievementId);
+        rarity.publish();
+
+        // The catalog itself is unchanged; only the share of users who unlocked it moved
+        assertThat(etag("/achievements/catalog")).isNotEqualTo(before);
+    }
+
+    private String etag(String path) throws Exception {
+        return mockMvc.perform(get(path)).andExpect(status().isOk()).andReturn().getResponse()
+                .getHeader(HttpHeaders.ETAG);
+    }
+}
@@ -0,0 +1,164 @@
+package com.goaly.backend.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.data.domain.PageRequest;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.RecordedSql;
+import com.goaly.backend.entity.Goal.GoalStatus;
+
+/**
+ * Checks that every listing sort mode is served in index order. Statements
+ * are recorded from the real repository calls and explained with sorts and
+ * sequential scans disabled, so the planner only falls back to either when
+ * no index can serve the query; plans are generic so they do not depend on
+ * the data or parameter values.
+ */
+class SortModePlanTests extends PostgresIntegrationTest {
+
+    private static final Pattern SORT_NODE = Pattern.compile("^\\s*(->\\s+)?(Incremental )?Sort\\s+\\(");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (goals|achievements)\\b");
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private AchievementRepository achievementRepository;
+
+    @Autowired
+    private JdbcConnectionDetails connectionDetails;
+
+    static Stream<Arguments> goalSorts() {
+        return Stream.of(GoalSortMode.values())
+                .flatMap(mode -> Stream.of(Arguments.of(mode, false), Arguments.of(mode, true)));
+    }
+
+    static Stream<Arguments> achievementSorts() {
+        return Stream.of(AchievementSortMode.values())
+                .flatMap(mode -> Stream.of(Arguments.of(mode, false), Arguments.of(mode, true)));
+    }
+
+    @ParameterizedTest(name = "{0} descending={1}")
+    @MethodSource("goalSorts")
+    void goalPageIsReadInIndexOrder(GoalSortMode mode, boolean descending) {
+        String sql = orderedStatement(() ->
+                goalRepository.findDtosByUserId(1L, PageRequest.of(0, 20, mode.toSort(descending))));
+
+        assertNoSort(sql);
+    }
+
+    @ParameterizedTest(name = "{0} descending={1}")
+    @MethodSource("achievementSorts")
+    void achievementPageIsReadInIndexOrder(AchievementSortMode mode, boolean descending) {
+        String sql = orderedStatement(() ->
+                achievementRepository.findAll(PageRequest.of(0, 20, mode.toSort(descending))));
+
+        assertNoSort(sql);
+    }
+
+    @ParameterizedTest(name = "{0} descending={1}")
+    @MethodSource("achievementSorts")
+    void categoryAchievementPageIsReadInIndexOrder(AchievementSortMode mode, boolean descending) {
+        String sql = orderedStatement(() ->
+                achievementRepository.findByCategory("GOALS", PageRequest.of(0, 20, mode.toSort(descending))));
+
+        assertNoSort(sql);
+    }
+
+    static Stream<Arguments> keysetSeeks() {
+        return goalSorts().flatMap(sort -> Stream.of(GoalRepositoryImpl.Seek.values())
+                .map(seek -> Arguments.of(sort.get()[0], sort.get()[1], seek)));
+    }
+
+    @ParameterizedTest(name = "{0} descending={1} {2}")
+    @MethodSource("keysetSeeks")
+    void keysetSeekIsOneIndexRange(GoalSortMode mode, boolean descending, GoalRepositoryImpl.Seek seek) {
+        List<String> plan = explain(GoalRepositoryImpl.userGoalsSql(mode, descending, seek));
+
+        // Anything the index condition cannot express would show up as a filter over scanned rows
+        assertThat(plan).as(String.join("\n", plan))
+                .noneMatch(line -> SORT_NODE.matcher(line).find())
+                .noneMatch(line -> line.trim().startsWith("Filter:"));
+    }
+
+    @Test
+    void lookupsOfDroppedIndexesStillUseAnIndex() {
+        // idx_goals_user_id, idx_goals_user_status and idx_achievements_category were dropped by V10/V11
+        List<String> statements = RecordedSql.during(() -> {
+            goalRepository.findByUserId(1L);
+            goalRepository.countByUserIdAndStatus(1L, GoalStatus.ACTIVE);
+            achievementRepository.findByCategory("GOALS");
+        });
+
+        assertThat(statements).hasSize(3);
+        for (String sql : statements) {
+            assertThat(explain(sql)).as(sql).noneMatch(line -> SEQ_SCAN.matcher(line).find());
+        }
+    }
+
+    private String orderedStatement(Runnable query) {
+        List<String> ordered = RecordedSql.during(query).stream()
+                .filter(sql -> sql.toLowerCase().contains("order by"))
+                .toList();
+        assertThat(ordered).hasSize(1);
+        return ordered.get(0);
+    }
+
+    private void assertNoSort(String sql) {
+        List<String> plan = explain(sql);
+        assertThat(plan).as(String.join("\n", plan)).noneMatch(line -> SORT_NODE.matcher(line).find());
+    }
+
+    private List<String> explain(String sql) {
+        // GENERIC_PLAN takes $n placeholders left unbound, which only the simple query protocol passes through
+        Properties properties = new Properties();
+        properties.setProperty("user", connectionDetails.getUsername());
+        properties.setProperty("password", connectionDetails.getPassword());
+        properties.setProperty("preferQueryMode", "simple");
+        try (Connection connection = DriverManager.getConnection(connectionDetails.getJdbcUrl(), properties);
+                Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_sort = off");
+            statement.execute("SET enable_seqscan = off");
+            List<String> plan = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("EXPLAIN (GENERIC_PLAN) " + numberParameters(sql))) {
+                while (rs.next()) {
+                    plan.add(rs.getString(1));
+                }
+            }
+            return plan;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not explain " + sql, e);
+        }
+    }
+
+    private static String numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length());
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+}
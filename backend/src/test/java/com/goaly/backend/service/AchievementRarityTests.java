@@ -0,0 +1,44 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class AchievementRarityTests {
+
+    @Test
+    void sameFiguresGiveTheSameFingerprint() {
+        Map<Long, Double> ascending = new LinkedHashMap<>();
+        ascending.put(1L, 12.5);
+        ascending.put(2L, 0.0);
+        ascending.put(300L, 100.0);
+        Map<Long, Double> descending = new LinkedHashMap<>();
+        descending.put(300L, 100.0);
+        descending.put(2L, 0.0);
+        descending.put(1L, 12.5);
+
+        // Another instance, or this one after a restart, publishes equal maps built in another order
+        assertThat(AchievementRarity.fingerprint(descending)).isEqualTo(AchievementRarity.fingerprint(ascending));
+    }
+
+    @Test
+    void anyChangedFigureChangesTheFingerprint() {
+        Map<Long, Double> base = Map.of(1L, 12.5, 2L, 50.0);
+        long fingerprint = AchievementRarity.fingerprint(base);
+
+        Map<Long, Double> moved = new HashMap<>(base);
+        moved.put(2L, 50.000001);
+        Map<Long, Double> added = new HashMap<>(base);
+        added.put(3L, 0.0);
+        Map<Long, Double> swapped = Map.of(1L, 50.0, 2L, 12.5);
+
+        assertThat(AchievementRarity.fingerprint(moved)).isNotEqualTo(fingerprint);
+        assertThat(AchievementRarity.fingerprint(added)).isNotEqualTo(fingerprint);
+        assertThat(AchievementRarity.fingerprint(swapped)).isNotEqualTo(fingerprint);
+        assertThat(AchievementRarity.fingerprint(Map.of())).isNotEqualTo(fingerprint);
+    }
+}
@@ -0,0 +1,134 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.controller.AchievementController.CreateAchievementRequest;
+import com.goaly.backend.controller.AchievementController.UpdateAchievementRequest;
+import com.goaly.backend.entity.UserAchievementStats;
+import com.goaly.backend.repository.UserRepository;
+
+/**
+ * Checks that catalog and user changes reach the materialized stats, the
+ * leaderboard and the published rarity without waiting for the nightly
+ * reconcile
+ */
+class AchievementStatsSyncTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private UserAchievementStatsService statsService;
+
+    @Autowired
+    private PointsLeaderboard leaderboard;
+
+    @Autowired
+    private AchievementRarity rarity;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long userId;
+    private Long achievementId;
+    private String category;
+
+    @BeforeEach
+    void unlockAchievement() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Stats").getId();
+        category = "SYNC-" + UUID.randomUUID().toString().substring(0, 8);
+        achievementId = createAchievement(10, category);
+        achievementService.unlockAchievementForUser(userId, achievementId);
+        achievementService.unlockAchievementForUser(userId, createAchievement(5, category));
+    }
+
+    @Test
+    void pointsChangeRewritesUnlockersTotals() {
+        UpdateAchievementRequest request = new UpdateAchievementRequest();
+        request.setPoints(25);
+
+        achievementService.updateAchievement(achievementId, request);
+
+        UserAchievementStats stats = statsService.getStats(userId);
+        assertThat(stats.getUnlockedCount()).isEqualTo(2);
+        assertThat(stats.getTotalPoints()).isEqualTo(30L);
+        assertThat(stats.getCategoryCounts()).isEqualTo(Map.of(category, 2));
+    }
+
+    @Test
+    void categoryChangeMovesUnlockersCounts() {
+        UpdateAchievementRequest request = new UpdateAchievementRequest();
+        request.setCategory(category + "-MOVED");
+
+        achievementService.updateAchievement(achievementId, request);
+
+        assertThat(statsService.getStats(userId).getCategoryCounts())
+                .isEqualTo(Map.of(category, 1, category + "-MOVED", 1));
+    }
+
+    @Test
+    void deletedAchievementIsSubtractedFromUnlockers() {
+        achievementService.deleteAchievement(achievementId);
+
+        UserAchievementStats stats = statsService.getStats(userId);
+        assertThat(stats.getUnlockedCount()).isEqualTo(1);
+        assertThat(stats.getTotalPoints()).isEqualTo(5L);
+        assertThat(stats.getCategoryCounts()).isEqualTo(Map.of(category, 1));
+    }
+
+    @Test
+    void lastUnlockOfACategoryDropsItsCount() {
+        String other = category + "-SOLO";
+        Long solo = createAchievement(3, other);
+        achievementService.unlockAchievementForUser(userId, solo);
+
+        achievementService.deleteAchievement(solo);
+
+        assertThat(statsService.getStats(userId).getCategoryCounts()).isEqualTo(Map.of(category, 2));
+    }
+
+    @Test
+    void deletedUserLeavesEveryBoard() {
+        assertThat(leaderboard.rankOf(null, userId)).isNotNull();
+        assertThat(leaderboard.rankOf(category, userId)).isNotNull();
+
+        userService.deleteUser(userId);
+
+        assertThat(leaderboard.rankOf(null, userId)).isNull();
+        assertThat(leaderboard.rankOf(category, userId)).isNull();
+    }
+
+    @Test
+    void rarityCountsEachCommittedUnlockOnce() {
+        rarity.publish();
+        rarity.publish();
+
+        assertThat(rarity.percentUnlocked(achievementId)).isEqualTo(100.0 / userRepository.loadUserCount());
+
+        userService.deleteUser(userId);
+        rarity.publish();
+
+        assertThat(rarity.percentUnlocked(achievementId)).isZero();
+    }
+
+    private Long createAchievement(int points, String category) {
+        CreateAchievementRequest request = new CreateAchievementRequest();
+        request.setName("Sync " + UUID.randomUUID());
+        request.setDescription("Unlocked by hand");
+        request.setCriteria("goals_completed >= 1000000");
+        request.setPoints(points);
+        request.setCategory(category);
+        return achievementService.createAchievement(request).getId();
+    }
+}
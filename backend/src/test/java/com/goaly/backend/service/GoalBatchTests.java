@@ -0,0 +1,214 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalBatchOperation;
+import com.goaly.backend.dto.GoalBatchOperation.OperationType;
+import com.goaly.backend.dto.GoalBatchRequest;
+import com.goaly.backend.dto.GoalBatchRequest.FailurePolicy;
+import com.goaly.backend.dto.GoalBatchResultDto;
+import com.goaly.backend.dto.GoalBatchResultDto.ItemResult;
+import com.goaly.backend.dto.GoalBatchResultDto.ItemStatus;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.UpdateGoalRequest;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.service.criteria.StreakState;
+
+/**
+ * Checks how a batch with failing operations is committed or rolled back
+ * under each failure policy, and that per-goal side effects see the earlier
+ * operations of the batch
+ */
+class GoalBatchTests extends PostgresIntegrationTest {
+
+    private static final String INSERT_COMPLETED_SQL = """
+            INSERT INTO goals (title, status, completion_date, user_id)
+            VALUES ('Done', 'COMPLETED', ?, ?) RETURNING id
+            """;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private GoalRollupService rollups;
+
+    @Autowired
+    private UserStreakService streakService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private GoalDto existing;
+
+    @BeforeEach
+    void createGoal() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Batcher").getId();
+        existing = goalService.createGoal(create("Existing", userId));
+    }
+
+    @Test
+    void allOrNothingRollsBackEveryOperation() {
+        GoalBatchRequest request = batch(FailurePolicy.ALL_OR_NOTHING,
+                createOperation("New", userId),
+                updateOperation(existing.getId(), "Stale", existing.getVersion() + 1),
+                operation(OperationType.COMPLETE, existing.getId()));
+        long changeSeq = lastChangeSeq();
+
+        GoalBatchResultDto result = goalService.applyBatch(request);
+
+        assertThat(result.isCommitted()).isFalse();
+        assertThat(result.getResults()).extracting(ItemResult::getStatus)
+                .containsExactly(ItemStatus.ROLLED_BACK, ItemStatus.FAILED, ItemStatus.ROLLED_BACK);
+        assertThat(result.getResults().get(1).getError()).contains("modified concurrently");
+        assertThat(result.getResults()).filteredOn(item -> item.getStatus() == ItemStatus.ROLLED_BACK)
+                .allMatch(item -> item.getGoal() == null);
+
+        List<GoalDto> goals = goalService.getGoalsByUserIdAndStatus(userId, GoalStatus.ACTIVE);
+        assertThat(goals).extracting(GoalDto::getTitle).containsExactly("Existing");
+        assertThat(goals.get(0).getVersion()).isEqualTo(existing.getVersion());
+        // Neither the rollups nor the change log saw the rolled back operations
+        assertThat(createdToday()).isEqualTo(1);
+        assertThat(lastChangeSeq()).isEqualTo(changeSeq);
+    }
+
+    @Test
+    void continueCommitsTheOperationsThatSucceeded() {
+        GoalBatchRequest request = batch(FailurePolicy.CONTINUE,
+                createOperation("New", userId),
+                createOperation("Orphan", Long.MAX_VALUE),
+                operation(OperationType.DELETE, Long.MAX_VALUE),
+                operation(OperationType.UPDATE, null),
+                operation(OperationType.COMPLETE, existing.getId()));
+
+        GoalBatchResultDto result = goalService.applyBatch(request);
+
+        assertThat(result.isCommitted()).isTrue();
+        assertThat(result.getResults()).extracting(ItemResult::getStatus).containsExactly(ItemStatus.OK,
+                ItemStatus.FAILED, ItemStatus.FAILED, ItemStatus.FAILED, ItemStatus.OK);
+        assertThat(result.getResults()).extracting(ItemResult::getError).containsExactly(null,
+                "User not found with id: " + Long.MAX_VALUE, "Goal not found with id: " + Long.MAX_VALUE,
+                "id is required for UPDATE", null);
+        Long newId = result.getResults().get(0).getId();
+        assertThat(newId).isNotNull();
+        assertThat(result.getResults().get(0).getGoal().getTitle()).isEqualTo("New");
+        assertThat(result.getResults().get(4).getGoal().getStatus()).isEqualTo(GoalStatus.COMPLETED);
+
+        assertThat(goalService.getGoalById(newId).getStatus()).isEqualTo(GoalStatus.ACTIVE);
+        assertThat(goalService.getGoalById(existing.getId()).getStatus()).isEqualTo(GoalStatus.COMPLETED);
+        assertThat(createdToday()).isEqualTo(2);
+    }
+
+    @Test
+    void laterOperationsSeeEarlierOnesOnTheSameGoal() {
+        GoalBatchRequest request = batch(FailurePolicy.CONTINUE,
+                updateOperation(existing.getId(), "Renamed", existing.getVersion()),
+                operation(OperationType.DELETE, existing.getId()),
+                operation(OperationType.COMPLETE, existing.getId()));
+
+        GoalBatchResultDto result = goalService.applyBatch(request);
+
+        assertThat(result.getResults()).extracting(ItemResult::getStatus)
+                .containsExactly(ItemStatus.OK, ItemStatus.OK, ItemStatus.FAILED);
+        assertThat(result.getResults().get(2).getError())
+                .isEqualTo("Goal not found with id: " + existing.getId());
+        assertThat(goalService.getGoalsByUserIdAndStatus(userId, GoalStatus.ACTIVE)).isEmpty();
+    }
+
+    @Test
+    void batchWithoutFailuresCommitsUnderEitherPolicy() {
+        GoalBatchResultDto result = goalService.applyBatch(batch(FailurePolicy.ALL_OR_NOTHING,
+                createOperation("One", userId), createOperation("Two", userId)));
+
+        assertThat(result.isCommitted()).isTrue();
+        assertThat(result.getResults()).extracting(ItemResult::getStatus)
+                .containsExactly(ItemStatus.OK, ItemStatus.OK);
+        assertThat(goalService.getGoalsByUserIdAndStatus(userId, GoalStatus.ACTIVE)).hasSize(3);
+    }
+
+    @Test
+    void completionAfterAReopenInTheSameBatchSeesTheRebuiltStreak() {
+        LocalDate today = LocalDate.now();
+        jdbcTemplate.queryForObject(INSERT_COMPLETED_SQL, Long.class, today.minusDays(2), userId);
+        Long reopenedId = jdbcTemplate.queryForObject(INSERT_COMPLETED_SQL, Long.class, today.minusDays(1), userId);
+        streakService.rebuildUser(userId);
+        Long laterId = goalService.createGoal(create("Later", userId)).getId();
+        UpdateGoalRequest reopen = new UpdateGoalRequest();
+        reopen.setStatus(GoalStatus.ACTIVE);
+        GoalBatchOperation reopenOperation = operation(OperationType.UPDATE, reopenedId);
+        reopenOperation.setChanges(reopen);
+
+        // The reopen rebuilds the streak after the whole batch was flushed, so it already counts the last completion
+        GoalBatchResultDto result = goalService.applyBatch(batch(FailurePolicy.ALL_OR_NOTHING,
+                operation(OperationType.COMPLETE, existing.getId()), reopenOperation,
+                operation(OperationType.COMPLETE, laterId)));
+
+        assertThat(result.isCommitted()).isTrue();
+        StreakState tracked = streakService.getState(userId);
+        streakService.rebuildUser(userId);
+        StreakState rebuilt = streakService.getState(userId);
+        assertThat(tracked).usingRecursiveComparison().isEqualTo(rebuilt);
+        // Two days ago plus both completions today; the reopened goal no longer counts
+        assertThat(tracked.getBestStreak()).isEqualTo(3);
+        assertThat(tracked.getLastCompletionDay()).isEqualTo(today.toEpochDay());
+    }
+
+    private long lastChangeSeq() {
+        return goalService.getChangesSince(userId, 0, 1000).getHighWaterMark();
+    }
+
+    private int createdToday() {
+        LocalDate today = LocalDate.now();
+        return rollups.getAnalytics(userId, today, today, 1).getCreated();
+    }
+
+    private static GoalBatchRequest batch(FailurePolicy policy, GoalBatchOperation... operations) {
+        GoalBatchRequest request = new GoalBatchRequest();
+        request.setOnFailure(policy);
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private static GoalBatchOperation createOperation(String title, Long userId) {
+        GoalBatchOperation operation = operation(OperationType.CREATE, null);
+        operation.setGoal(create(title, userId));
+        return operation;
+    }
+
+    private static GoalBatchOperation updateOperation(Long id, String title, Long version) {
+        UpdateGoalRequest changes = new UpdateGoalRequest();
+        changes.setTitle(title);
+        changes.setVersion(version);
+        GoalBatchOperation operation = operation(OperationType.UPDATE, id);
+        operation.setChanges(changes);
+        return operation;
+    }
+
+    private static GoalBatchOperation operation(OperationType type, Long id) {
+        GoalBatchOperation operation = new GoalBatchOperation();
+        operation.setType(type);
+        operation.setId(id);
+        return operation;
+    }
+
+    private static CreateGoalRequest create(String title, Long userId) {
+        CreateGoalRequest request = new CreateGoalRequest();
+        request.setUserId(userId);
+        request.setTitle(title);
+        return request;
+    }
+}
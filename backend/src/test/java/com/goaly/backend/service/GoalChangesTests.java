@@ -0,0 +1,154 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalChangesDto;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.UpdateGoalRequest;
+
+/**
+ * Checks delta sync over the goal change log, in particular where it falls
+ * back to a full resync once retention has dropped unseen changes
+ */
+class GoalChangesTests extends PostgresIntegrationTest {
+
+    private static final String USER_CHANGE_SEQS_SQL = """
+            SELECT seq FROM goal_change_log WHERE user_id = ? ORDER BY seq
+            """;
+
+    // Stands in for the retention job dropping the partition holding the oldest changes
+    private static final String DROP_CHANGES_SQL = """
+            DELETE FROM goal_change_log WHERE user_id = ? AND seq <= ?
+            """;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long renamedId;
+    private Long deletedId;
+    private Long untouchedId;
+    private List<Long> seqs;
+
+    @BeforeEach
+    void recordChanges() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Syncer").getId();
+        renamedId = createGoal("Renamed later");
+        deletedId = createGoal("Deleted later");
+        untouchedId = createGoal("Untouched");
+        UpdateGoalRequest update = new UpdateGoalRequest();
+        update.setTitle("Renamed");
+        goalService.updateGoal(renamedId, update);
+        goalService.deleteGoal(deletedId);
+        seqs = jdbcTemplate.queryForList(USER_CHANGE_SEQS_SQL, Long.class, userId);
+    }
+
+    @Test
+    void deltaFromTheStartCarriesLatestStateAndTombstones() {
+        GoalChangesDto changes = goalService.getChangesSince(userId, 0, 100);
+
+        assertThat(seqs).hasSize(5);
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.isHasMore()).isFalse();
+        assertThat(changes.getHighWaterMark()).isEqualTo(lastSeq());
+        assertThat(changes.getGoals()).extracting(GoalDto::getTitle).containsExactlyInAnyOrder("Renamed", "Untouched");
+        assertThat(changes.getDeletedIds()).containsExactly(deletedId);
+    }
+
+    @Test
+    void upToDateClientGetsNothing() {
+        GoalChangesDto changes = goalService.getChangesSince(userId, lastSeq(), 100);
+
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.getHighWaterMark()).isEqualTo(lastSeq());
+        assertThat(changes.getGoals()).isEmpty();
+        assertThat(changes.getDeletedIds()).isEmpty();
+    }
+
+    @Test
+    void limitPagesThroughTheLog() {
+        GoalChangesDto first = goalService.getChangesSince(userId, 0, 2);
+        GoalChangesDto rest = goalService.getChangesSince(userId, first.getHighWaterMark(), 100);
+
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getHighWaterMark()).isEqualTo(seqs.get(1));
+        // Goals come back as they are now, so a goal deleted later is already a tombstone
+        assertThat(first.getGoals()).extracting(GoalDto::getId).containsExactly(renamedId);
+        assertThat(first.getGoals().get(0).getTitle()).isEqualTo("Renamed");
+        assertThat(first.getDeletedIds()).containsExactly(deletedId);
+        assertThat(rest.isHasMore()).isFalse();
+        assertThat(rest.getHighWaterMark()).isEqualTo(lastSeq());
+        assertThat(rest.getGoals()).extracting(GoalDto::getId).containsExactlyInAnyOrder(untouchedId, renamedId);
+        assertThat(rest.getDeletedIds()).containsExactly(deletedId);
+    }
+
+    @Test
+    void deltaStillServedWhenRetentionKeptTheNextChange() {
+        jdbcTemplate.update(DROP_CHANGES_SQL, userId, seqs.get(1));
+
+        GoalChangesDto changes = goalService.getChangesSince(userId, seqs.get(1), 100);
+
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.getGoals()).extracting(GoalDto::getId).containsExactlyInAnyOrder(untouchedId, renamedId);
+        assertThat(changes.getDeletedIds()).containsExactly(deletedId);
+    }
+
+    @Test
+    void fullResyncOnceRetentionDroppedAnUnseenChange() {
+        jdbcTemplate.update(DROP_CHANGES_SQL, userId, seqs.get(1));
+
+        GoalChangesDto changes = goalService.getChangesSince(userId, seqs.get(0), 100);
+
+        assertFullResync(changes, seqs.get(0));
+    }
+
+    @Test
+    void fullResyncWhenTheWholeLogWasDropped() {
+        jdbcTemplate.update(DROP_CHANGES_SQL, userId, lastSeq());
+
+        assertFullResync(goalService.getChangesSince(userId, seqs.get(2), 100), seqs.get(2));
+        assertThat(goalService.getChangesSince(userId, lastSeq(), 100).isFull()).isFalse();
+    }
+
+    @Test
+    void fullResyncForAMarkAheadOfTheLog() {
+        assertFullResync(goalService.getChangesSince(userId, lastSeq() + 1, 100), lastSeq() + 1);
+    }
+
+    private void assertFullResync(GoalChangesDto changes, long since) {
+        assertThat(changes.isFull()).isTrue();
+        assertThat(changes.getSince()).isEqualTo(since);
+        assertThat(changes.getHighWaterMark()).isEqualTo(lastSeq());
+        assertThat(changes.isHasMore()).isFalse();
+        // Every current goal replaces the client's copy, so no tombstones are needed
+        assertThat(changes.getGoals()).extracting(GoalDto::getId).containsExactlyInAnyOrder(renamedId, untouchedId);
+        assertThat(changes.getDeletedIds()).isEmpty();
+    }
+
+    private long lastSeq() {
+        return seqs.get(seqs.size() - 1);
+    }
+
+    private Long createGoal(String title) {
+        CreateGoalRequest request = new CreateGoalRequest();
+        request.setUserId(userId);
+        request.setTitle(title);
+        return goalService.createGoal(request).getId();
+    }
+}
@@ -0,0 +1,119 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.entity.Goal.GoalPriority;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.GoalSortMode;
+
+class GoalCursorTests {
+
+    @ParameterizedTest
+    @EnumSource(GoalSortMode.class)
+    void roundTripsEverySortMode(GoalSortMode sort) {
+        GoalDto goal = goal();
+        for (boolean descending : new boolean[] { false, true }) {
+            GoalCursor cursor = GoalCursor.after(goal, sort, descending);
+
+            GoalCursor decoded = GoalCursor.decode(cursor.encode());
+
+            assertThat(decoded.getSort()).isEqualTo(sort);
+            assertThat(decoded.isDescending()).isEqualTo(descending);
+            assertThat(decoded.getKey()).isEqualTo(cursor.getKey()).isNotNull();
+            assertThat(decoded.getId()).isEqualTo(42L);
+        }
+    }
+
+    @Test
+    void roundTripsNullKeyOfNullableSort() {
+        GoalDto goal = goal();
+        goal.setTargetDate(null);
+
+        GoalCursor decoded = GoalCursor.decode(GoalCursor.after(goal, GoalSortMode.TARGET_DATE, true).encode());
+
+        assertThat(decoded.getKey()).isNull();
+        assertThat(decoded.getId()).isEqualTo(42L);
+    }
+
+    @Test
+    void keepsSeparatorInsideKey() {
+        GoalDto goal = goal();
+        goal.setTitle("read|write|repeat");
+
+        GoalCursor decoded = GoalCursor.decode(GoalCursor.after(goal, GoalSortMode.TITLE, false).encode());
+
+        assertThat(decoded.getKey()).isEqualTo("read|write|repeat");
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        GoalDto goal = goal();
+        goal.setTitle("??>>~~ü");
+
+        String encoded = GoalCursor.after(goal, GoalSortMode.TITLE, false).encode();
+
+        assertThat(encoded).matches("[A-Za-z0-9_-]+");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "",
+            "not a cursor!",
+            // Another version of the format
+            "2|CREATED|a|42|2024-03-01T10:15:30",
+            "1|UNKNOWN|a|42|x",
+            "1|CREATED|a|forty-two|2024-03-01T10:15:30",
+            "1|CREATED|a|42|yesterday",
+            "1|TARGET_DATE|a|42|2024-02-30",
+            "1|PRIORITY|a|42|7",
+            // Only nullable sorts may leave the key out
+            "1|TITLE|a|42",
+            "1|CREATED"
+    })
+    void rejectsTamperedCursors(String raw) {
+        String encoded = raw.equals("not a cursor!") ? raw : encode(raw);
+
+        assertThatThrownBy(() -> GoalCursor.decode(encoded))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid cursor");
+    }
+
+    @Test
+    void rejectsCursorWithFlippedBytes() {
+        byte[] bytes = GoalCursor.after(goal(), GoalSortMode.CREATED, false).encode()
+                .getBytes(StandardCharsets.US_ASCII);
+        bytes[0] = (byte) (bytes[0] == 'A' ? 'B' : 'A');
+
+        assertThatThrownBy(() -> GoalCursor.decode(new String(bytes, StandardCharsets.US_ASCII)))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static GoalDto goal() {
+        GoalDto goal = new GoalDto();
+        goal.setId(42L);
+        goal.setTitle("Run a marathon");
+        goal.setStatus(GoalStatus.ACTIVE);
+        goal.setPriority(GoalPriority.HIGH);
+        goal.setTargetDate(LocalDate.of(2024, 9, 1));
+        goal.setCreatedAt(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_000_000));
+        goal.setUpdatedAt(LocalDateTime.of(2024, 3, 2, 8, 0));
+        return goal;
+    }
+}
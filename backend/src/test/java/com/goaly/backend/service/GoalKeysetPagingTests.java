@@ -0,0 +1,79 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.GoalSliceDto;
+import com.goaly.backend.repository.GoalSortMode;
+
+/**
+ * Walks a user's goals slice by slice in every sort and checks the result
+ * matches one unpaged read, including across the boundary between null and
+ * non-null keys
+ */
+class GoalKeysetPagingTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalService goalService;
+
+    private Long userId;
+
+    @BeforeEach
+    void createGoals() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Pager").getId();
+        LocalDate base = LocalDate.of(2030, 1, 1);
+        List<LocalDate> targetDates = Arrays.asList(null, base.plusDays(3), base, null, base.plusDays(3),
+                base.plusDays(1), null);
+        for (int i = 0; i < targetDates.size(); i++) {
+            CreateGoalRequest request = new CreateGoalRequest();
+            request.setUserId(userId);
+            request.setTitle("Goal " + (i % 3));
+            request.setTargetDate(targetDates.get(i));
+            goalService.createGoal(request);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(GoalSortMode.class)
+    void slicesMatchOneRead(GoalSortMode sort) {
+        for (boolean descending : new boolean[] { false, true }) {
+            List<Long> expected = ids(goalService.getGoalsByUserId(userId, null, sort, descending, 100).getContent());
+            for (int size = 1; size <= 3; size++) {
+                assertThat(walk(sort, descending, size)).as("%s descending=%s size=%d", sort, descending, size)
+                        .isEqualTo(expected);
+            }
+        }
+    }
+
+    private List<Long> walk(GoalSortMode sort, boolean descending, int size) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            GoalSliceDto slice = goalService.getGoalsByUserId(userId, cursor, sort, descending, size);
+            assertThat(slice.getContent()).hasSizeLessThanOrEqualTo(size);
+            ids.addAll(ids(slice.getContent()));
+            cursor = slice.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+
+    private static List<Long> ids(List<GoalDto> goals) {
+        return goals.stream().map(GoalDto::getId).toList();
+    }
+}
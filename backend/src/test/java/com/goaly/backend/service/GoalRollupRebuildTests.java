@@ -0,0 +1,153 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.UpdateGoalRequest;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.repository.GoalRollupDay;
+
+/**
+ * Checks that the rollup rows kept up to date by goal changes match both a
+ * rebuild from goals and the backfill that created the table
+ */
+class GoalRollupRebuildTests extends PostgresIntegrationTest {
+
+    private static final String BACKFILL_MIGRATION = "db/migration/V15__Create_goal_daily_rollup_table.sql";
+
+    // History from before the rollups existed, so later changes land on earlier days
+    private static final String INSERT_GOAL_SQL = """
+            INSERT INTO goals (title, status, user_id, created_at, completion_date, cancellation_date)
+            VALUES ('Old', ?, ?, ?, ?, ?) RETURNING id
+            """;
+
+    // Rows a change brought back to zero stay behind; a rebuild never writes them
+    private static final String ROLLUP_ROWS_SQL = """
+            SELECT user_id, day, created, completed, cancelled, completion_hours FROM goal_daily_rollup
+            WHERE user_id = ? AND (created <> 0 OR completed <> 0 OR cancelled <> 0 OR completion_hours <> 0)
+            ORDER BY day
+            """;
+
+    private static final RowMapper<GoalRollupDay> ROW_MAPPER = (rs, rowNum) -> new GoalRollupDay(
+            rs.getLong("user_id"), rs.getDate("day").toLocalDate(), rs.getInt("created"), rs.getInt("completed"),
+            rs.getInt("cancelled"), rs.getLong("completion_hours"));
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalService goalService;
+
+    @Autowired
+    private GoalRollupService rollups;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private LocalDate today;
+    private Long completedId;
+    private Long cancelledId;
+    private Long activeId;
+    private Long deletedId;
+
+    @BeforeEach
+    void createHistory() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Rollup").getId();
+        today = LocalDate.now();
+        completedId = insertGoal(GoalStatus.COMPLETED, 5, today.minusDays(3), null);
+        cancelledId = insertGoal(GoalStatus.CANCELLED, 4, null, today.minusDays(2));
+        activeId = insertGoal(GoalStatus.ACTIVE, 6, null, null);
+        deletedId = insertGoal(GoalStatus.COMPLETED, 3, today.minusDays(1), null);
+        rollups.rebuildAll();
+    }
+
+    @Test
+    void incrementalRowsMatchARebuildAndTheBackfill() throws IOException {
+        goalService.updateGoal(completedId, status(GoalStatus.ACTIVE));
+        goalService.updateGoal(cancelledId, status(GoalStatus.COMPLETED));
+        goalService.updateGoal(activeId, status(GoalStatus.CANCELLED));
+        goalService.deleteGoal(deletedId);
+        Long createdId = createGoal("New");
+        goalService.completeGoal(createdId);
+        goalService.updateGoal(createdId, status(GoalStatus.ACTIVE));
+        goalService.completeGoal(createGoal("Done"));
+        createGoal("Open");
+
+        List<GoalRollupDay> incremental = rollupRows();
+        rollups.rebuildAll();
+
+        assertThat(incremental).isEqualTo(rollupRows());
+        assertThat(incremental).isEqualTo(backfillRows());
+        // The reopened, deleted and no longer cancelled goals left their old days; creations stayed put
+        assertThat(incremental).extracting(GoalRollupDay::day).containsExactly(today.minusDays(6),
+                today.minusDays(5), today.minusDays(4), today);
+        assertThat(incremental.get(incremental.size() - 1)).satisfies(row -> {
+            assertThat(row.created()).isEqualTo(3);
+            assertThat(row.completed()).isEqualTo(2);
+            assertThat(row.cancelled()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void analyticsReadTheIncrementalRows() {
+        goalService.updateGoal(completedId, status(GoalStatus.ACTIVE));
+        goalService.updateGoal(activeId, status(GoalStatus.CANCELLED));
+
+        // The window for the first day reaches back to the reopened completion, which no longer counts
+        assertThat(rollups.getAnalytics(userId, today.minusDays(1), today, 3).getRollingCompletionRates())
+                .extracting(point -> point.completed() + "/" + point.cancelled())
+                .containsExactly("1/1", "1/2");
+    }
+
+    private List<GoalRollupDay> rollupRows() {
+        return jdbcTemplate.query(ROLLUP_ROWS_SQL, ROW_MAPPER, userId);
+    }
+
+    /**
+     * Run the backfill query from the migration for this user only
+     */
+    private List<GoalRollupDay> backfillRows() throws IOException {
+        String migration = new ClassPathResource(BACKFILL_MIGRATION).getContentAsString(StandardCharsets.UTF_8);
+        int insert = migration.indexOf("goal_daily_rollup (user_id, day");
+        String select = migration.substring(migration.indexOf("SELECT", insert), migration.lastIndexOf(';'));
+        return jdbcTemplate.query("SELECT * FROM (" + select + ") backfill "
+                + "(user_id, day, created, completed, cancelled, completion_hours) WHERE user_id = ? ORDER BY day",
+                ROW_MAPPER, userId);
+    }
+
+    private Long insertGoal(GoalStatus status, int createdDaysAgo, LocalDate completionDate,
+            LocalDate cancellationDate) {
+        LocalDateTime createdAt = today.minusDays(createdDaysAgo).atTime(15, 30);
+        return jdbcTemplate.queryForObject(INSERT_GOAL_SQL, Long.class, status.name(), userId, createdAt,
+                completionDate, cancellationDate);
+    }
+
+    private Long createGoal(String title) {
+        CreateGoalRequest request = new CreateGoalRequest();
+        request.setUserId(userId);
+        request.setTitle(title);
+        return goalService.createGoal(request).getId();
+    }
+
+    private static UpdateGoalRequest status(GoalStatus status) {
+        UpdateGoalRequest request = new UpdateGoalRequest();
+        request.setStatus(status);
+        return request;
+    }
+}
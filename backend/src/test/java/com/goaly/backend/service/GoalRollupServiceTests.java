@@ -0,0 +1,123 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.goaly.backend.dto.GoalAnalyticsDto;
+import com.goaly.backend.dto.GoalAnalyticsDto.RatePoint;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.repository.GoalRollupDay;
+import com.goaly.backend.service.GoalRollupService.Contribution;
+
+class GoalRollupServiceTests {
+
+    private static final LocalDate FROM = LocalDate.of(2026, 3, 10);
+
+    @Test
+    void windowsLeadIntoTheRangeFromDaysBeforeIt() {
+        List<GoalRollupDay> rows = List.of(
+                row(FROM.minusDays(2), 0, 1, 0, 30),
+                row(FROM.minusDays(1), 1, 0, 1, 0),
+                row(FROM, 2, 1, 0, 12),
+                row(FROM.plusDays(2), 0, 1, 0, 6));
+
+        GoalAnalyticsDto analytics = GoalRollupService.analyze(1L, FROM, FROM.plusDays(2), 3, rows);
+
+        // Totals and the heatmap only cover the range itself
+        assertThat(analytics.getCreated()).isEqualTo(2);
+        assertThat(analytics.getCompleted()).isEqualTo(2);
+        assertThat(analytics.getCancelled()).isZero();
+        assertThat(analytics.getCompletionRate()).isEqualTo(1.0);
+        assertThat(analytics.getAverageHoursToComplete()).isEqualTo(9.0);
+        assertThat(analytics.getHeatmap()).extracting(GoalAnalyticsDto.Day::day)
+                .containsExactly(FROM, FROM.plusDays(2));
+        // Each point's window ends on its day, so the first two reach back before the range
+        assertThat(analytics.getRollingCompletionRates()).containsExactly(
+                new RatePoint(FROM, 2, 1, 2.0 / 3),
+                new RatePoint(FROM.plusDays(1), 1, 1, 0.5),
+                new RatePoint(FROM.plusDays(2), 2, 0, 1.0));
+    }
+
+    @Test
+    void dayWindowsMatchTheirOwnRows() {
+        List<GoalRollupDay> rows = List.of(
+                row(FROM, 0, 2, 2, 0),
+                row(FROM.plusDays(3), 0, 0, 1, 0));
+
+        GoalAnalyticsDto analytics = GoalRollupService.analyze(1L, FROM, FROM.plusDays(3), 1, rows);
+
+        assertThat(analytics.getRollingCompletionRates()).containsExactly(
+                new RatePoint(FROM, 2, 2, 0.5),
+                new RatePoint(FROM.plusDays(1), 0, 0, null),
+                new RatePoint(FROM.plusDays(2), 0, 0, null),
+                new RatePoint(FROM.plusDays(3), 0, 1, 0.0));
+        assertThat(analytics.getAverageHoursToComplete()).isZero();
+    }
+
+    @Test
+    void reopenedDayStaysInTheWindowsButLeavesTheHeatmap() {
+        // The only goal completed that day was reopened, which left an all-zero row behind
+        List<GoalRollupDay> rows = List.of(
+                row(FROM, 0, 0, 0, 0),
+                row(FROM.plusDays(1), 0, 0, 1, 0));
+
+        GoalAnalyticsDto analytics = GoalRollupService.analyze(1L, FROM, FROM.plusDays(1), 2, rows);
+
+        assertThat(analytics.getHeatmap()).extracting(GoalAnalyticsDto.Day::day).containsExactly(FROM.plusDays(1));
+        assertThat(analytics.getCompletionRate()).isEqualTo(0.0);
+        assertThat(analytics.getAverageHoursToComplete()).isNull();
+        assertThat(analytics.getRollingCompletionRates()).containsExactly(
+                new RatePoint(FROM, 0, 0, null),
+                new RatePoint(FROM.plusDays(1), 0, 1, 0.0));
+    }
+
+    @Test
+    void reopeningMovesOnlyTheCompletion() {
+        GoalDto goal = goal(GoalStatus.ACTIVE, FROM.minusDays(1).atTime(18, 0));
+        goal.setCompletionDate(FROM);
+
+        Contribution before = Contribution.of(goal, GoalStatus.COMPLETED);
+        Contribution after = Contribution.of(goal);
+
+        assertThat(before).isEqualTo(new Contribution(FROM.minusDays(1), FROM, null, 6));
+        assertThat(after).isEqualTo(new Contribution(FROM.minusDays(1), null, null, 0));
+    }
+
+    @Test
+    void cancellingACompletedGoalMovesItToTheCancellationDay() {
+        GoalDto goal = goal(GoalStatus.CANCELLED, FROM.atStartOfDay());
+        goal.setCompletionDate(FROM.plusDays(2));
+        goal.setCancellationDate(FROM.plusDays(5));
+
+        Contribution before = Contribution.of(goal, GoalStatus.COMPLETED);
+        Contribution after = Contribution.of(goal);
+
+        assertThat(before).isEqualTo(new Contribution(FROM, FROM.plusDays(2), null, 48));
+        assertThat(after).isEqualTo(new Contribution(FROM, null, FROM.plusDays(5), 0));
+    }
+
+    @Test
+    void completionBeforeCreationCountsNoHours() {
+        GoalDto goal = goal(GoalStatus.COMPLETED, FROM.atTime(9, 0));
+        goal.setCompletionDate(FROM);
+
+        assertThat(Contribution.of(goal).completionHours()).isZero();
+    }
+
+    private static GoalRollupDay row(LocalDate day, int created, int completed, int cancelled, long hours) {
+        return new GoalRollupDay(1L, day, created, completed, cancelled, hours);
+    }
+
+    private static GoalDto goal(GoalStatus status, LocalDateTime createdAt) {
+        GoalDto goal = new GoalDto();
+        goal.setStatus(status);
+        goal.setCreatedAt(createdAt);
+        return goal;
+    }
+}
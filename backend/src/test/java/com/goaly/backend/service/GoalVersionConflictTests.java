@@ -0,0 +1,142 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.CreateGoalRequest;
+import com.goaly.backend.dto.GoalDto;
+import com.goaly.backend.dto.UpdateGoalRequest;
+import com.goaly.backend.entity.Goal.GoalStatus;
+import com.goaly.backend.exception.ConflictException;
+import com.goaly.backend.exception.ResourceNotFoundException;
+
+/**
+ * Checks the optimistic version check of the single-statement goal updates
+ */
+class GoalVersionConflictTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalService goalService;
+
+    private GoalDto goal;
+
+    @BeforeEach
+    void createGoal() {
+        Long userId = userService.createUser(UUID.randomUUID() + "@example.com", "Versions").getId();
+        CreateGoalRequest request = new CreateGoalRequest();
+        request.setUserId(userId);
+        request.setTitle("Original");
+        goal = goalService.createGoal(request);
+    }
+
+    @Test
+    void matchingVersionUpdatesAndBumpsIt() {
+        GoalDto updated = goalService.updateGoal(goal.getId(), update("Renamed", goal.getVersion()));
+
+        assertThat(updated.getTitle()).isEqualTo("Renamed");
+        assertThat(updated.getVersion()).isEqualTo(goal.getVersion() + 1);
+        // Without a version the update is unconditional
+        assertThat(goalService.updateGoal(goal.getId(), update("Again", null)).getVersion())
+                .isEqualTo(goal.getVersion() + 2);
+    }
+
+    @Test
+    void staleVersionIsAConflictAndChangesNothing() {
+        goalService.updateGoal(goal.getId(), update("First", goal.getVersion()));
+
+        assertThatThrownBy(() -> goalService.updateGoal(goal.getId(), update("Second", goal.getVersion())))
+                .isInstanceOf(ConflictException.class)
+                .hasMessage("Goal " + goal.getId() + " was modified concurrently; current version is "
+                        + (goal.getVersion() + 1));
+        GoalDto current = goalService.getGoalById(goal.getId());
+        assertThat(current.getTitle()).isEqualTo("First");
+        assertThat(current.getVersion()).isEqualTo(goal.getVersion() + 1);
+    }
+
+    @Test
+    void missingGoalIsNotFoundRatherThanAConflict() {
+        goalService.deleteGoal(goal.getId());
+
+        assertThatThrownBy(() -> goalService.updateGoal(goal.getId(), update("Gone", goal.getVersion())))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> goalService.completeGoal(goal.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> goalService.deleteGoal(goal.getId()))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    void completeBumpsTheVersionOnlyWhenItChangesTheGoal() {
+        GoalDto completed = goalService.completeGoal(goal.getId());
+        GoalDto again = goalService.completeGoal(goal.getId());
+
+        assertThat(completed.getStatus()).isEqualTo(GoalStatus.COMPLETED);
+        assertThat(completed.getVersion()).isEqualTo(goal.getVersion() + 1);
+        assertThat(again.getVersion()).isEqualTo(completed.getVersion());
+        assertThat(again.getCompletionDate()).isEqualTo(completed.getCompletionDate());
+        assertThatThrownBy(() -> goalService.updateGoal(goal.getId(), update("Late", goal.getVersion())))
+                .isInstanceOf(ConflictException.class);
+    }
+
+    @Test
+    void concurrentUpdatesOfOneVersionHaveOneWinner() throws Exception {
+        int writers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<GoalDto>> futures = new ArrayList<>();
+            for (int i = 0; i < writers; i++) {
+                String title = "Writer " + i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return goalService.updateGoal(goal.getId(), update(title, goal.getVersion()));
+                }));
+            }
+            start.countDown();
+
+            List<String> winners = new ArrayList<>();
+            int conflicts = 0;
+            for (Future<GoalDto> future : futures) {
+                try {
+                    winners.add(future.get(30, TimeUnit.SECONDS).getTitle());
+                } catch (ExecutionException e) {
+                    assertThat(e.getCause()).isInstanceOf(ConflictException.class);
+                    conflicts++;
+                }
+            }
+
+            assertThat(winners).hasSize(1);
+            assertThat(conflicts).isEqualTo(writers - 1);
+            GoalDto current = goalService.getGoalById(goal.getId());
+            assertThat(current.getTitle()).isEqualTo(winners.get(0));
+            assertThat(current.getVersion()).isEqualTo(goal.getVersion() + 1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static UpdateGoalRequest update(String title, Long version) {
+        UpdateGoalRequest request = new UpdateGoalRequest();
+        request.setTitle(title);
+        request.setVersion(version);
+        return request;
+    }
+}
@@ -0,0 +1,116 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RankIndexTests {
+
+    @Test
+    void ranksTiesByUserId() {
+        RankIndex index = new RankIndex();
+        index.add(30, 10);
+        index.add(10, 10);
+        index.add(20, 50);
+        index.add(40, 10);
+
+        assertThat(index.top(0, 10)).containsExactly(
+                new RankIndex.Ranked(1, 20, 50),
+                new RankIndex.Ranked(2, 10, 10),
+                new RankIndex.Ranked(3, 30, 10),
+                new RankIndex.Ranked(4, 40, 10));
+        assertThat(index.rankOf(30)).isEqualTo(new RankIndex.Ranked(3, 30, 10));
+    }
+
+    @Test
+    void seeksIntoTheMiddleOfATie() {
+        RankIndex index = new RankIndex();
+        for (long userId = 1; userId <= 1000; userId++) {
+            index.add(userId, 5);
+        }
+        index.add(2000, 7);
+        index.add(3000, 1);
+
+        assertThat(index.top(500, 3)).containsExactly(
+                new RankIndex.Ranked(501, 500, 5),
+                new RankIndex.Ranked(502, 501, 5),
+                new RankIndex.Ranked(503, 502, 5));
+        // A page that runs off the end of the tie continues into the next score
+        assertThat(index.top(999, 3)).containsExactly(
+                new RankIndex.Ranked(1000, 999, 5),
+                new RankIndex.Ranked(1001, 1000, 5),
+                new RankIndex.Ranked(1002, 3000, 1));
+        assertThat(index.rankOf(750).rank()).isEqualTo(751);
+    }
+
+    @Test
+    void movesUsersBetweenTiesAndRemovesThem() {
+        RankIndex index = new RankIndex();
+        index.add(1, 10);
+        index.add(2, 10);
+        index.add(3, 10);
+
+        index.add(1, 5);
+        index.remove(2);
+        index.remove(99);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.rankOf(2)).isNull();
+        assertThat(index.top(0, 10)).containsExactly(
+                new RankIndex.Ranked(1, 1, 15),
+                new RankIndex.Ranked(2, 3, 10));
+    }
+
+    @Test
+    void growsPastTheInitialScoreRange() {
+        RankIndex index = new RankIndex();
+        index.add(1, 3);
+        index.add(2, 100_000);
+
+        assertThat(index.rankOf(1).rank()).isEqualTo(2);
+        assertThat(index.top(0, 1)).containsExactly(new RankIndex.Ranked(1, 2, 100_000));
+    }
+
+    @Test
+    void matchesASortedList() {
+        Random random = new Random(7);
+        RankIndex index = new RankIndex();
+        Map<Long, Long> scores = new HashMap<>();
+        for (int i = 0; i < 5000; i++) {
+            long userId = random.nextInt(400);
+            if (random.nextInt(10) == 0) {
+                index.remove(userId);
+                scores.remove(userId);
+            } else {
+                long points = random.nextInt(4) * 5;
+                index.add(userId, points);
+                scores.merge(userId, points, Long::sum);
+            }
+        }
+
+        List<Map.Entry<Long, Long>> expected = new ArrayList<>(scores.entrySet());
+        expected.sort(Comparator.comparing(Map.Entry<Long, Long>::getValue).reversed()
+                .thenComparing(Map.Entry::getKey));
+        List<RankIndex.Ranked> ranked = new ArrayList<>();
+        for (int i = 0; i < expected.size(); i++) {
+            Map.Entry<Long, Long> entry = expected.get(i);
+            ranked.add(new RankIndex.Ranked(i + 1, entry.getKey(), entry.getValue()));
+        }
+
+        assertThat(index.size()).isEqualTo(expected.size());
+        for (int offset = 0; offset < expected.size(); offset += 37) {
+            assertThat(index.top(offset, 25))
+                    .isEqualTo(ranked.subList(offset, Math.min(offset + 25, ranked.size())));
+        }
+        for (RankIndex.Ranked expectedRank : ranked) {
+            assertThat(index.rankOf(expectedRank.userId())).isEqualTo(expectedRank);
+        }
+    }
+}
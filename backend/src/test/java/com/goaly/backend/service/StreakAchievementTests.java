@@ -0,0 +1,92 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.controller.AchievementController.CreateAchievementRequest;
+import com.goaly.backend.dto.UserAchievementDto;
+
+/**
+ * Checks rules that read streak metrics, which are evaluated from the
+ * persisted streak tracker rather than the goal history. Each test creates
+ * its achievements before its user, so the backfill started by creating an
+ * achievement never unlocks them for that user first.
+ */
+class StreakAchievementTests extends PostgresIntegrationTest {
+
+    private static final String INSERT_COMPLETED_SQL = """
+            INSERT INTO goals (title, status, completion_date, user_id, created_at)
+            VALUES ('Done', 'COMPLETED', ?, ?, ?::date - 1)
+            """;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private UserStreakService streakService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+
+    @Test
+    void mixedRulesReadTrackerAndAggregates() {
+        Long earned = createAchievement("longest_streak >= 3 AND goals_completed >= 3");
+        Long tooMany = createAchievement("longest_streak >= 3 AND goals_completed >= 4");
+        Long tooLong = createAchievement("longest_streak >= 4 OR weekly_streak >= 2");
+        createUser();
+        LocalDate today = LocalDate.now();
+        for (int day = 3; day >= 1; day--) {
+            insertCompleted(today.minusDays(day));
+        }
+        streakService.rebuildUser(userId);
+
+        List<Long> unlocked = unlockedIds(achievementService.checkAndUnlockAchievements(userId));
+
+        assertThat(unlocked).contains(earned).doesNotContain(tooMany, tooLong);
+    }
+
+    @Test
+    void userWithoutTrackerRowFallsBackToHistory() {
+        Long earned = createAchievement("longest_streak >= 2 AND goals_created >= 2");
+        createUser();
+        insertCompleted(LocalDate.now().minusDays(2));
+        insertCompleted(LocalDate.now().minusDays(1));
+
+        // No rebuild, so there is no user_streaks row for this user
+        assertThat(streakService.getState(userId)).isNull();
+        assertThat(unlockedIds(achievementService.checkAndUnlockAchievements(userId))).contains(earned);
+    }
+
+    private void createUser() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Streaker").getId();
+    }
+
+    private void insertCompleted(LocalDate completionDate) {
+        jdbcTemplate.update(INSERT_COMPLETED_SQL, completionDate, userId, completionDate);
+    }
+
+    private Long createAchievement(String criteria) {
+        CreateAchievementRequest request = new CreateAchievementRequest();
+        request.setName("Streak " + UUID.randomUUID());
+        request.setDescription("Streak rule");
+        request.setCriteria(criteria);
+        return achievementService.createAchievement(request).getId();
+    }
+
+    private static List<Long> unlockedIds(List<UserAchievementDto> unlocked) {
+        return unlocked.stream().map(achievement -> achievement.getAchievement().getId()).toList();
+    }
+}
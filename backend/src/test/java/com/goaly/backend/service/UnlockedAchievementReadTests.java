@@ -0,0 +1,70 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.UserAchievementDto;
+
+/**
+ * Checks reads of a user's unlocks when the local catalog has not yet seen
+ * an achievement another instance created
+ */
+class UnlockedAchievementReadTests extends PostgresIntegrationTest {
+
+    // Stands in for another instance creating the achievement; this catalog is not reloaded
+    private static final String INSERT_ACHIEVEMENT_SQL = """
+            INSERT INTO achievements (name, description, criteria, icon, category)
+            VALUES (?, 'Created elsewhere', 'goals_completed >= 1000000', 'star', ?) RETURNING id
+            """;
+
+    private static final String INSERT_UNLOCK_SQL = """
+            INSERT INTO user_achievements (user_id, achievement_id) VALUES (?, ?)
+            """;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AchievementService achievementService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long achievementId;
+    private String category;
+
+    @BeforeEach
+    void unlockUnseenAchievement() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Reader").getId();
+        category = "REMOTE-" + UUID.randomUUID().toString().substring(0, 8);
+        achievementId = jdbcTemplate.queryForObject(INSERT_ACHIEVEMENT_SQL, Long.class,
+                "Remote " + UUID.randomUUID(), category);
+        jdbcTemplate.update(INSERT_UNLOCK_SQL, userId, achievementId);
+    }
+
+    @Test
+    void unlockedListReloadsTheCatalogOnAMiss() {
+        assertThat(achievementService.getUserUnlockedAchievements(userId))
+                .extracting(achievement -> achievement.getAchievement().getId())
+                .containsExactly(achievementId);
+    }
+
+    @Test
+    void progressListsTheUnseenAchievementAsUnlocked() {
+        assertThat(achievementService.getUserAchievements(userId))
+                .filteredOn(achievement -> achievement.getAchievement().getId().equals(achievementId))
+                .extracting(UserAchievementDto::getStatus)
+                .containsExactly("unlocked");
+        assertThat(achievementService.getUserAchievementsByCategory(userId, category))
+                .extracting(UserAchievementDto::getStatus)
+                .containsExactly("unlocked");
+    }
+}
@@ -0,0 +1,87 @@
+package com.goaly.backend.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class UnlockedAchievementSetTests {
+
+    @Test
+    void containsOnlyAddedOrdinals() {
+        UnlockedAchievementSet set = UnlockedAchievementSet.of(0, 63, 64, 200);
+
+        assertThat(set.size()).isEqualTo(4);
+        assertThat(set.contains(0)).isTrue();
+        assertThat(set.contains(63)).isTrue();
+        assertThat(set.contains(64)).isTrue();
+        assertThat(set.contains(200)).isTrue();
+        assertThat(set.contains(1)).isFalse();
+        assertThat(set.contains(65)).isFalse();
+        assertThat(set.contains(136)).isFalse();
+        // Past the last word
+        assertThat(set.contains(10_000)).isFalse();
+    }
+
+    @Test
+    void addingLeavesTheOriginalUnchanged() {
+        UnlockedAchievementSet original = UnlockedAchievementSet.of(3);
+
+        UnlockedAchievementSet grown = original.with(3, 130);
+
+        assertThat(original.size()).isEqualTo(1);
+        assertThat(original.contains(130)).isFalse();
+        assertThat(grown.size()).isEqualTo(2);
+        assertThat(grown.contains(130)).isTrue();
+        assertThat(original.with()).isSameAs(original);
+    }
+
+    @Test
+    void emptySetContainsNothing() {
+        assertThat(UnlockedAchievementSet.EMPTY.size()).isZero();
+        assertThat(UnlockedAchievementSet.EMPTY.contains(0)).isFalse();
+        assertThat(UnlockedAchievementSet.of().size()).isZero();
+    }
+
+    @Test
+    void unionKeepsBothSidesWhateverTheirLength() {
+        UnlockedAchievementSet shortSet = UnlockedAchievementSet.of(1, 2);
+        UnlockedAchievementSet longSet = UnlockedAchievementSet.of(2, 300);
+
+        for (UnlockedAchievementSet union : new UnlockedAchievementSet[] {
+                shortSet.union(longSet), longSet.union(shortSet) }) {
+            assertThat(union.size()).isEqualTo(3);
+            assertThat(union.contains(1)).isTrue();
+            assertThat(union.contains(2)).isTrue();
+            assertThat(union.contains(300)).isTrue();
+        }
+        assertThat(shortSet.contains(300)).isFalse();
+        assertThat(longSet.contains(1)).isFalse();
+    }
+
+    @Test
+    void matchesABitSet() {
+        Random random = new Random(13);
+        UnlockedAchievementSet set = UnlockedAchievementSet.EMPTY;
+        UnlockedAchievementSet other = UnlockedAchievementSet.EMPTY;
+        BitSet expected = new BitSet();
+        for (int i = 0; i < 400; i++) {
+            int ordinal = random.nextInt(500);
+            if (random.nextBoolean()) {
+                set = set.with(ordinal);
+            } else {
+                other = other.with(ordinal);
+            }
+            expected.set(ordinal);
+        }
+
+        UnlockedAchievementSet union = set.union(other);
+
+        assertThat(union.size()).isEqualTo(expected.cardinality());
+        for (int ordinal = 0; ordinal < 600; ordinal++) {
+            assertThat(union.contains(ordinal)).as("ordinal %d", ordinal).isEqualTo(expected.get(ordinal));
+        }
+    }
+}
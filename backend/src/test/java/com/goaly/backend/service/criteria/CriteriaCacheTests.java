@@ -0,0 +1,44 @@
+package com.goaly.backend.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.Test;
+
+import com.goaly.backend.entity.Achievement;
+import com.goaly.backend.exception.ValidationException;
+
+class CriteriaCacheTests {
+
+    private static final String DESCRIPTION = "Complete your first goal";
+
+    private final CriteriaCache cache = new CriteriaCache();
+
+    @Test
+    void submittedCriteriaIsParsedEvenUnderALegacyName() {
+        assertThatThrownBy(() -> cache.validate(DESCRIPTION)).isInstanceOf(ValidationException.class);
+        assertThatCode(() -> cache.validate("goals_completed >= 1")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void storedRowKeepsItsLegacyRuleOnlyUnderALegacyName() {
+        assertThatCode(() -> cache.validateRename("Goal Crusher", DESCRIPTION)).doesNotThrowAnyException();
+        assertThatThrownBy(() -> cache.validateRename("Goal Smasher", DESCRIPTION))
+                .isInstanceOf(ValidationException.class);
+        assertThatCode(() -> cache.validateRename("Goal Smasher", "goals_completed >= 1"))
+                .doesNotThrowAnyException();
+    }
+
+    @Test
+    void storedDescriptionCompilesToTheLegacyRule() {
+        Achievement achievement = new Achievement("Goal Crusher", DESCRIPTION, DESCRIPTION, "trophy", 10, null, false);
+        achievement.setId(1L);
+
+        CompiledCriteria compiled = cache.get(achievement);
+
+        assertThat(compiled.getMetrics()).containsExactly(CriteriaMetric.GOALS_COMPLETED);
+        assertThat(compiled.test(metric -> 1)).isTrue();
+        assertThat(compiled.test(metric -> 0)).isFalse();
+    }
+}
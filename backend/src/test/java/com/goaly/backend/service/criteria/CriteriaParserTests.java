@@ -0,0 +1,94 @@
+package com.goaly.backend.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import com.goaly.backend.exception.ValidationException;
+
+class CriteriaParserTests {
+
+    @ParameterizedTest
+    @CsvSource(delimiterString = "->", value = {
+            "goals_completed >= 10                             -> true",
+            "goals_completed > 10                              -> false",
+            "goals_completed == 10                             -> true",
+            "goals_completed = 10                              -> true",
+            "goals_completed != 10                             -> false",
+            "goals_completed < 11 AND goals_created <= 20      -> true",
+            "goals_completed>=10&&goals_created>=21            -> false",
+            "goals_completed >= 11 OR goals_created >= 20      -> true",
+            "goals_completed >= 11 || goals_created >= 21      -> false",
+            "NOT goals_completed >= 11                         -> true",
+            "!(goals_completed >= 10)                          -> false",
+            "true                                              -> true",
+            "FALSE                                             -> false",
+            "GOALS_COMPLETED >= 10 and not (weekly_streak > 0) -> true",
+            "fastest_completion_hours > -1                     -> true"
+    })
+    void evaluatesValidExpressions(String source, boolean expected) {
+        assertThat(CriteriaParser.parse(source).test(context(10, 20))).isEqualTo(expected);
+    }
+
+    @Test
+    void andBindsTighterThanOr() {
+        // false AND false OR true is true only when AND is grouped first
+        CriteriaPredicate predicate = CriteriaParser.parse(
+                "goals_completed > 99 AND goals_created > 99 OR goals_completed >= 10");
+
+        assertThat(predicate).isInstanceOf(CriteriaPredicate.Or.class);
+        assertThat(predicate.test(context(10, 20))).isTrue();
+    }
+
+    @Test
+    void collectsReferencedMetrics() {
+        CriteriaPredicate predicate = CriteriaParser.parse(
+                "goals_completed >= 1 AND (longest_streak >= 7 OR NOT goals_completed > 5)");
+
+        assertThat(predicate.metrics())
+                .containsExactlyInAnyOrder(CriteriaMetric.GOALS_COMPLETED, CriteriaMetric.LONGEST_STREAK);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "goals_completed >=",
+            "goals_completed 10",
+            "goals_completed >= ten",
+            "goals_completed => 10",
+            "unknown_metric >= 1",
+            "(goals_completed >= 1",
+            "goals_completed >= 1)",
+            "goals_completed >= 1 AND",
+            "goals_completed >= 1 goals_created >= 1",
+            "goals_completed >= 1; DROP TABLE goals",
+            "goals_completed >= 99999999999999999999",
+            "NOT"
+    })
+    void rejectsInvalidExpressions(String source) {
+        assertThatThrownBy(() -> CriteriaParser.parse(source))
+                .isInstanceOf(ValidationException.class)
+                .hasMessageStartingWith("Invalid criteria '" + source + "': ");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = { "", "   " })
+    void rejectsEmptyExpressions(String source) {
+        assertThatThrownBy(() -> CriteriaParser.parse(source))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Criteria expression is empty");
+    }
+
+    private static CriteriaContext context(long completed, long created) {
+        Map<CriteriaMetric, Long> values = new EnumMap<>(CriteriaMetric.class);
+        values.put(CriteriaMetric.GOALS_COMPLETED, completed);
+        values.put(CriteriaMetric.GOALS_CREATED, created);
+        return metric -> values.getOrDefault(metric, 0L);
+    }
+}
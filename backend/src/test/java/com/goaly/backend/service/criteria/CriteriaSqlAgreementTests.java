@@ -0,0 +1,163 @@
+package com.goaly.backend.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.service.UserService;
+
+/**
+ * Checks that criteria pushed down to SQL give the same answer as the Java
+ * snapshot they replace
+ */
+class CriteriaSqlAgreementTests extends PostgresIntegrationTest {
+
+    private static final String INSERT_GOAL_SQL = """
+            INSERT INTO goals (title, status, priority, target_date, completion_date, user_id, created_at)
+            VALUES ('Goal', ?, ?, ?::date, ?::date, ?, ?::timestamp)
+            """;
+
+    private static final List<CriteriaMetric> SQL_METRICS = List.of(CriteriaMetric.GOALS_CREATED,
+            CriteriaMetric.GOALS_COMPLETED, CriteriaMetric.GOALS_WITH_TARGET_DATE,
+            CriteriaMetric.HIGH_PRIORITY_COMPLETED, CriteriaMetric.EARLY_COMPLETIONS,
+            CriteriaMetric.FASTEST_COMPLETION_HOURS);
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long userId;
+    private Long emptyUserId;
+
+    @BeforeEach
+    void createGoals() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Criteria").getId();
+        emptyUserId = userService.createUser(UUID.randomUUID() + "@example.com", "Empty").getId();
+        // Early, on the target date, late and without a target
+        insert("COMPLETED", "HIGH", "2026-03-10", "2026-03-05", "2026-03-01 09:15");
+        insert("COMPLETED", "LOW", "2026-03-10", "2026-03-10", "2026-03-02 00:00");
+        insert("COMPLETED", "HIGH", "2026-03-10", "2026-03-12", "2026-03-03 23:59");
+        insert("COMPLETED", "MEDIUM", null, "2026-04-01", "2026-03-20 12:00");
+        // Completed the day after it was created, in the evening: fewer than 24 hours
+        insert("COMPLETED", "MEDIUM", null, "2026-04-02", "2026-04-01 20:30");
+        // Completion date recorded before creation, with a fractional negative hour count
+        insert("COMPLETED", "LOW", null, "2026-05-01", "2026-05-01 08:30");
+        // Completed without a completion date is counted but has no timing
+        insert("COMPLETED", "HIGH", "2026-06-01", null, "2026-05-20 10:00");
+        insert("ACTIVE", "HIGH", "2026-07-01", null, "2026-05-21 10:00");
+        insert("PAUSED", "MEDIUM", null, "2026-05-25", "2026-05-22 10:00");
+        insert("CANCELLED", "HIGH", "2026-05-01", "2026-04-20", "2026-04-10 10:00");
+    }
+
+    @Test
+    void aggregatesMatchSnapshot() {
+        for (Long user : List.of(userId, emptyUserId)) {
+            UserGoalSnapshot snapshot = snapshot(user);
+            for (CriteriaMetric metric : SQL_METRICS) {
+                Long value = jdbcTemplate.queryForObject("SELECT " + CriteriaSql.aggregate(metric) + """
+
+                        FROM users u LEFT JOIN goals g ON g.user_id = u.id
+                        WHERE u.id = ?
+                        GROUP BY u.id
+                        """, Long.class, user);
+                assertThat(value).as("%s for user %d", metric, user).isEqualTo(snapshot.value(metric));
+            }
+        }
+    }
+
+    @Test
+    void metricReadMatchesSnapshot() {
+        for (Long user : List.of(userId, emptyUserId)) {
+            UserGoalSnapshot snapshot = snapshot(user);
+            Map<CriteriaMetric, Long> values = goalRepository.aggregateMetrics(user, EnumSet.copyOf(SQL_METRICS));
+            for (CriteriaMetric metric : SQL_METRICS) {
+                assertThat(values.get(metric)).as("%s for user %d", metric, user).isEqualTo(snapshot.value(metric));
+            }
+        }
+    }
+
+    @Test
+    void conditionsMatchPredicates() {
+        Random random = new Random(11);
+        for (Long user : List.of(userId, emptyUserId)) {
+            UserGoalSnapshot snapshot = snapshot(user);
+            List<CriteriaPredicate> predicates = new ArrayList<>();
+            List<String> conditions = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                CriteriaPredicate predicate = randomPredicate(random, snapshot, 3);
+                predicates.add(predicate);
+                conditions.add(CriteriaSql.toCondition(predicate));
+            }
+
+            boolean[] results = goalRepository.evaluateConditions(user, conditions);
+
+            for (int i = 0; i < predicates.size(); i++) {
+                assertThat(results[i]).as(conditions.get(i)).isEqualTo(predicates.get(i).test(snapshot));
+            }
+        }
+    }
+
+    @Test
+    void streakMetricsStayOnTheJavaPath() {
+        assertThat(CriteriaSql.toCondition(CriteriaParser.parse("longest_streak >= 3"))).isNull();
+        assertThat(CriteriaSql.toCondition(CriteriaParser.parse(
+                "goals_completed >= 1 AND NOT weekly_streak > 2"))).isNull();
+    }
+
+    private CriteriaPredicate randomPredicate(Random random, CriteriaContext context, int depth) {
+        int kind = depth == 0 ? 0 : random.nextInt(5);
+        switch (kind) {
+            case 1:
+                return new CriteriaPredicate.And(operands(random, context, depth));
+            case 2:
+                return new CriteriaPredicate.Or(operands(random, context, depth));
+            case 3:
+                return new CriteriaPredicate.Not(randomPredicate(random, context, depth - 1));
+            default:
+                // Thresholds around the actual value so every operator sees both outcomes
+                CriteriaMetric metric = SQL_METRICS.get(random.nextInt(SQL_METRICS.size()));
+                CriteriaPredicate.Operator[] operators = CriteriaPredicate.Operator.values();
+                long value = context.value(metric);
+                long threshold = value == Long.MAX_VALUE
+                        ? value - random.nextInt(2) : value + random.nextInt(3) - 1;
+                return new CriteriaPredicate.Comparison(metric,
+                        operators[random.nextInt(operators.length)], threshold);
+        }
+    }
+
+    private List<CriteriaPredicate> operands(Random random, CriteriaContext context, int depth) {
+        List<CriteriaPredicate> operands = new ArrayList<>();
+        int count = random.nextInt(4);
+        for (int i = 0; i < count; i++) {
+            operands.add(randomPredicate(random, context, depth - 1));
+        }
+        return operands;
+    }
+
+    private UserGoalSnapshot snapshot(Long user) {
+        return UserGoalSnapshot.of(goalRepository.findByUserId(user), LocalDate.now());
+    }
+
+    private void insert(String status, String priority, String targetDate, String completionDate,
+            String createdAt) {
+        jdbcTemplate.update(INSERT_GOAL_SQL, status, priority, targetDate, completionDate, userId, createdAt);
+    }
+}
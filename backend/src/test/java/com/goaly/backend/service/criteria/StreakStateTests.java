@@ -0,0 +1,134 @@
+package com.goaly.backend.service.criteria;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the streak fold against the per-request scans it replaced
+ */
+class StreakStateTests {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 10, 18);
+
+    @Test
+    void bestStreakMatchesGoalStreakScan() {
+        Random random = new Random(3);
+        for (int run = 0; run < 500; run++) {
+            List<LocalDate> dates = randomCompletions(random);
+            StreakState state = StreakState.of(epochDays(dates));
+
+            for (int required = 1; required <= 15; required++) {
+                assertThat(state.getBestStreak() >= required)
+                        .as("%d completions in a streak of %s", required, dates)
+                        .isEqualTo(checkGoalStreak(dates, required));
+            }
+        }
+    }
+
+    @Test
+    void weeklyStreakMatchesWeeklyConsistencyScan() {
+        Random random = new Random(5);
+        for (int run = 0; run < 500; run++) {
+            List<LocalDate> dates = randomCompletions(random);
+            StreakState state = StreakState.of(epochDays(dates));
+            int weeks = state.weeklyStreak(TODAY.toEpochDay());
+
+            // The recent-days bitmap keeps the value exact for nine weeks
+            for (int required = 1; required <= 9; required++) {
+                assertThat(weeks >= required)
+                        .as("%d consistent weeks in %s", required, dates)
+                        .isEqualTo(checkWeeklyConsistency(dates, required));
+            }
+        }
+    }
+
+    @Test
+    void gapOfAWeekContinuesTheStreak() {
+        long day = TODAY.toEpochDay();
+
+        assertThat(StreakState.of(new long[] { day - 14, day - 7, day }).getBestStreak()).isEqualTo(3);
+        assertThat(StreakState.of(new long[] { day - 15, day - 7, day }).getBestStreak()).isEqualTo(2);
+        assertThat(StreakState.of(new long[] { day, day, day }).getCurrentStreak()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsOutOfOrderAppends() {
+        StreakState state = StreakState.EMPTY.append(100);
+
+        assertThat(state.canAppend(99)).isFalse();
+        assertThat(StreakState.EMPTY.canAppend(99)).isTrue();
+        assertThatThrownBy(() -> state.append(99)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void emptyStateHasNoStreaks() {
+        assertThat(StreakState.EMPTY.isEmpty()).isTrue();
+        assertThat(StreakState.EMPTY.getBestStreak()).isZero();
+        assertThat(StreakState.EMPTY.weeklyStreak(TODAY.toEpochDay())).isZero();
+    }
+
+    /**
+     * Sorted completion dates over the last ten weeks, mixing dense runs and
+     * gaps around the seven-day limit. Dates stop at today: the old weekly
+     * scan truncated negative week counts to zero, so it counted completions
+     * up to six days ahead as this week's.
+     */
+    private static List<LocalDate> randomCompletions(Random random) {
+        List<LocalDate> dates = new ArrayList<>();
+        LocalDate date = TODAY.minusDays(70 + random.nextInt(20));
+        int maxGap = 3 + random.nextInt(10);
+        while (true) {
+            date = date.plusDays(random.nextInt(maxGap + 1));
+            if (date.isAfter(TODAY)) {
+                return dates;
+            }
+            dates.add(date);
+        }
+    }
+
+    private static long[] epochDays(List<LocalDate> sortedDates) {
+        return sortedDates.stream().mapToLong(LocalDate::toEpochDay).toArray();
+    }
+
+    /** Streak Master check as it was evaluated before streaks were persisted */
+    private static boolean checkGoalStreak(List<LocalDate> sortedDates, int requiredStreak) {
+        if (sortedDates.size() < requiredStreak) {
+            return false;
+        }
+        int currentStreak = 1;
+        for (int i = 1; i < sortedDates.size(); i++) {
+            if (ChronoUnit.DAYS.between(sortedDates.get(i - 1), sortedDates.get(i)) <= 7) {
+                currentStreak++;
+                if (currentStreak >= requiredStreak) {
+                    return true;
+                }
+            } else {
+                currentStreak = 1;
+            }
+        }
+        return currentStreak >= requiredStreak;
+    }
+
+    /** Consistency King check as it was evaluated before streaks were persisted */
+    private static boolean checkWeeklyConsistency(List<LocalDate> dates, int requiredWeeks) {
+        LocalDate startDate = TODAY.minusWeeks(requiredWeeks);
+        Set<Long> weeksWithCompletions = new HashSet<>();
+        for (LocalDate date : dates) {
+            long weeksBetween = ChronoUnit.WEEKS.between(date, TODAY);
+            if (!date.isBefore(startDate) && weeksBetween >= 0 && weeksBetween < requiredWeeks) {
+                weeksWithCompletions.add(weeksBetween);
+            }
+        }
+        return weeksWithCompletions.size() >= requiredWeeks;
+    }
+}
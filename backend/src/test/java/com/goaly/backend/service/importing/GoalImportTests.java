@@ -0,0 +1,90 @@
+package com.goaly.backend.service.importing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.goaly.backend.PostgresIntegrationTest;
+import com.goaly.backend.dto.GoalImportResultDto;
+import com.goaly.backend.entity.Goal;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.repository.GoalRepository;
+import com.goaly.backend.service.UserService;
+
+class GoalImportTests extends PostgresIntegrationTest {
+
+    @Autowired
+    private GoalImportService importService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private GoalRepository goalRepository;
+
+    private Long userId;
+
+    @BeforeEach
+    void createUser() {
+        userId = userService.createUser(UUID.randomUUID() + "@example.com", "Importer").getId();
+    }
+
+    @Test
+    void importedGoalsGetPositiveUniqueIds() {
+        StringBuilder csv = new StringBuilder("title,status\n");
+        for (int i = 0; i < 120; i++) {
+            csv.append("Goal ").append(i).append(i % 3 == 0 ? ",COMPLETED\n" : ",ACTIVE\n");
+        }
+
+        GoalImportResultDto result = importService.importGoals(upload(csv.toString()), ImportFormat.CSV, userId);
+
+        assertThat(result.getImported()).isEqualTo(120);
+        List<Long> ids = goalRepository.findByUserId(userId).stream().map(Goal::getId).toList();
+        assertThat(ids).hasSize(120).doesNotHaveDuplicates().allMatch(id -> id > 0);
+    }
+
+    @Test
+    void titleLimitCountsCharacters() {
+        String emoji = "\uD83C\uDFC3";
+        String csv = "title\n" + emoji.repeat(200) + "\n" + emoji.repeat(201) + "\n";
+
+        GoalImportResultDto result = importService.importGoals(upload(csv), ImportFormat.CSV, userId);
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(GoalImportResultDto.RowError::line).containsExactly(3L);
+        assertThat(goalRepository.findByUserId(userId)).extracting(Goal::getTitle)
+                .containsExactly(emoji.repeat(200));
+    }
+
+    @Test
+    void unreadableHeaderFailsTheImport() {
+        String csv = "title,\"status\nRead a book,ACTIVE\n";
+
+        assertThatThrownBy(() -> importService.importGoals(upload(csv), ImportFormat.CSV, userId))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid CSV header: Unterminated quoted field");
+        assertThat(goalRepository.findByUserId(userId)).isEmpty();
+    }
+
+    @Test
+    void duplicateColumnFailsTheImport() {
+        String csv = "title,user_id,userId\nRead a book,1,2\n";
+
+        assertThatThrownBy(() -> importService.importGoals(upload(csv), ImportFormat.CSV, userId))
+                .isInstanceOf(ValidationException.class)
+                .hasMessage("Duplicate CSV column: userId");
+    }
+
+    private static InputStream upload(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,158 @@
+package com.goaly.backend.service.importing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.goaly.backend.exception.ValidationException;
+import com.goaly.backend.service.importing.ImportRecordReader.MalformedRecordException;
+
+class ImportRecordReaderTests {
+
+    @Test
+    void csvReadsQuotedFields() throws IOException {
+        ImportRecordReader reader = csv("""
+                Title,Description,Status
+                "Run, then rest","She said \"\"go\"\"",ACTIVE
+                "Two
+                lines",,"COMPLETED"
+                """);
+
+        assertThat(reader.next()).isEqualTo(Map.of(
+                "title", "Run, then rest", "description", "She said \"go\"", "status", "ACTIVE"));
+        assertThat(reader.line()).isEqualTo(2);
+        assertThat(reader.next()).isEqualTo(fields("title", "Two\nlines", "description", null,
+                "status", "COMPLETED"));
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void csvHandlesCrlfAndBlankLines() throws IOException {
+        ImportRecordReader reader = csv("title,user_id\r\n\r\nFirst,1\r\n\r\n\r\nSecond,2");
+
+        assertThat(reader.next()).isEqualTo(Map.of("title", "First", "userid", "1"));
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.next()).isEqualTo(Map.of("title", "Second", "userid", "2"));
+        assertThat(reader.line()).isEqualTo(6);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void csvSkipsRowsWithTheWrongFieldCount() throws IOException {
+        ImportRecordReader reader = csv("""
+                title,status
+                Too,many,fields
+                Too few
+                Fine,ACTIVE
+                """);
+
+        assertThatThrownBy(reader::next).isInstanceOf(MalformedRecordException.class)
+                .hasMessage("Expected 2 fields but found 3");
+        assertThat(reader.line()).isEqualTo(2);
+        assertThatThrownBy(reader::next).isInstanceOf(MalformedRecordException.class)
+                .hasMessage("Expected 2 fields but found 1");
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.next()).isEqualTo(Map.of("title", "Fine", "status", "ACTIVE"));
+        assertThat(reader.line()).isEqualTo(4);
+    }
+
+    @Test
+    void csvRejectsUnterminatedQuote() throws IOException {
+        ImportRecordReader reader = csv("title\nFine\n\"Never closed\nmore text\n");
+
+        assertThat(reader.next()).isEqualTo(Map.of("title", "Fine"));
+        assertThatThrownBy(reader::next).isInstanceOf(MalformedRecordException.class)
+                .hasMessage("Unterminated quoted field");
+        assertThat(reader.line()).isEqualTo(3);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void csvWithoutHeaderIsEmpty() throws IOException {
+        assertThat(csv("").next()).isNull();
+    }
+
+    @Test
+    void csvRejectsUnreadableOrDuplicateHeader() {
+        assertThatThrownBy(() -> csv("title,\"status").next()).isInstanceOf(ValidationException.class)
+                .hasMessage("Invalid CSV header: Unterminated quoted field");
+        assertThatThrownBy(() -> csv("Title, TITLE \nA,B").next()).isInstanceOf(ValidationException.class)
+                .hasMessage("Duplicate CSV column: TITLE");
+    }
+
+    @Test
+    void ndjsonReadsObjectsAndSkipsBlankLines() throws IOException {
+        ImportRecordReader reader = ndjson("""
+                {"Title": "Read", "user_id": 7, "description": null}
+
+                  \s
+                {"title": "Line \\"two\\"", "priority": "HIGH"}
+                """);
+
+        assertThat(reader.next()).isEqualTo(fields("title", "Read", "userid", "7", "description", null));
+        assertThat(reader.line()).isEqualTo(1);
+        assertThat(reader.next()).isEqualTo(Map.of("title", "Line \"two\"", "priority", "HIGH"));
+        assertThat(reader.line()).isEqualTo(4);
+        assertThat(reader.next()).isNull();
+    }
+
+    @Test
+    void ndjsonSkipsMalformedLines() throws IOException {
+        ImportRecordReader reader = ndjson("""
+                {"title": "Unclosed"
+                ["title"]
+                "title"
+                {"title": "Fine"}
+                """);
+
+        assertThatThrownBy(reader::next).isInstanceOf(MalformedRecordException.class)
+                .hasMessageStartingWith("Invalid JSON: ");
+        assertThat(reader.line()).isEqualTo(1);
+        assertThatThrownBy(reader::next).isInstanceOf(MalformedRecordException.class)
+                .hasMessage("Expected a JSON object");
+        assertThatThrownBy(reader::next).isInstanceOf(MalformedRecordException.class)
+                .hasMessage("Expected a JSON object");
+        assertThat(reader.next()).isEqualTo(Map.of("title", "Fine"));
+        assertThat(reader.line()).isEqualTo(4);
+    }
+
+    @Test
+    void normalizesFieldNamesWhateverTheDefaultLocale() {
+        Locale previous = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+        try {
+            assertThat(ImportRecordReader.normalize(" TITLE ")).isEqualTo("title");
+            assertThat(ImportRecordReader.normalize("Target_Date")).isEqualTo("targetdate");
+            assertThat(ImportRecordReader.normalize("PRIORITY")).isEqualTo("priority");
+        } finally {
+            Locale.setDefault(previous);
+        }
+    }
+
+    private static ImportRecordReader csv(String content) {
+        return new CsvRecordReader(new StringReader(content));
+    }
+
+    private static ImportRecordReader ndjson(String content) {
+        return new NdjsonRecordReader(new BufferedReader(new StringReader(content)), new ObjectMapper());
+    }
+
+    /** Map.of does not take null values */
+    private static Map<String, String> fields(String... keysAndValues) {
+        Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            fields.put(keysAndValues[i], keysAndValues[i + 1]);
+        }
+        return fields;
+    }
+}